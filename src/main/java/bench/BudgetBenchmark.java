@@ -0,0 +1,45 @@
+package bench;
+
+import java.time.Duration;
+import java.util.Map;
+
+import jlox.errors.ErrorLogger;
+import jlox.interpreter.Budget;
+import jlox.interpreter.BudgetedInterpreter;
+import jlox.interpreter.Interpreter;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+/**
+ * Measures what the budgets cost: the plain interpreter, a budgeted one with an unlimited budget and one with all three limits.
+ */
+public class BudgetBenchmark {
+    private static final String FORMULA = "(price * quantity - discount) / quantity > 10 == true and name + \"!\" != \"\"";
+    private static final int ITERATIONS = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        final Expr expr = new Parser(new Scanner(FORMULA, new ErrorLogger()).scanTokens()).parse();
+        final Map<String, Object> bindings = Map.of("price", 12.5, "quantity", 4.0, "discount", 3.0, "name", "widget");
+
+        final double plain = measure(new Interpreter(bindings), expr);
+        System.out.println(String.format("plain:     %6.1f ns per evaluation", plain));
+        final double unlimited = measure(new BudgetedInterpreter(bindings, Budget.UNLIMITED), expr);
+        System.out.println(String.format("unlimited: %6.1f ns per evaluation, %5.2fx", unlimited, unlimited / plain));
+        final double limited = measure(new BudgetedInterpreter(bindings, new Budget(10_000, 1 << 20, Duration.ofSeconds(1))), expr);
+        System.out.println(String.format("limited:   %6.1f ns per evaluation, %5.2fx", limited, limited / plain));
+    }
+
+    private static double measure(Interpreter interpreter, Expr expr) {
+        for (int r = 0; r < ROUNDS; r++) {
+            for (int i = 0; i < ITERATIONS; i++) interpreter.evaluate(expr);
+        }
+
+        final long start = System.nanoTime();
+        for (int r = 0; r < ROUNDS; r++) {
+            for (int i = 0; i < ITERATIONS; i++) interpreter.evaluate(expr);
+        }
+        return (double)(System.nanoTime() - start) / ROUNDS / ITERATIONS;
+    }
+}
@@ -0,0 +1,62 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import jlox.errors.ErrorLogger;
+import jlox.interpreter.CachingInterpreter;
+import jlox.interpreter.Interpreter;
+import jlox.interpreter.ResultCache;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+/**
+ * Evaluates a workload where the same formulas come again and again, each time parsed anew, and share subformulas with each other.
+ */
+public class CacheBenchmark {
+    private static final int FORMULAS = 50;
+    private static final int REPEATS = 200;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        final Random random = new Random(42);
+        final List<String> subformulas = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            subformulas.add("(" + i + " * 1.5 + 2) / (" + i + " + 3) - 4 * " + i);
+        }
+        final List<String> formulas = new ArrayList<>();
+        for (int i = 0; i < FORMULAS; i++) {
+            final StringBuilder formula = new StringBuilder("0");
+            for (int j = 0; j < 10; j++) {
+                formula.append(" + (").append(subformulas.get(random.nextInt(subformulas.size()))).append(")");
+            }
+            formulas.add(formula.toString());
+        }
+
+        final List<Expr> workload = new ArrayList<>();
+        for (int r = 0; r < REPEATS; r++) {
+            for (String formula : formulas) workload.add(parse(formula));
+        }
+
+        final ResultCache cache = new ResultCache(10_000, 16 << 20);
+        report("interpreter", workload, new Interpreter());
+        report("cached", workload, new CachingInterpreter(cache));
+        System.out.printf("hit rate: %.1f%%, %d entries, %d bytes%n", 100 * cache.getHitRate(), cache.size(), cache.getBytes());
+    }
+
+    private static Expr parse(String source) {
+        return new Parser(new Scanner(source, new ErrorLogger()).scanTokens()).parse();
+    }
+
+    private static void report(String name, List<Expr> workload, Interpreter interpreter) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long start = System.nanoTime();
+            for (Expr e : workload) interpreter.evaluate(e);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-12s %8.1f ns/formula%n", name + ":", (double)best / workload.size());
+    }
+}
@@ -0,0 +1,58 @@
+package bench;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import jlox.errors.ErrorLogger;
+import jlox.interpreter.ColumnarEvaluator;
+import jlox.interpreter.Interpreter;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+/**
+ * Compares evaluating a numeric formula over a million rows with the columnar evaluator against interpreting it once per row.
+ */
+public class ColumnarBenchmark {
+    private static final int ROWS = 1_000_000;
+    private static final int ROUNDS = 10;
+    private static final String FORMULA = "(price * quantity - discount) / quantity > 10";
+
+    public static void main(String[] args) {
+        final Expr expr = new Parser(new Scanner(FORMULA, new ErrorLogger()).scanTokens()).parse();
+
+        final Map<String, double[]> columns = new HashMap<>();
+        columns.put("price", new double[ROWS]);
+        columns.put("quantity", new double[ROWS]);
+        columns.put("discount", new double[ROWS]);
+        for (int i = 0; i < ROWS; i++) {
+            columns.get("price")[i] = i % 100;
+            columns.get("quantity")[i] = 1 + i % 9;
+            columns.get("discount")[i] = i % 13;
+        }
+
+        final ColumnarEvaluator columnar = new ColumnarEvaluator(expr, columns.keySet());
+        report("columnar", () -> columnar.evaluate(columns));
+
+        report("row by row", () -> {
+            final Map<String, Object> bindings = new HashMap<>();
+            for (int row = 0; row < ROWS; row++) {
+                for (Map.Entry<String, double[]> column : columns.entrySet()) {
+                    bindings.put(column.getKey(), column.getValue()[row]);
+                }
+                new Interpreter(bindings).interpret(expr);
+            }
+        });
+    }
+
+    private static void report(String name, Runnable body) {
+        for (int i = 0; i < ROUNDS; i++) body.run();
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) body.run();
+        final long end = System.nanoTime();
+
+        final double millis = (end - start) / 1000000.0 / ROUNDS;
+        System.out.println(String.format("%-10s %8.2f milliseconds, %6.2f nanoseconds per row.", name, millis, millis * 1000000.0 / ROWS));
+    }
+}
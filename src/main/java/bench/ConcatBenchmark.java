@@ -0,0 +1,43 @@
+package bench;
+
+import jlox.interpreter.Interpreter;
+import jlox.parser.Expr;
+import jlox.scanner.Token;
+import jlox.scanner.TokenType;
+
+/**
+ * Measures how the evaluation time of a left-deep chain of string concatenations, "ab" + "ab" + ... + "ab", grows with the number of terms.
+ * With lazy concatenation the time per term should stay flat when the chain doubles.
+ */
+public class ConcatBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) throws InterruptedException {
+        // The tree-walking interpreter recurses once per node, so run on a thread with a large stack.
+        final Thread t = new Thread(null, ConcatBenchmark::run, "concat-benchmark", 1L << 30);
+        t.start();
+        t.join();
+    }
+
+    private static void run() {
+        final Token plus = new Token(TokenType.PLUS, "+", 1);
+
+        for (int terms = 1_000; terms <= 64_000; terms *= 2) {
+            Expr e = new Expr.Literal("ab");
+            for (int i = 1; i < terms; i++) {
+                e = new Expr.Binary(e, plus, new Expr.Literal("ab"));
+            }
+
+            final Interpreter interpreter = new Interpreter();
+            for (int i = 0; i < WARMUP_ROUNDS; i++) interpreter.interpret(e);
+
+            final long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) interpreter.interpret(e);
+            final long end = System.nanoTime();
+
+            final double millis = (end - start) / 1000000.0 / ROUNDS;
+            System.out.println(String.format("%6d terms: %8.2f milliseconds, %6.1f nanoseconds per term.", terms, millis, millis * 1000000.0 / terms));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package bench;
+
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import jlox.errors.AsyncSink;
+import jlox.errors.ErrorLogger;
+
+/**
+ * Reports errors from several threads to /dev/null: through println on a PrintStream like System.out, which writes and flushes every
+ * line under its lock, and through an AsyncSink, which writes them in batches on its own thread.
+ */
+public class ErrorSinkBenchmark {
+    private static final int THREADS = 4;
+    private static final int ERRORS = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        try (PrintStream out = new PrintStream(new FileOutputStream("/dev/null"), true)) {
+            measure("println", new ErrorLogger(out::println), () -> {});
+        }
+        try (FileOutputStream file = new FileOutputStream("/dev/null")) {
+            final AsyncSink sink = new AsyncSink(new OutputStreamWriter(file), AsyncSink.DEFAULT_CAPACITY, AsyncSink.OverflowPolicy.BLOCK);
+            measure("async", new ErrorLogger(sink), sink::close);
+        }
+    }
+
+    private static void measure(String name, ErrorLogger errorLogger, Runnable finish) throws InterruptedException {
+        final long start = System.nanoTime();
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < ERRORS; i++) errorLogger.report(i, "x", "Undefined variable 'x'.");
+            }));
+        }
+        for (Thread t : threads) t.join();
+        final long reported = System.nanoTime();
+        finish.run();
+        final long written = System.nanoTime();
+
+        System.out.println(String.format("%-8s %8.1f ms until reported, %8.1f ms until written, %10.0f errors per second",
+                name + ":", (reported - start) / 1e6, (written - start) / 1e6, THREADS * ERRORS * 1e9 / (written - start)));
+    }
+}
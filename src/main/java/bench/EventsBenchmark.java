@@ -0,0 +1,49 @@
+package bench;
+
+import java.util.Map;
+
+import jdk.jfr.Recording;
+import jlox.errors.ErrorLogger;
+import jlox.interpreter.Interpreter;
+import jlox.metrics.Metrics;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+/**
+ * Measures what the instrumentation costs: "off" evaluates without a recording, "on" with the jlox events recorded and
+ * "metrics" with the metrics installed. Run each of them in its own JVM, because starting a recording changes the compiled code.
+ */
+public class EventsBenchmark {
+    private static final String FORMULA = "(price * quantity - discount) / quantity > 10 == true and name + \"!\" != \"\"";
+    private static final int ITERATIONS = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        final Expr expr = new Parser(new Scanner(FORMULA, new ErrorLogger()).scanTokens()).parse();
+        final Interpreter interpreter = new Interpreter(Map.of("price", 12.5, "quantity", 4.0, "discount", 3.0, "name", "widget"));
+
+        final String mode = args.length > 0 ? args[0] : "off";
+        try (Recording recording = new Recording()) {
+            if (mode.equals("on")) {
+                recording.enable("jlox.Evaluate").withoutThreshold();
+                recording.start();
+            } else if (mode.equals("metrics")) {
+                Metrics.install();
+            }
+            System.out.println(String.format("%-8s %6.1f ns per evaluation", mode + ":", measure(interpreter, expr)));
+        }
+    }
+
+    private static double measure(Interpreter interpreter, Expr expr) {
+        for (int r = 0; r < ROUNDS; r++) {
+            for (int i = 0; i < ITERATIONS; i++) interpreter.evaluate(expr);
+        }
+
+        final long start = System.nanoTime();
+        for (int r = 0; r < ROUNDS; r++) {
+            for (int i = 0; i < ITERATIONS; i++) interpreter.evaluate(expr);
+        }
+        return (double)(System.nanoTime() - start) / ROUNDS / ITERATIONS;
+    }
+}
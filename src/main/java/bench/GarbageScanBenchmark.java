@@ -0,0 +1,49 @@
+package bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import jlox.errors.Diagnostics;
+import jlox.errors.ErrorLogger;
+import jlox.scanner.Scanner;
+
+/**
+ * Scans random bytes, like a binary file passed as a script, and prints the errors to a stream that discards them.
+ * Compares the default limit of reported errors with no limit, where every unexpected character is formatted and printed.
+ */
+public class GarbageScanBenchmark {
+    private static final int BYTES = 4 << 20;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        final byte[] bytes = new byte[BYTES];
+        new Random(42).nextBytes(bytes);
+        final String source = new String(bytes, StandardCharsets.ISO_8859_1);
+
+        report("limited", source, Diagnostics.DEFAULT_LIMIT);
+        report("unlimited", source, Integer.MAX_VALUE);
+    }
+
+    private static void report(String name, String source, int maxErrors) {
+        final PrintStream sink = new PrintStream(OutputStream.nullOutputStream());
+        final long[] lines = new long[1];
+        final ErrorLogger errorLogger = new ErrorLogger(msg -> {
+            lines[0]++;
+            sink.println(msg);
+        });
+
+        // Warm up.
+        new Scanner(source, 1, errorLogger, maxErrors).scanTokens();
+
+        lines[0] = 0;
+        final long start = System.nanoTime();
+        for (int r = 0; r < ROUNDS; r++) {
+            new Scanner(source, 1, errorLogger, maxErrors).scanTokens();
+        }
+        final double millis = (System.nanoTime() - start) / 1000000.0 / ROUNDS;
+        System.out.println(String.format("%-9s %8.1f ms per %d MiB, %8.1f MiB/s, %9d lines printed",
+                name + ":", millis, BYTES >> 20, (BYTES >> 20) * 1000.0 / millis, lines[0] / ROUNDS));
+    }
+}
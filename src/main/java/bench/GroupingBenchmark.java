@@ -0,0 +1,53 @@
+package bench;
+
+import java.util.List;
+
+import jlox.errors.ErrorLogger;
+import jlox.interpreter.Interpreter;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+import jlox.scanner.Token;
+
+/**
+ * Compares the evaluation of generated code with redundant parentheses, parsed with and without Grouping nodes.
+ */
+public class GroupingBenchmark {
+    private static final int ROUNDS = 1_000_000;
+    private static final int REDUNDANT = 3;
+
+    public static void main(String[] args) {
+        final StringBuilder formula = new StringBuilder(wrap("0"));
+        for (int i = 1; i <= 20; i++) {
+            formula.insert(0, "(").append(" + ").append(wrap(i + " * 2")).append(")");
+        }
+        final List<Token> tokens = new Scanner(formula.toString(), new ErrorLogger()).scanTokens();
+        final Expr withNodes = new Parser(tokens).parse();
+        final Expr withoutNodes = new Parser(tokens, false).parse();
+        final Interpreter interpreter = new Interpreter();
+
+        report("grouping nodes", withNodes, interpreter);
+        report("metadata only", withoutNodes, interpreter);
+    }
+
+    private static String wrap(String s) {
+        return "(".repeat(REDUNDANT) + s + ")".repeat(REDUNDANT);
+    }
+
+    private static void report(String name, Expr e, Interpreter interpreter) {
+        for (int i = 0; i < ROUNDS; i++) interpreter.evaluate(e);
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) interpreter.evaluate(e);
+        final long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%-15s %4d nodes, %6.1f ns/evaluation%n", name + ":", count(e), (double)elapsed / ROUNDS);
+    }
+
+    private static int count(Expr e) {
+        if (e instanceof Expr.Binary b) return 1 + count(b.left) + count(b.right);
+        if (e instanceof Expr.Unary u) return 1 + count(u.right);
+        if (e instanceof Expr.Grouping g) return 1 + count(g.expression);
+        return 1;
+    }
+}
@@ -0,0 +1,43 @@
+package bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import jlox.errors.ErrorLogger;
+import jlox.interpreter.Interpreter;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+/**
+ * Measures the time and the allocated bytes per evaluation of index-style integer arithmetic, and of the same formula on fractions
+ * for comparison.
+ */
+public class IntegerArithmeticBenchmark {
+    private static final int ROUNDS = 2_000_000;
+    private static final String FORMULA = "(i * 4 + 1) - (i / 2) * 3 + (i - 1) * (i + 1) < 100 == (i * i - 1 >= 48)";
+
+    public static void main(String[] args) {
+        final Expr formula = parse(FORMULA);
+
+        report("integers", formula, new Interpreter(Map.of("i", 7.0)));
+        report("fractions", formula, new Interpreter(Map.of("i", 7.5)));
+    }
+
+    private static Expr parse(String source) {
+        return new Parser(new Scanner(source, new ErrorLogger()).scanTokens()).parse();
+    }
+
+    private static void report(String name, Expr formula, Interpreter interpreter) {
+        for (int i = 0; i < ROUNDS; i++) interpreter.evaluate(formula);
+
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        final long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        final long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) interpreter.evaluate(formula);
+        final long elapsed = System.nanoTime() - start;
+        final long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        System.out.printf("%-10s %6.1f ns/evaluation, %6.1f bytes/evaluation%n", name + ":", (double)elapsed / ROUNDS, (double)allocated / ROUNDS);
+    }
+}
@@ -0,0 +1,115 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import jlox.server.EvalClient;
+import jlox.server.EvalServer;
+
+/**
+ * Sends requests to an evaluation server from many connections, each on its own virtual thread, and prints the latency percentiles.
+ * Only successful responses are in the percentiles: rejections and errors come back fast, and would make an overloaded server look
+ * better. They are counted and printed next to them.
+ * Usage: LoadGenerator [port [connections [requests per connection]]]. Without a port it starts a server in this process.
+ */
+public class LoadGenerator {
+    private static final String[] FORMULAS = {
+        "(price * quantity - discount) / quantity > 10 == true",
+        "1 + 2 * 3 - 4 / 5",
+        "\"id-\" + 42",
+        "!(1 < 2) or 3 >= 4 and nil == nil",
+    };
+
+    public static void main(String[] args) throws Exception {
+        final int connections = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        final int requests = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+
+        final EvalServer server = args.length > 0 ? null : new EvalServer(0);
+        final int port = args.length > 0 ? Integer.parseInt(args[0]) : server.start();
+        try {
+            // Warm up both sides before measuring.
+            run(port, connections, requests / 4);
+            final long start = System.nanoTime();
+            final Samples samples = run(port, connections, requests);
+            final double seconds = (System.nanoTime() - start) / 1e9;
+
+            final long[] latencies = Arrays.copyOf(samples.latencies, samples.successes);
+            Arrays.sort(latencies);
+            final int total = connections * requests;
+            System.out.println(String.format("%d connections, %d requests in %.2f seconds, %.0f requests per second",
+                    connections, total, seconds, total / seconds));
+            System.out.println(String.format("%d succeeded, %d rejected, %d failed", samples.successes, samples.rejected, samples.errors));
+            if (latencies.length == 0) return;
+            for (double p : new double[] { 50, 90, 99, 99.9 }) {
+                System.out.println(String.format("p%-5s %8.1f microseconds", p, percentile(latencies, p) / 1000.0));
+            }
+            System.out.println(String.format("max    %8.1f microseconds", latencies[latencies.length - 1] / 1000.0));
+        } finally {
+            if (server != null) server.close();
+        }
+    }
+
+    /**
+     * The latencies of the successful requests in nanoseconds, and the counts of the others.
+     */
+    private static final class Samples {
+        final long[] latencies;
+        int successes;
+        int rejected;
+        int errors;
+
+        Samples(int capacity) {
+            this.latencies = new long[capacity];
+        }
+
+        void add(EvalClient.Response res, long nanos) {
+            if (res.isSuccess()) {
+                latencies[successes++] = nanos;
+            } else if (res.isRejected()) {
+                rejected++;
+            } else {
+                errors++;
+            }
+        }
+    }
+
+    private static Samples run(int port, int connections, int requests) throws Exception {
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            final List<Future<Samples>> futures = new ArrayList<>();
+            for (int c = 0; c < connections; c++) {
+                final int offset = c;
+                futures.add(threads.submit(() -> {
+                    final Samples samples = new Samples(requests);
+                    try (EvalClient client = new EvalClient("localhost", port)) {
+                        for (int i = 0; i < requests; i++) {
+                            final String formula = FORMULAS[(offset + i) % FORMULAS.length].replace("price", "12").replace("quantity", "3").replace("discount", "2");
+                            final long start = System.nanoTime();
+                            final EvalClient.Response res = client.evaluate(formula);
+                            samples.add(res, System.nanoTime() - start);
+                        }
+                    }
+                    return samples;
+                }));
+            }
+
+            final Samples all = new Samples(connections * requests);
+            for (Future<Samples> f : futures) {
+                final Samples samples = f.get();
+                System.arraycopy(samples.latencies, 0, all.latencies, all.successes, samples.successes);
+                all.successes += samples.successes;
+                all.rejected += samples.rejected;
+                all.errors += samples.errors;
+            }
+            return all;
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        final int index = (int)Math.ceil(p / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
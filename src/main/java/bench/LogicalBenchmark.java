@@ -0,0 +1,52 @@
+package bench;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import jlox.errors.ErrorLogger;
+import jlox.interpreter.Interpreter;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+/**
+ * Compares a guard-heavy formula written with short-circuit 'and' against the eager emulation with '==', which evaluates every
+ * condition on every row. Most rows fail one of the cheap guards.
+ */
+public class LogicalBenchmark {
+    private static final int ROWS = 1_000;
+    private static final int ROUNDS = 500;
+    private static final String CHECK = "(x * x - 3 * x + 2) / (x + 1) * (x - 4) / 7 > 10";
+    private static final String SHORT_CIRCUIT = "x > 0 and x < 100 and x != 50 and " + CHECK;
+    private static final String EAGER = "(x > 0) == (x < 100) == (x != 50) == (" + CHECK + ")";
+
+    public static void main(String[] args) {
+        final Interpreter[] rows = new Interpreter[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            final Map<String, Object> bindings = new HashMap<>();
+            bindings.put("x", (double)(i % 800 - 400));
+            rows[i] = new Interpreter(bindings);
+        }
+
+        report("eager ==", parse(EAGER), rows);
+        report("and", parse(SHORT_CIRCUIT), rows);
+    }
+
+    private static Expr parse(String source) {
+        return new Parser(new Scanner(source, new ErrorLogger()).scanTokens(), false).parse();
+    }
+
+    private static void report(String name, Expr formula, Interpreter[] rows) {
+        for (int round = 0; round < ROUNDS; round++) {
+            for (Interpreter row : rows) row.evaluate(formula);
+        }
+
+        final long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (Interpreter row : rows) row.evaluate(formula);
+        }
+        final long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%-9s %6.1f ns/row%n", name + ":", (double)elapsed / ROUNDS / ROWS);
+    }
+}
@@ -0,0 +1,58 @@
+package bench;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import jlox.errors.ErrorLogger;
+import jlox.interpreter.Interpreter;
+import jlox.interpreter.NanBoxEvaluator;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+/**
+ * Compares the boxed Object runtime of the interpreter with the NaN-boxed one: time, allocated bytes and garbage collections.
+ */
+public class NanBoxBenchmark {
+    private static final int ROUNDS = 5_000_000;
+    private static final String FORMULA = "(x * 4.5 + 1) - (x / 2) * 3 + (x - 1) * (x + 1) < 100 == (x * x - 1 >= 48)";
+
+    public static void main(String[] args) {
+        final Expr formula = parse(FORMULA);
+        final Map<String, Object> bindings = Map.of("x", 7.25);
+        final Interpreter interpreter = new Interpreter(bindings);
+        final NanBoxEvaluator evaluator = new NanBoxEvaluator(bindings);
+
+        report("boxed", () -> interpreter.evaluate(formula));
+        report("nan-boxed", () -> evaluator.evaluate(formula));
+    }
+
+    private static Expr parse(String source) {
+        return new Parser(new Scanner(source, new ErrorLogger()).scanTokens()).parse();
+    }
+
+    private static void report(String name, Supplier<Object> run) {
+        for (int i = 0; i < ROUNDS; i++) run.get();
+
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        final long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        final long collectionsBefore = collections();
+        final long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) run.get();
+        final long elapsed = System.nanoTime() - start;
+        final long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        System.out.printf("%-10s %6.1f ns/evaluation, %6.1f bytes/evaluation, %d collections%n",
+            name + ":", (double)elapsed / ROUNDS, (double)allocated / ROUNDS, collections() - collectionsBefore);
+    }
+
+    private static long collections() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+}
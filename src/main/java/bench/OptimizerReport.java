@@ -0,0 +1,68 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jlox.errors.ErrorLogger;
+import jlox.optimizer.OptimizedExpr;
+import jlox.optimizer.PassManager;
+import jlox.optimizer.PassStatistics;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+/**
+ * Reports how many nodes every optimizer pass eliminates from a corpus of expressions. The corpus is read from the files given as
+ * arguments, one expression per line; without arguments a built-in sample is used.
+ */
+public class OptimizerReport {
+    private static final List<String> SAMPLE = List.of(
+        "(1 + 2) * 3",
+        "(price * 1) * (quantity - 0)",
+        "-(-(x)) / 1 < 2 == !!(x > 0)",
+        "\"total: \" + (price * quantity)",
+        "1 < x == (nil == y)",
+        "((x - 1) * 1) + ((2 * 3) / 4)",
+        "x + 0",
+        "!!flag"
+    );
+
+    public static void main(String[] args) throws IOException {
+        final List<String> corpus = new ArrayList<>();
+        for (String file : args) {
+            for (String line : Files.readAllLines(Path.of(file))) {
+                if (!line.isBlank()) corpus.add(line);
+            }
+        }
+        if (corpus.isEmpty()) corpus.addAll(SAMPLE);
+
+        final PassManager manager = PassManager.standard();
+        final Map<String, int[]> totals = new LinkedHashMap<>();
+        int before = 0;
+        int after = 0;
+        for (String source : corpus) {
+            final Expr e = new Parser(new Scanner(source, new ErrorLogger()).scanTokens()).parse();
+            if (e == null) continue;
+
+            final OptimizedExpr result = manager.run(e);
+            for (PassStatistics statistics : result.getStatistics()) {
+                final int[] total = totals.computeIfAbsent(statistics.getName(), name -> new int[2]);
+                total[0] += statistics.getNodesEliminated();
+                total[1] += statistics.getRewrites();
+            }
+            final List<PassStatistics> statistics = result.getStatistics();
+            before += statistics.get(0).getNodesBefore();
+            after += statistics.get(statistics.size() - 1).getNodesAfter();
+        }
+
+        for (Map.Entry<String, int[]> total : totals.entrySet()) {
+            System.out.printf("%-28s %5d nodes eliminated, %5d rewrites%n", total.getKey(), total.getValue()[0], total.getValue()[1]);
+        }
+        System.out.printf("%d expressions: %d -> %d nodes%n", corpus.size(), before, after);
+    }
+}
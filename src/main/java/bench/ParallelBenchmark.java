@@ -0,0 +1,52 @@
+package bench;
+
+import java.util.concurrent.ForkJoinPool;
+
+import jlox.interpreter.Interpreter;
+import jlox.interpreter.ParallelEvaluator;
+import jlox.parser.Expr;
+import jlox.scanner.Token;
+import jlox.scanner.TokenType;
+
+/**
+ * Evaluates a balanced tree with about four million nodes sequentially and with fork/join pools of growing parallelism.
+ */
+public class ParallelBenchmark {
+    private static final int DEPTH = 21;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        final Expr e = balanced(DEPTH);
+        final Interpreter interpreter = new Interpreter();
+
+        final double sequential = measure(() -> interpreter.evaluate(e));
+        System.out.println(String.format("sequential:  %8.2f milliseconds", sequential));
+
+        final int cores = Runtime.getRuntime().availableProcessors();
+        for (int parallelism = 1; parallelism <= cores; parallelism *= 2) {
+            final ForkJoinPool pool = new ForkJoinPool(parallelism);
+            final ParallelEvaluator evaluator = new ParallelEvaluator(interpreter, pool, ParallelEvaluator.DEFAULT_THRESHOLD);
+            final double millis = measure(() -> evaluator.evaluate(e));
+            System.out.println(String.format("%2d threads:  %8.2f milliseconds, %5.2fx", parallelism, millis, sequential / millis));
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Alternates between '+' and '*' on the levels, so the value stays small.
+     */
+    private static Expr balanced(int depth) {
+        if (depth == 0) return new Expr.Literal(1.0);
+        final Token op = depth % 2 == 0 ? new Token(TokenType.PLUS, "+", 1) : new Token(TokenType.STAR, "*", 1);
+        return new Expr.Binary(balanced(depth - 1), op, balanced(depth - 1));
+    }
+
+    private static double measure(Runnable body) {
+        for (int i = 0; i < ROUNDS; i++) body.run();
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) body.run();
+        final long end = System.nanoTime();
+        return (end - start) / 1000000.0 / ROUNDS;
+    }
+}
@@ -0,0 +1,59 @@
+package bench;
+
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.List;
+
+import jlox.errors.ErrorLogger;
+import jlox.interpreter.Interpreter;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.pipeline.Pipeline;
+import jlox.pipeline.PipelineReport;
+import jlox.scanner.Scanner;
+
+/**
+ * Scans, parses and evaluates a stream of statements on one thread and with the pipeline, and prints the utilization of the stages.
+ */
+public class PipelineBenchmark {
+    private static final int LINES = 200_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            sb.append(i).append(" * 2 + (").append(i).append(" - 1) / 4 < 100 or \"a\" + ").append(i).append(" == \"b\";\n");
+        }
+        final String source = sb.toString();
+        final Interpreter interpreter = new Interpreter();
+        final ErrorLogger errorLogger = new ErrorLogger();
+
+        final double sequential = measure(() -> {
+            final List<Expr> statements = new Parser(new Scanner(source, errorLogger).scanTokens(), false).parseScript();
+            final StringBuilder out = new StringBuilder();
+            for (Expr e : statements) out.append(interpreter.evaluate(e)).append('\n');
+        });
+        System.out.println(String.format("one thread:  %8.2f milliseconds", sequential));
+
+        final Pipeline pipeline = new Pipeline(interpreter);
+        final PipelineReport[] last = new PipelineReport[1];
+        final double pipelined = measure(() -> {
+            try {
+                last[0] = pipeline.run(new StringReader(source), Writer.nullWriter(), errorLogger);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        System.out.println(String.format("pipeline:    %8.2f milliseconds, %5.2fx", pipelined, sequential / pipelined));
+        System.out.println(last[0]);
+    }
+
+    private static double measure(Runnable body) {
+        for (int i = 0; i < ROUNDS; i++) body.run();
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) body.run();
+        final long end = System.nanoTime();
+        return (end - start) / 1000000.0 / ROUNDS;
+    }
+}
@@ -0,0 +1,51 @@
+package bench;
+
+import java.util.Map;
+
+import jlox.errors.ErrorLogger;
+import jlox.interpreter.Interpreter;
+import jlox.interpreter.ProfilingInterpreter;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+/**
+ * Measures what profiling costs: the plain interpreter, a profiler that records every 100th evaluation and one that records all.
+ * Run each of them in its own JVM - "plain", "sampled" or "recorded" - because a recorded evaluation makes the calls of the
+ * interpreter polymorphic and slows down everything that is measured after it.
+ */
+public class ProfilerBenchmark {
+    private static final String FORMULA = "(price * quantity - discount) / quantity > 10 == true and name + \"!\" != \"\"";
+    private static final int ITERATIONS = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        final Expr expr = new Parser(new Scanner(FORMULA, new ErrorLogger()).scanTokens()).parse();
+        final Map<String, Object> bindings = Map.of("price", 12.5, "quantity", 4.0, "discount", 3.0, "name", "widget");
+
+        final String mode = args.length > 0 ? args[0] : "plain";
+        final Interpreter interpreter = switch (mode) {
+            case "plain" -> new Interpreter(bindings);
+            case "sampled" -> new ProfilingInterpreter(bindings, 100);
+            case "recorded" -> new ProfilingInterpreter(bindings);
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        };
+
+        System.out.println(String.format("%-9s %6.1f ns per evaluation", mode + ":", measure(interpreter, expr)));
+        if (interpreter instanceof ProfilingInterpreter profiler) {
+            System.out.println(profiler.getProfile().top(5));
+        }
+    }
+
+    private static double measure(Interpreter interpreter, Expr expr) {
+        for (int r = 0; r < ROUNDS; r++) {
+            for (int i = 0; i < ITERATIONS; i++) interpreter.evaluate(expr);
+        }
+
+        final long start = System.nanoTime();
+        for (int r = 0; r < ROUNDS; r++) {
+            for (int i = 0; i < ITERATIONS; i++) interpreter.evaluate(expr);
+        }
+        return (double)(System.nanoTime() - start) / ROUNDS / ITERATIONS;
+    }
+}
@@ -0,0 +1,66 @@
+package bench;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import jlox.ScriptRunner;
+import jlox.errors.ErrorLogger;
+import jlox.interpreter.Interpreter;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+/**
+ * Runs a script of many independent statements sequentially and on pools of growing size. The output is discarded,
+ * so the numbers are the evaluation and the ordering only.
+ */
+public class ScriptBenchmark {
+    private static final int STATEMENTS = 20_000;
+    private static final int TERMS = 200;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        final StringBuilder source = new StringBuilder();
+        for (int s = 0; s < STATEMENTS; s++) {
+            source.append(s);
+            for (int t = 1; t < TERMS; t++) source.append(t % 2 == 0 ? " + " : " * ").append(t % 7 + 1);
+            source.append(";\n");
+        }
+        final ErrorLogger errorLogger = new ErrorLogger();
+        final List<Expr> statements = new Parser(new Scanner(source.toString(), errorLogger).scanTokens(), false).parseScript();
+        final Interpreter interpreter = new Interpreter();
+
+        final double sequential = measure(() -> {
+            final List<String> out = new ArrayList<>(statements.size());
+            for (Expr e : statements) out.add(String.valueOf(interpreter.evaluate(e)));
+        });
+        System.out.println(String.format("sequential:  %8.2f milliseconds", sequential));
+
+        final int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            final ExecutorService pool = Executors.newFixedThreadPool(threads);
+            final ScriptRunner runner = new ScriptRunner(interpreter, pool);
+            final double millis = measure(() -> {
+                try {
+                    runner.run(statements, Writer.nullWriter(), errorLogger);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            System.out.println(String.format("%2d threads:  %8.2f milliseconds, %5.2fx", threads, millis, sequential / millis));
+            pool.shutdown();
+        }
+    }
+
+    private static double measure(Runnable body) {
+        for (int i = 0; i < ROUNDS; i++) body.run();
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) body.run();
+        final long end = System.nanoTime();
+        return (end - start) / 1000000.0 / ROUNDS;
+    }
+}
@@ -0,0 +1,46 @@
+package bench;
+
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+
+/**
+ * Compares evaluating the source through javax.script every time with evaluating a script compiled once.
+ */
+public class ScriptEngineBenchmark {
+    private static final String FORMULA = "(price * quantity - discount) / quantity > 10 == true";
+    private static final int ITERATIONS = 500_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        final ScriptEngine engine = new ScriptEngineManager().getEngineByName("jlox");
+        final Bindings bindings = engine.createBindings();
+        bindings.put("price", 12.5);
+        bindings.put("quantity", 4);
+        bindings.put("discount", 3.0);
+        final CompiledScript compiled = ((Compilable)engine).compile(FORMULA);
+
+        final double source = measure(() -> engine.eval(FORMULA, bindings));
+        System.out.println(String.format("eval(String): %8.0f ns per evaluation, %10.0f per second", source, 1e9 / source));
+        final double script = measure(() -> compiled.eval(bindings));
+        System.out.println(String.format("compiled:     %8.0f ns per evaluation, %10.0f per second, %5.2fx", script, 1e9 / script, source / script));
+    }
+
+    private interface Body {
+        Object run() throws Exception;
+    }
+
+    private static double measure(Body body) throws Exception {
+        for (int r = 0; r < ROUNDS; r++) {
+            for (int i = 0; i < ITERATIONS; i++) body.run();
+        }
+
+        final long start = System.nanoTime();
+        for (int r = 0; r < ROUNDS; r++) {
+            for (int i = 0; i < ITERATIONS; i++) body.run();
+        }
+        return (double)(System.nanoTime() - start) / ROUNDS / ITERATIONS;
+    }
+}
@@ -0,0 +1,51 @@
+package bench;
+
+import jlox.errors.ErrorLogger;
+import jlox.interpreter.Interpreter;
+import jlox.interpreter.StackInterpreter;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+/**
+ * Compares the explicit-stack interpreter with the recursive one on an ordinary formula, and shows that it handles a chain
+ * that overflows the recursive one.
+ */
+public class StackInterpreterBenchmark {
+    private static final int ROUNDS = 1_000_000;
+    private static final String FORMULA = "(1 + 2) * -(3 / 4) - 5 * 6 + 7 < 8 == !(9 >= 10)";
+
+    public static void main(String[] args) {
+        final Expr formula = parse(FORMULA);
+        final Interpreter interpreter = new Interpreter();
+        final StackInterpreter stackInterpreter = new StackInterpreter(interpreter);
+
+        report("recursive", () -> interpreter.evaluate(formula));
+        report("stack, one-off", () -> stackInterpreter.evaluate(formula));
+        final StackInterpreter.Program program = StackInterpreter.linearize(formula);
+        report("linearized once", () -> stackInterpreter.evaluate(program));
+
+        final Expr chain = parse("1" + " + 1".repeat(199_999));
+        try {
+            interpreter.evaluate(chain);
+            System.out.println("recursive:      200000 terms evaluated");
+        } catch (StackOverflowError e) {
+            System.out.println("recursive:      200000 terms overflow the stack");
+        }
+        System.out.println("explicit stack: 200000 terms evaluate to " + stackInterpreter.evaluate(chain));
+    }
+
+    private static Expr parse(String source) {
+        return new Parser(new Scanner(source, new ErrorLogger()).scanTokens()).parse();
+    }
+
+    private static void report(String name, Runnable body) {
+        for (int i = 0; i < ROUNDS; i++) body.run();
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) body.run();
+        final long end = System.nanoTime();
+
+        System.out.println(String.format("%-16s %6.1f nanoseconds per evaluation", name + ":", (end - start) / (double)ROUNDS));
+    }
+}
@@ -0,0 +1,68 @@
+package bench;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.List;
+
+import jlox.JLox;
+import jlox.StreamRunner;
+import jlox.errors.ErrorLogger;
+import jlox.interpreter.Interpreter;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+import jlox.scanner.Token;
+
+/**
+ * Evaluates a million lines the way the prompt does - an autoflushing PrintStream and a println per result - and with the StreamRunner.
+ * Both write to the null device, so every flush is a real write but no terminal slows them down.
+ */
+public class StreamBenchmark {
+    private static final int LINES = 1_000_000;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < LINES; i++) sb.append(i).append(" * 2 + 1 < ").append(i % 97).append('\n');
+        final String input = sb.toString();
+        final Interpreter interpreter = new Interpreter();
+
+        final double prompt = measure(() -> {
+            final PrintStream out = new PrintStream(nullDevice(), true);
+            final ErrorLogger errorLogger = new ErrorLogger(out::println);
+            for (String line : input.split("\n")) {
+                final List<Token> tokens = new Scanner(line, errorLogger).scanTokens();
+                out.println(JLox.stringify(interpreter.evaluate(new Parser(tokens, false).parse())));
+            }
+        });
+        System.out.println(String.format("println:  %8.2f milliseconds, %10.0f lines per second", prompt, LINES * 1000 / prompt));
+
+        final double stream = measure(() -> {
+            try {
+                new StreamRunner(interpreter).run(new StringReader(input), new OutputStreamWriter(nullDevice()));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        System.out.println(String.format("stream:   %8.2f milliseconds, %10.0f lines per second, %5.2fx", stream, LINES * 1000 / stream, prompt / stream));
+    }
+
+    private static FileOutputStream nullDevice() {
+        try {
+            return new FileOutputStream(System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double measure(Runnable body) {
+        for (int i = 0; i < ROUNDS; i++) body.run();
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) body.run();
+        final long end = System.nanoTime();
+        return (end - start) / 1000000.0 / ROUNDS;
+    }
+}
@@ -0,0 +1,59 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import jlox.CompiledExpression;
+import jlox.Lox;
+
+/**
+ * Executes one shared compiled expression from a growing number of threads and reports the throughput.
+ * Nothing is shared between the executions, so the throughput should grow close to linearly with the threads, up to the number of cores.
+ */
+public class ThroughputBenchmark {
+    private static final String FORMULA = "(price * quantity - discount) / quantity > 10 == true";
+    private static final long DURATION_NANOS = 2_000_000_000L;
+
+    public static void main(String[] args) throws Exception {
+        final CompiledExpression expr = Lox.compile(FORMULA);
+        final int cores = Runtime.getRuntime().availableProcessors();
+
+        // Warm up the JIT before measuring.
+        measure(expr, cores);
+
+        double single = 0;
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            final double opsPerSecond = measure(expr, threads);
+            if (threads == 1) single = opsPerSecond;
+            System.out.println(String.format("%3d threads: %12.0f evaluations per second, %5.2fx", threads, opsPerSecond, opsPerSecond / single));
+        }
+    }
+
+    private static double measure(CompiledExpression expr, int threads) throws Exception {
+        final ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            final long deadline = System.nanoTime() + DURATION_NANOS;
+            final List<Future<Long>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    long count = 0;
+                    while (System.nanoTime() < deadline) {
+                        expr.execute(Map.of("price", (double)(count % 100), "quantity", 3.0, "discount", 1.0));
+                        count++;
+                    }
+                    return count;
+                }));
+            }
+
+            long total = 0;
+            for (Future<Long> f : futures) total += f.get();
+            return total * 1_000_000_000.0 / DURATION_NANOS;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
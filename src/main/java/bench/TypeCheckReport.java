@@ -0,0 +1,83 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import jlox.analysis.TypeChecker;
+import jlox.analysis.TypeInfo;
+import jlox.errors.ErrorLogger;
+import jlox.errors.RuntimeError;
+import jlox.interpreter.StackInterpreter;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+/**
+ * Reports how many runtime operand checks the type checker removes from a corpus of expressions, and how much faster the linearized
+ * program runs without them. The corpus is read from the files given as arguments, one expression per line; without arguments
+ * a built-in sample is used.
+ */
+public class TypeCheckReport {
+    private static final int ROUNDS = 1_000_000;
+    private static final List<String> SAMPLE = List.of(
+        "1 + 2 * 3",
+        "(1 + 2) * -(3 / 4) - 5 * 6 + 7 < 8 == !(9 >= 10)",
+        "\"total: \" + (price * quantity)",
+        "price * quantity - discount",
+        "-(x - 1) / 2 > 0",
+        "\"a\" + \"b\" + 1",
+        "!(x == nil)",
+        "x + 1",
+        "1 - \"a\"",
+        "true + nil"
+    );
+
+    public static void main(String[] args) throws IOException {
+        final List<String> corpus = new ArrayList<>();
+        for (String file : args) {
+            for (String line : Files.readAllLines(Path.of(file))) {
+                if (!line.isBlank()) corpus.add(line);
+            }
+        }
+        if (corpus.isEmpty()) corpus.addAll(SAMPLE);
+
+        int checks = 0;
+        int removed = 0;
+        for (String source : corpus) {
+            final Expr e = parse(source);
+            if (e == null) continue;
+            final TypeInfo info = new TypeChecker().check(e);
+            checks += info.getChecks();
+            removed += info.getChecksRemoved();
+            for (RuntimeError err : info.getErrors()) {
+                System.out.printf("%s%n    always fails at '%s': %s%n", source, err.getToken().lexeme, err.getMessage());
+            }
+        }
+        System.out.printf("%d expressions, %d operand checks, %d removed (%.1f%%)%n",
+            corpus.size(), checks, removed, checks == 0 ? 0.0 : 100.0 * removed / checks);
+
+        final Expr formula = parse(SAMPLE.get(1));
+        final StackInterpreter stackInterpreter = new StackInterpreter();
+        final StackInterpreter.Program checked = StackInterpreter.linearize(formula);
+        final StackInterpreter.Program typed = StackInterpreter.linearize(formula, new TypeChecker().check(formula));
+        report("checked", () -> stackInterpreter.evaluate(checked));
+        report("typed", () -> stackInterpreter.evaluate(typed));
+    }
+
+    private static Expr parse(String source) {
+        return new Parser(new Scanner(source, new ErrorLogger()).scanTokens()).parse();
+    }
+
+    private static void report(String name, Runnable run) {
+        for (int i = 0; i < ROUNDS; i++) run.run();
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) run.run();
+        final long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%-8s %6.1f ns/evaluation%n", name + ":", (double)elapsed / ROUNDS);
+    }
+}
@@ -0,0 +1,247 @@
+package jlox;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import jlox.errors.ErrorLogger;
+import jlox.errors.ParseError;
+import jlox.errors.RuntimeError;
+import jlox.interpreter.Interpreter;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+import jlox.scanner.Token;
+
+/**
+ * Runs many script files in one process. Every file is a separate task on the pool and its statements are evaluated in order,
+ * exactly like jlox would run the file on its own.
+ *
+ * The result of every file is one line of JSON, in the order the files were found:
+ * {"file":"a.lox","exit":0,"statements":2,"results":["3.0","nil"],"errors":[]}
+ * The exit codes follow jlox: 0, 65 for errors in the script and 74 if the file could not be read. Unlike jlox, which only reports
+ * them, errors of the scanner alone also make a file exit with 65: a batch should not count a file with errors as passed.
+ * A script nested too deeply for the stack fails with 65 too, and does not affect the other files.
+ * The last line sums up the run: {"files":2,"failed":1,"millis":12.5}.
+ *
+ * The files are listed lazily and at most {@link #getWindow()} of them are read or waiting to be printed at a time, so the memory
+ * does not depend on how many files there are.
+ */
+public final class BatchRunner {
+
+    public static final int DEFAULT_WINDOW = 256;
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_DATA_ERROR = 65;
+    static final int EXIT_IO_ERROR = 74;
+
+    private final Interpreter interpreter;
+    private final ExecutorService pool;
+    private final int window;
+
+    public BatchRunner(Interpreter interpreter, ExecutorService pool) {
+        this(interpreter, pool, DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param interpreter Evaluates the statements, only through its thread-safe evaluate.
+     * @param pool The pool that runs the files, ideally a work-stealing one. The runner does not shut it down.
+     * @param window The maximal number of files that are in flight.
+     */
+    public BatchRunner(Interpreter interpreter, ExecutorService pool, int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("The window must be positive.");
+        }
+        this.interpreter = interpreter;
+        this.pool = pool;
+        this.window = window;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    /**
+     * Lists the scripts to run, lazily. Close the stream when done.
+     * @param pathOrGlob A file, a directory whose .lox files are found recursively, or a glob like "jobs/**.lox".
+     */
+    public static Stream<Path> find(String pathOrGlob) throws IOException {
+        final int wildcard = firstWildcard(pathOrGlob);
+        if (wildcard == pathOrGlob.length()) {
+            final Path path = Paths.get(pathOrGlob);
+            if (!Files.isDirectory(path)) return Stream.of(path);
+            return Files.walk(path).filter(p -> p.toString().endsWith(".lox") && Files.isRegularFile(p));
+        }
+
+        // Walk from the directory before the first wildcard. A relative glob is matched against paths relative to the working directory.
+        final int separator = Math.max(pathOrGlob.lastIndexOf('/', wildcard), pathOrGlob.lastIndexOf('\\', wildcard));
+        final Path base = Paths.get(separator < 0 ? "" : pathOrGlob.substring(0, separator + 1));
+        final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pathOrGlob);
+        return Files.walk(separator < 0 ? Paths.get(".") : base)
+                .map(p -> separator < 0 ? Paths.get(".").relativize(p) : p)
+                .filter(p -> matcher.matches(p) && Files.isRegularFile(p));
+    }
+
+    private static int firstWildcard(String glob) {
+        for (int i = 0; i < glob.length(); i++) {
+            if ("*?[{".indexOf(glob.charAt(i)) >= 0) return i;
+        }
+        return glob.length();
+    }
+
+    /**
+     * Runs the files and prints a line of JSON per file and the summary.
+     * @return The number of files that did not end with exit code 0.
+     */
+    public long run(Iterator<Path> files, Writer out) throws IOException {
+        final long start = System.nanoTime();
+        final ArrayDeque<Future<FileResult>> inFlight = new ArrayDeque<>();
+        long count = 0;
+        long failed = 0;
+
+        try {
+            while (files.hasNext()) {
+                if (inFlight.size() == window) {
+                    failed += emit(inFlight.poll(), out);
+                }
+                final Path file = files.next();
+                inFlight.add(pool.submit(() -> runFile(file)));
+                count++;
+            }
+            while (!inFlight.isEmpty()) {
+                failed += emit(inFlight.poll(), out);
+            }
+        } catch (UncheckedIOException e) {
+            // From the lazy listing of the files.
+            throw e.getCause();
+        } finally {
+            for (Future<FileResult> f : inFlight) f.cancel(false);
+        }
+
+        out.write(String.format("{\"files\":%d,\"failed\":%d,\"millis\":%.1f}", count, failed, (System.nanoTime() - start) / 1000000.0));
+        out.write(System.lineSeparator());
+        out.flush();
+        return failed;
+    }
+
+    private static int emit(Future<FileResult> f, Writer out) throws IOException {
+        final FileResult res;
+        try {
+            res = f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a file.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException r) throw r;
+            throw new IllegalStateException(e.getCause());
+        }
+        out.write(res.json);
+        out.write(System.lineSeparator());
+        return res.exit == EXIT_OK ? 0 : 1;
+    }
+
+    private static final class FileResult {
+        final String json;
+        final int exit;
+
+        FileResult(String json, int exit) {
+            this.json = json;
+            this.exit = exit;
+        }
+    }
+
+    /**
+     * Runs one file the way JLox.runFile does, except that the statements are evaluated in order on the current thread.
+     */
+    FileResult runFile(Path file) {
+        final List<String> results = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+        final ErrorLogger errorLogger = new ErrorLogger(errors::add);
+        int statements = 0;
+        int exit = EXIT_OK;
+
+        try {
+            final String source = Files.readString(file);
+            final List<Token> tokens = new Scanner(source, errorLogger).scanTokens();
+            final Parser parser = new Parser(tokens, false);
+            final List<Expr> exprs = parser.parseScript();
+            statements = exprs.size() + parser.getScriptErrors().size();
+
+            if (parser.getError().notNull()) {
+                for (ParseError err : parser.getScriptErrors()) {
+                    errorLogger.report(err.getToken().line, err.getToken().lexeme, err.getMessage());
+                }
+            } else {
+                for (Expr e : exprs) {
+                    try {
+                        results.add(JLox.stringify(interpreter.evaluate(e)));
+                    } catch (RuntimeError err) {
+                        errorLogger.report(err.getToken().line, err.getToken().lexeme, err.getMessage());
+                    }
+                }
+            }
+            if (!errors.isEmpty()) exit = EXIT_DATA_ERROR;
+        } catch (StackOverflowError e) {
+            // The parser and the interpreter are recursive. Only this file fails.
+            errors.add("Script is nested too deeply.");
+            exit = EXIT_DATA_ERROR;
+        } catch (IOException e) {
+            errors.add(String.valueOf(e));
+            exit = EXIT_IO_ERROR;
+        }
+
+        final StringBuilder json = new StringBuilder();
+        json.append("{\"file\":");
+        quote(file.toString(), json);
+        json.append(",\"exit\":").append(exit).append(",\"statements\":").append(statements).append(",\"results\":");
+        array(results, json);
+        json.append(",\"errors\":");
+        array(errors, json);
+        json.append('}');
+        return new FileResult(json.toString(), exit);
+    }
+
+    private static void array(List<String> values, StringBuilder json) {
+        json.append('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) json.append(',');
+            quote(values.get(i), json);
+        }
+        json.append(']');
+    }
+
+    static void quote(String s, StringBuilder json) {
+        json.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int)c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,64 @@
+package jlox;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import jlox.interpreter.Interpreter;
+import jlox.parser.Expr;
+
+/**
+ * An expression that has been scanned and parsed once by {@link Lox#compile(String)}.
+ * It is immutable, so one instance can be executed concurrently from many threads.
+ */
+public final class CompiledExpression {
+    private final String source;
+    private final Expr expr;
+
+    CompiledExpression(String source, Expr expr) {
+        this.source = source;
+        this.expr = expr;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public Expr getExpr() {
+        return expr;
+    }
+
+    public Result execute() {
+        return execute(Map.of());
+    }
+
+    /**
+     * Evaluates the expression. Every call gets its own interpreter, so calls don't share any state.
+     * @param bindings The values of the parameters. Numbers of any type are converted to double, the same as number literals.
+     * @return The value or the runtime error.
+     * @throws IllegalArgumentException if a binding is not a number, a string, a boolean or null.
+     */
+    public Result execute(Map<String, ?> bindings) {
+        final Interpreter interpreter = new Interpreter(toLoxValues(bindings));
+        final Object value = interpreter.interpret(expr);
+
+        if (interpreter.getError().notNull()) {
+            return Result.failure(interpreter.getError().get());
+        }
+        return Result.success(value);
+    }
+
+    private static Map<String, Object> toLoxValues(Map<String, ?> bindings) {
+        final Map<String, Object> values = new HashMap<>(bindings.size() * 2);
+        for (Map.Entry<String, ?> binding : bindings.entrySet()) {
+            values.put(binding.getKey(), toLoxValue(binding.getKey(), binding.getValue()));
+        }
+        return values;
+    }
+
+    private static Object toLoxValue(String name, Object value) {
+        if (value == null || value instanceof Double || value instanceof Boolean || value instanceof String) return value;
+        if (value instanceof Number n) return n.doubleValue();
+        if (value instanceof CharSequence s) return s.toString();
+        throw new IllegalArgumentException(String.format("Unsupported value for '%s': %s", name, value.getClass().getName()));
+    }
+}
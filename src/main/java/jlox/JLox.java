@@ -1,52 +1,250 @@
 package jlox;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
 
+import jlox.errors.AsyncSink;
 import jlox.errors.ErrorLogger;
 import jlox.errors.ParseError;
 import jlox.errors.RuntimeError;
 import jlox.interpreter.Interpreter;
+import jlox.interpreter.ProfilingInterpreter;
+import jlox.metrics.Metrics;
 import jlox.parser.Expr;
 import jlox.parser.Parser;
+import jlox.pipeline.Pipeline;
+import jlox.pipeline.PipelineReport;
 import jlox.scanner.Scanner;
 import jlox.scanner.Token;
+import jlox.server.EvalServer;
 
+/**
+ * The command line interface. Each instance keeps its own error state, so nothing is shared between runs.
+ */
 public class JLox {
 
-    private static boolean hadError;
+    private boolean hadError;
 
-    private static ErrorLogger errorLogger;
+    private final ErrorLogger errorLogger;
 
-    static {
-        errorLogger = new ErrorLogger(System.out::println);
+    /**
+     * The interpreter holds no state between evaluations, so one instance serves every line.
+     */
+    private final Interpreter interpreter;
+
+    /**
+     * The port of --serve when none is given.
+     */
+    public static final int DEFAULT_PORT = 7369;
+
+    /**
+     * Set to true to expose the metrics over JMX, see {@link Metrics}.
+     */
+    public static final String METRICS_PROPERTY = "jlox.metrics";
+
+    /**
+     * The number of nodes in the table of --profile.
+     */
+    private static final int PROFILE_TOP = 20;
+
+    public JLox(ErrorLogger errorLogger) {
+        this.errorLogger = errorLogger;
+        this.interpreter = new Interpreter();
     }
 
     public static void main(String[] args) throws IOException {
-        if (args.length > 1) {
-            System.out.println("Usage: jlox [script]");
+        if (Boolean.getBoolean(METRICS_PROPERTY)) {
+            Metrics.install();
+        }
+        // The errors are written in batches on a background thread, and whatever is left when the process exits.
+        final AsyncSink errors = new AsyncSink(new OutputStreamWriter(System.out)).closeOnExit();
+        final JLox jlox = new JLox(new ErrorLogger(errors));
+
+        final String mode = args.length > 0 && args[0].startsWith("--") ? args[0] : "";
+        final String path = args.length == (mode.isEmpty() ? 1 : 2) ? args[args.length - 1] : null;
+        final int maxArgs = switch (mode) {
+            case "" -> 1;
+            case "--pipeline" -> 2;
+            case "--stream" -> 1;
+            case "--batch" -> 2;
+            case "--serve" -> 2;
+            case "--profile" -> 2;
+            default -> -1;
+        };
+
+        if (args.length > maxArgs || ((mode.equals("--batch") || mode.equals("--profile")) && path == null)
+                || (mode.equals("--serve") && path != null && !isPort(path))) {
+            System.out.println("Usage: jlox [script] | --pipeline [script] | --stream | --batch <directory or glob> | --serve [port] | --profile <script>");
             System.exit(64);
-        } else if (args.length == 1) {
-            runFile(args[0]);
+        } else if (mode.equals("--pipeline")) {
+            jlox.runPipeline(path);
+        } else if (mode.equals("--stream")) {
+            jlox.runStream();
+        } else if (mode.equals("--batch")) {
+            jlox.runBatch(path);
+        } else if (mode.equals("--profile")) {
+            jlox.runProfile(path);
+        } else if (mode.equals("--serve")) {
+            serve(path == null ? DEFAULT_PORT : Integer.parseInt(path));
+        } else if (path != null) {
+            jlox.runFile(path);
         } else {
-            runPrompt();
+            jlox.runPrompt();
         }
     }
 
-    private static void runFile(String path) throws IOException {
-        run(Files.readString(Paths.get(path)));
+    private static boolean isPort(String arg) {
+        try {
+            final int port = Integer.parseInt(arg);
+            return port >= 0 && port <= 65535;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * A file is a script: expressions separated by ';', evaluated in parallel and printed in source order.
+     */
+    private void runFile(String path) throws IOException {
+        final ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            final Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+            runScript(Files.readString(Paths.get(path)), new ScriptRunner(interpreter, pool), out);
+        } finally {
+            pool.shutdownNow();
+        }
 
         if (hadError) System.exit(65);
     }
 
-    private static void runPrompt() throws IOException {
+    /**
+     * Runs a script like runFile, but on one thread and with a profiler. The nodes that took the most time are printed to the
+     * standard error, and the collapsed stacks for a flame graph are written next to the script.
+     */
+    private void runProfile(String path) throws IOException {
+        final ProfilingInterpreter profiler = new ProfilingInterpreter();
+        final ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            final Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+            runScript(Files.readString(Paths.get(path)), new ScriptRunner(profiler, pool), out);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        final Path collapsed = Paths.get(path + ".collapsed");
+        try (Writer out = Files.newBufferedWriter(collapsed)) {
+            profiler.getProfile().writeCollapsed(out);
+        }
+        System.err.println(profiler.getProfile().top(PROFILE_TOP));
+        System.err.println("Collapsed stacks written to " + collapsed);
+
+        if (hadError) System.exit(65);
+    }
+
+    /**
+     * Evaluates every line of the standard input without a prompt. The results and the errors go through one large buffer,
+     * and the throughput is printed to the standard error at the end.
+     */
+    private void runStream() throws IOException {
+        final Reader in = new InputStreamReader(System.in);
+        final Writer out = new OutputStreamWriter(System.out);
+        final StreamRunner runner = new StreamRunner(interpreter);
+        final boolean failed = runner.run(in, out);
+        System.err.println(String.format("%d expressions in %.2f milliseconds, %.0f expressions per second",
+                runner.getExpressions(), runner.getNanos() / 1000000.0, runner.getExpressionsPerSecond()));
+
+        if (failed) System.exit(65);
+    }
+
+    /**
+     * Runs every script that the directory or the glob finds, in one process, and prints a line of JSON per file.
+     */
+    private void runBatch(String pathOrGlob) throws IOException {
+        final ExecutorService pool = Executors.newWorkStealingPool();
+        final long failed;
+        try (Stream<Path> files = BatchRunner.find(pathOrGlob)) {
+            final Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+            failed = new BatchRunner(interpreter, pool).run(files.iterator(), out);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (failed > 0) System.exit(65);
+    }
+
+    /**
+     * Serves evaluations on the loopback address until the process is killed.
+     */
+    private static void serve(int port) throws IOException {
+        final EvalServer server = new EvalServer(port);
+        System.out.println("Listening on port " + server.start());
+        for (;;) {
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+                server.close();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs a script, or the standard input, with the scanner, the parser and the interpreter on separate threads.
+     * The utilization of the stages is printed to the standard error at the end.
+     */
+    private void runPipeline(String path) throws IOException {
+        final Reader input = path == null
+                ? new InputStreamReader(System.in)
+                : Files.newBufferedReader(Paths.get(path));
+        final PipelineReport report;
+        try (input) {
+            final Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+            report = new Pipeline(interpreter).run(input, out, errorLogger);
+        }
+        System.err.println(report);
+
+        if (report.hadError()) System.exit(65);
+    }
+
+    /**
+     * Reports the syntax errors of all statements and, if there are none, runs the script.
+     */
+    void runScript(String source, ScriptRunner runner, Writer out) throws IOException {
+        Scanner scanner = new Scanner(source, errorLogger);
+        List<Token> tokens = scanner.scanTokens();
+        Parser p = new Parser(tokens, false);
+        List<Expr> statements = p.parseScript();
+
+        if (p.getError().notNull()) {
+            for (ParseError err : p.getScriptErrors()) {
+                errorLogger.report(err.getToken().line, err.getToken().lexeme, err.getMessage());
+            }
+            hadError = true;
+            return;
+        }
+
+        if (runner.run(statements, out, errorLogger)) {
+            hadError = true;
+        }
+    }
+
+    private void runPrompt() throws IOException {
         try (InputStreamReader input = new InputStreamReader(System.in)) {
             try (BufferedReader reader = new BufferedReader(input)) {
                 for (;;) {
+                    errorLogger.flush();
                     System.out.print("> ");
                     String line = reader.readLine();
                     if (line == null) break;
@@ -59,10 +257,10 @@ public class JLox {
         }
     }
 
-    private static void run(String source) {
+    private void run(String source) {
         Scanner scanner = new Scanner(source, errorLogger);
         List<Token> tokens = scanner.scanTokens();
-        Parser p = new Parser(tokens);
+        Parser p = new Parser(tokens, false);
         Expr expr = p.parse();
 
         if (p.getError().notNull()) {
@@ -72,16 +270,24 @@ public class JLox {
             return;
         }
 
-        Interpreter interpreter = new Interpreter();
-        final Object res = interpreter.interpret(expr);
-
-        if (interpreter.getError().notNull()) {
-            RuntimeError err = interpreter.getError().get();
+        final Object res;
+        try {
+            res = interpreter.evaluate(expr);
+        } catch (RuntimeError err) {
             errorLogger.report(err.getToken().line, err.getToken().lexeme, err.getMessage());
             hadError = true;
             return;
         }
 
-        System.out.println(res.toString());
+        // The scanner may have reported errors for this line; they come before its value.
+        errorLogger.flush();
+        System.out.println(stringify(res));
+    }
+
+    /**
+     * @return The text that the command line prints for a value.
+     */
+    public static String stringify(Object value) {
+        return value == null ? "nil" : value.toString();
     }
 }
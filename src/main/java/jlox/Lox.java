@@ -0,0 +1,48 @@
+package jlox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jlox.errors.CompileError;
+import jlox.errors.Diagnostic;
+import jlox.errors.ErrorLogger;
+import jlox.errors.ParseError;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+import jlox.scanner.Token;
+
+/**
+ * Entrypoint for embedding jlox in other programs.
+ * Works like a prepared statement: compile the source once and execute the compiled expression as many times as needed, with different bindings.
+ * Unlike {@link JLox}, nothing is printed and there is no global state.
+ */
+public final class Lox {
+
+    private Lox() {}
+
+    /**
+     * Scans and parses the source code.
+     * @param source A jlox expression. It can reference parameters by name.
+     * @return An immutable expression that can be shared between threads.
+     * @throws CompileError if the scanner or the parser reported any error.
+     */
+    public static CompiledExpression compile(String source) {
+        final List<Diagnostic> diagnostics = new ArrayList<>();
+        final ErrorLogger errorLogger = ErrorLogger.collecting(diagnostics::add);
+
+        final List<Token> tokens = new Scanner(source, errorLogger).scanTokens();
+        final Parser parser = new Parser(tokens, false);
+        final Expr expr = parser.parse();
+
+        if (parser.getError().notNull()) {
+            final ParseError err = parser.getError().get();
+            errorLogger.report(err.getToken().line, err.getToken().lexeme, err.getMessage());
+        }
+        if (!diagnostics.isEmpty()) {
+            throw new CompileError(diagnostics);
+        }
+
+        return new CompiledExpression(source, expr);
+    }
+}
@@ -0,0 +1,40 @@
+package jlox;
+
+import jlox.errors.Error;
+import jlox.errors.RuntimeError;
+
+/**
+ * The outcome of executing a {@link CompiledExpression}: either a value or the error that stopped the evaluation.
+ */
+public final class Result {
+    private final Object value;
+    private final Error<RuntimeError> error;
+
+    private Result(Object value, Error<RuntimeError> error) {
+        this.value = value;
+        this.error = error;
+    }
+
+    static Result success(Object value) {
+        return new Result(value, Error.None());
+    }
+
+    static Result failure(RuntimeError error) {
+        return new Result(null, new Error<RuntimeError>(error));
+    }
+
+    public boolean isSuccess() {
+        return !error.notNull();
+    }
+
+    /**
+     * @return The value of the expression - a Double, a String, a Boolean or null for nil. Null when the evaluation failed.
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    public Error<RuntimeError> getError() {
+        return error;
+    }
+}
@@ -0,0 +1,119 @@
+package jlox;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import jlox.errors.ErrorLogger;
+import jlox.errors.RuntimeError;
+import jlox.interpreter.Interpreter;
+import jlox.parser.Expr;
+
+/**
+ * Evaluates the statements of a script in parallel and prints their results in source order.
+ * The statements are independent - an expression cannot see the value of another - so they are submitted to the pool as separate tasks.
+ * At most {@link #getWindow()} of them are in flight: when the window is full, the runner waits for the oldest one and prints it
+ * before it submits the next. So a slow statement holds back the output, but never more than a window of finished results.
+ */
+public final class ScriptRunner {
+
+    /**
+     * Enough in-flight statements to keep every core busy behind a slow one.
+     */
+    public static final int DEFAULT_WINDOW = 1024;
+
+    private final Interpreter interpreter;
+    private final ExecutorService pool;
+    private final int window;
+
+    public ScriptRunner(Interpreter interpreter, ExecutorService pool) {
+        this(interpreter, pool, DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param interpreter Evaluates the statements. It is shared by all tasks, so only its thread-safe evaluate is used.
+     * @param pool The pool that runs the tasks. Its size bounds the parallelism, the runner does not shut it down.
+     * @param window The maximal number of statements that are submitted but not printed yet.
+     */
+    public ScriptRunner(Interpreter interpreter, ExecutorService pool, int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("The window must be positive.");
+        }
+        this.interpreter = interpreter;
+        this.pool = pool;
+        this.window = window;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    /**
+     * Prints the value of every statement on its own line, or reports its error, in the order of the statements.
+     * The output is flushed before an error is reported and at the end, and the errors are flushed before a result is printed,
+     * so the two streams stay in order.
+     * @return Whether any statement failed.
+     */
+    public boolean run(List<Expr> statements, Writer out, ErrorLogger errorLogger) throws IOException {
+        final ArrayDeque<Future<Object>> inFlight = new ArrayDeque<>(Math.min(window, statements.size()));
+        boolean hadError = false;
+
+        try {
+            for (Expr statement : statements) {
+                if (inFlight.size() == window) {
+                    hadError |= emit(inFlight.poll(), out, errorLogger);
+                }
+                inFlight.add(pool.submit(() -> evaluate(statement)));
+            }
+            while (!inFlight.isEmpty()) {
+                hadError |= emit(inFlight.poll(), out, errorLogger);
+            }
+        } finally {
+            for (Future<Object> f : inFlight) f.cancel(false);
+        }
+
+        out.flush();
+        return hadError;
+    }
+
+    /**
+     * @return The text to print, or the error of the statement.
+     */
+    private Object evaluate(Expr statement) {
+        try {
+            return JLox.stringify(interpreter.evaluate(statement));
+        } catch (RuntimeError err) {
+            return err;
+        }
+    }
+
+    private static boolean emit(Future<Object> f, Writer out, ErrorLogger errorLogger) throws IOException {
+        final Object res = await(f);
+        if (res instanceof RuntimeError err) {
+            out.flush();
+            errorLogger.report(err.getToken().line, err.getToken().lexeme, err.getMessage());
+            return true;
+        }
+        errorLogger.flush();
+        out.write((String)res);
+        out.write(System.lineSeparator());
+        return false;
+    }
+
+    private static Object await(Future<Object> f) {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a statement.", e);
+        } catch (ExecutionException e) {
+            // Anything but a RuntimeError is a bug in the interpreter, so it is not reported as an error of the script.
+            if (e.getCause() instanceof RuntimeException r) throw r;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package jlox;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+
+import jlox.errors.ErrorLogger;
+import jlox.errors.ParseError;
+import jlox.errors.RuntimeError;
+import jlox.interpreter.Interpreter;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+import jlox.scanner.Token;
+
+/**
+ * Evaluates a stream of expressions, one per line, for input that is piped in rather than typed.
+ * Unlike the prompt, nothing is flushed per line: the results and the errors are written, in order, to one large buffer that is
+ * flushed every {@link #FLUSH_LINES} lines and whenever the input has nothing more ready, so a slow producer still sees its results.
+ * The interpreter, the error logger and the buffers are created once and reused for every line.
+ */
+public final class StreamRunner {
+
+    public static final int BUFFER_SIZE = 1 << 16;
+    public static final int FLUSH_LINES = 4096;
+
+    private final Interpreter interpreter;
+
+    private long expressions;
+    private long errors;
+    private long nanos;
+
+    /**
+     * @param interpreter Evaluates the lines, only through its thread-safe evaluate.
+     */
+    public StreamRunner(Interpreter interpreter) {
+        this.interpreter = interpreter;
+    }
+
+    /**
+     * Prints the value of every non-blank line, or reports its errors. A runner can run several streams, the counters add up.
+     * @return Whether any line of this stream had an error.
+     */
+    public boolean run(Reader input, Writer output) throws IOException {
+        final BufferedReader reader = new BufferedReader(input, BUFFER_SIZE);
+        final BufferedWriter out = new BufferedWriter(output, BUFFER_SIZE);
+        final ErrorLogger errorLogger = new ErrorLogger(msg -> {
+            errors++;
+            writeLine(out, msg);
+        });
+        final String newLine = System.lineSeparator();
+        final long start = System.nanoTime();
+
+        final long errorsBefore = errors;
+        int lineNumber = 0;
+        int pending = 0;
+        try {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+
+                evaluate(line, lineNumber, out, errorLogger, newLine);
+                expressions++;
+
+                if (++pending >= FLUSH_LINES || !reader.ready()) {
+                    out.flush();
+                    pending = 0;
+                }
+            }
+            out.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            nanos += System.nanoTime() - start;
+        }
+        return errors > errorsBefore;
+    }
+
+    private void evaluate(String line, int lineNumber, Writer out, ErrorLogger errorLogger, String newLine) throws IOException {
+        final Scanner scanner = new Scanner(line, lineNumber, errorLogger);
+        final List<Token> tokens = scanner.scanTokens();
+        final Parser parser = new Parser(tokens, false);
+        final Expr expr = parser.parse();
+
+        if (parser.getError().notNull()) {
+            final ParseError err = parser.getError().get();
+            errorLogger.report(err.getToken().line, err.getToken().lexeme, err.getMessage());
+            return;
+        }
+
+        try {
+            out.write(JLox.stringify(interpreter.evaluate(expr)));
+            out.write(newLine);
+        } catch (RuntimeError err) {
+            errorLogger.report(err.getToken().line, err.getToken().lexeme, err.getMessage());
+        }
+    }
+
+    private static void writeLine(Writer out, String msg) {
+        try {
+            out.write(msg);
+            out.write(System.lineSeparator());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The number of non-blank lines evaluated, including those that failed.
+     */
+    public long getExpressions() {
+        return expressions;
+    }
+
+    /**
+     * @return The number of reported errors, including those of the scanner.
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @return The throughput of all runs, or 0 before the first one.
+     */
+    public double getExpressionsPerSecond() {
+        return nanos == 0 ? 0.0 : expressions * 1e9 / nanos;
+    }
+}
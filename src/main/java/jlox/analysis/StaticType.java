@@ -0,0 +1,25 @@
+package jlox.analysis;
+
+/**
+ * The type of a value, as far as it can be known without evaluating the expression.
+ */
+public enum StaticType {
+    NUMBER, STRING, BOOL, NIL,
+
+    /**
+     * Could be any of the above, for example the value of a parameter.
+     */
+    UNKNOWN;
+
+    public boolean isKnown() {
+        return this != UNKNOWN;
+    }
+
+    public static StaticType of(Object value) {
+        if (value == null) return NIL;
+        if (value instanceof Double) return NUMBER;
+        if (value instanceof String) return STRING;
+        if (value instanceof Boolean) return BOOL;
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,185 @@
+package jlox.analysis;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jlox.errors.RuntimeError;
+import jlox.parser.Expr;
+import jlox.scanner.Token;
+import jlox.scanner.TokenType;
+
+/**
+ * Infers the static type of every node, following the same rules as the Interpreter applies at runtime.
+ * The type of a node is the type of its value if the evaluation succeeds, so for example 'x - 1' is a number even when we don't know x:
+ * if x is not a number, the evaluation fails and there is no value at all.
+ *
+ * Along the way it finds the operators that will fail whatever the values are, and counts the runtime operand checks that are
+ * proven to pass - an evaluator can skip those.
+ */
+public final class TypeChecker implements Expr.Visitor<StaticType> {
+
+    private final Map<String, StaticType> parameterTypes;
+    private final Map<Expr, StaticType> types = new IdentityHashMap<>();
+    private final List<RuntimeError> errors = new ArrayList<>();
+    private int checks;
+    private int checksRemoved;
+
+    /**
+     * A checker that knows nothing about the parameters.
+     */
+    public TypeChecker() {
+        this(Map.of());
+    }
+
+    /**
+     * @param parameterTypes The types of the parameters that will be bound at runtime. Other parameters are UNKNOWN.
+     */
+    public TypeChecker(Map<String, StaticType> parameterTypes) {
+        this.parameterTypes = parameterTypes;
+    }
+
+    /**
+     * Annotates the tree. A checker can only be used once.
+     * @return The types of all nodes, the errors that will happen at runtime and the statistics about the checks.
+     */
+    public TypeInfo check(Expr expr) {
+        expr.accept(this);
+        return new TypeInfo(types, errors, checks, checksRemoved);
+    }
+
+    @Override
+    public StaticType visitLiteralExpr(Expr.Literal expr) {
+        return annotate(expr, StaticType.of(expr.value));
+    }
+
+    @Override
+    public StaticType visitGroupingExpr(Expr.Grouping expr) {
+        return annotate(expr, expr.expression.accept(this));
+    }
+
+    @Override
+    public StaticType visitVariableExpr(Expr.Variable expr) {
+        return annotate(expr, parameterTypes.getOrDefault(expr.name.lexeme, StaticType.UNKNOWN));
+    }
+
+    @Override
+    public StaticType visitUnaryExpr(Expr.Unary expr) {
+        final StaticType right = expr.right.accept(this);
+
+        return annotate(expr, switch (expr.operator.type) {
+            case TokenType.PLUS, TokenType.MINUS -> numberOperands(expr.operator, StaticType.NUMBER, right);
+            case TokenType.BANG -> {
+                checks++;
+                if (right == StaticType.BOOL || right == StaticType.NIL) {
+                    checksRemoved++;
+                } else if (right.isKnown()) {
+                    yield fail(expr.operator, "Operand must be a boolean.");
+                }
+                yield StaticType.BOOL;
+            }
+            default -> fail(expr.operator, "Unimplemented unary operator.");
+        });
+    }
+
+    @Override
+    public StaticType visitBinaryExpr(Expr.Binary expr) {
+        final StaticType left = expr.left.accept(this);
+        final StaticType right = expr.right.accept(this);
+
+        return annotate(expr, switch (expr.operator.type) {
+            case TokenType.PLUS -> plus(expr.operator, left, right);
+            case TokenType.MINUS, TokenType.SLASH, TokenType.STAR -> numberOperands(expr.operator, StaticType.NUMBER, left, right);
+            case TokenType.LESS, TokenType.LESS_EQUAL, TokenType.GREATER, TokenType.GREATER_EQUAL -> numberOperands(expr.operator, StaticType.BOOL, left, right);
+            case TokenType.EQUAL_EQUAL, TokenType.BANG_EQUAL -> StaticType.BOOL;
+            default -> fail(expr.operator, "Unimplemented binary operator.");
+        });
+    }
+
+    /**
+     * A logical operator has no operand checks. Its value is one of the operands, so the type is known when the left operand
+     * always decides, always passes, or has the same type as the right one.
+     */
+    @Override
+    public StaticType visitLogicalExpr(Expr.Logical expr) {
+        final StaticType left = expr.left.accept(this);
+        final StaticType right = expr.right.accept(this);
+
+        final boolean or = expr.operator.type == TokenType.OR;
+        final StaticType type;
+        if (left == StaticType.NUMBER || left == StaticType.STRING) {
+            // Always truthy.
+            type = or ? left : right;
+        } else if (left == StaticType.NIL) {
+            type = or ? right : left;
+        } else {
+            type = left == right ? left : StaticType.UNKNOWN;
+        }
+        return annotate(expr, type);
+    }
+
+    /**
+     * Mirrors checkNumberOperand. Every operand has its own check, but they all fail with the same error,
+     * so one operand that is known not to be a number is enough to fail.
+     */
+    private StaticType numberOperands(Token operator, StaticType result, StaticType... operands) {
+        boolean fails = false;
+        for (StaticType operand : operands) {
+            checks++;
+            if (operand == StaticType.NUMBER) {
+                checksRemoved++;
+            } else if (operand.isKnown()) {
+                fails = true;
+            }
+        }
+        return fails ? fail(operator, "Operand must be a number.") : result;
+    }
+
+    /**
+     * Mirrors performBinaryPlus, which picks the operation by the types of both operands - we count that as one check.
+     */
+    private StaticType plus(Token operator, StaticType left, StaticType right) {
+        checks++;
+
+        switch (left) {
+            case STRING:
+                if (right == StaticType.NUMBER || right == StaticType.STRING) {
+                    checksRemoved++;
+                    return StaticType.STRING;
+                }
+                return right.isKnown() ? unsupported(operator, left, right) : StaticType.STRING;
+            case NUMBER:
+                if (right == StaticType.NUMBER) {
+                    checksRemoved++;
+                    return StaticType.NUMBER;
+                }
+                if (right == StaticType.STRING) {
+                    return fail(operator, "Invalid operation between left-hand side number and right-hand side string");
+                }
+                return right.isKnown() ? unsupported(operator, left, right) : StaticType.NUMBER;
+            case BOOL:
+            case NIL:
+                return unsupported(operator, left, right);
+            default:
+                // Whatever the left operand is, a string on the right makes a string and a boolean or nil always fails.
+                if (right == StaticType.STRING) return StaticType.STRING;
+                if (right == StaticType.BOOL || right == StaticType.NIL) return unsupported(operator, left, right);
+                return StaticType.UNKNOWN;
+        }
+    }
+
+    private StaticType unsupported(Token operator, StaticType left, StaticType right) {
+        return fail(operator, String.format("Unsupported operation between values of types %s and %s.", left, right));
+    }
+
+    private StaticType fail(Token operator, String msg) {
+        errors.add(new RuntimeError(operator, msg));
+        return StaticType.UNKNOWN;
+    }
+
+    private StaticType annotate(Expr expr, StaticType type) {
+        types.put(expr, type);
+        return type;
+    }
+}
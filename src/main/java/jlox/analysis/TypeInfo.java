@@ -0,0 +1,55 @@
+package jlox.analysis;
+
+import java.util.List;
+import java.util.Map;
+
+import jlox.errors.RuntimeError;
+import jlox.parser.Expr;
+
+/**
+ * The result of the {@link TypeChecker}: the static type of every node of a tree.
+ */
+public final class TypeInfo {
+    private final Map<Expr, StaticType> types;
+    private final List<RuntimeError> errors;
+    private final int checks;
+    private final int checksRemoved;
+
+    TypeInfo(Map<Expr, StaticType> types, List<RuntimeError> errors, int checks, int checksRemoved) {
+        this.types = types;
+        this.errors = List.copyOf(errors);
+        this.checks = checks;
+        this.checksRemoved = checksRemoved;
+    }
+
+    /**
+     * @return The type of the node, or UNKNOWN for nodes that are not part of the checked tree - except literals, whose type is always known.
+     */
+    public StaticType typeOf(Expr expr) {
+        final StaticType type = types.get(expr);
+        if (type != null) return type;
+        return expr instanceof Expr.Literal l ? StaticType.of(l.value) : StaticType.UNKNOWN;
+    }
+
+    /**
+     * @return The operators that fail whatever the values are, in evaluation order. If all types in the tree are known, the first one
+     * is the error that the interpreter will throw - unless it is in the right operand of a logical operator that is never evaluated.
+     */
+    public List<RuntimeError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return How many operand checks the interpreter performs for the tree - one per operand of an operator.
+     */
+    public int getChecks() {
+        return checks;
+    }
+
+    /**
+     * @return How many of those checks are proven to pass.
+     */
+    public int getChecksRemoved() {
+        return checksRemoved;
+    }
+}
@@ -0,0 +1,240 @@
+package jlox.errors;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Writes messages on a background thread, so the threads that report errors do not wait for the output and its lock.
+ * The messages go through a bounded queue and are written in batches, with one flush per batch instead of one per line.
+ * What happens when the queue is full is up to the {@link OverflowPolicy}; dropped messages are counted and the count is
+ * written in their place.
+ *
+ * Give it to an {@link ErrorLogger} as its output. {@link #flush()} waits for the messages that were reported before it, so a caller
+ * that prints to the same stream can keep the order; {@link #close()} writes the rest and stops the thread.
+ */
+public final class AsyncSink implements Consumer<String>, Closeable {
+
+    public enum OverflowPolicy {
+        /**
+         * The reporting thread waits for space. No message is lost.
+         */
+        BLOCK,
+        /**
+         * The oldest waiting message is dropped to make space.
+         */
+        DROP_OLDEST,
+        /**
+         * The new message is dropped.
+         */
+        COUNT_AND_DROP
+    }
+
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * The maximal number of messages written between two flushes of the output.
+     */
+    public static final int BATCH_SIZE = 256;
+
+    private final Writer out;
+    private final OverflowPolicy policy;
+    private final ArrayBlockingQueue<String> queue;
+    private final Thread writer;
+
+    /**
+     * The messages that were queued, and those that were written or dropped after they were queued. flush waits until they meet.
+     */
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong done = new AtomicLong();
+
+    /**
+     * The drops that are not written yet, and all of them.
+     */
+    private final AtomicLong unreportedDrops = new AtomicLong();
+    private final AtomicLong drops = new AtomicLong();
+
+    private volatile boolean closed;
+
+    public AsyncSink(Writer out) {
+        this(out, DEFAULT_CAPACITY, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * @param out Where the messages are written, a line each. Only the background thread writes to it until the sink is closed.
+     * @param capacity The maximal number of messages that wait to be written.
+     */
+    public AsyncSink(Writer out, int capacity, OverflowPolicy policy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive.");
+        }
+        this.out = out;
+        this.policy = policy;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = Thread.ofPlatform().name("jlox-error-writer").daemon().start(this::drain);
+    }
+
+    /**
+     * Closes the sink when the JVM exits, so that an exit right after an error does not lose it.
+     * @return This sink.
+     */
+    public AsyncSink closeOnExit() {
+        Runtime.getRuntime().addShutdownHook(Thread.ofPlatform().name("jlox-error-writer-exit").unstarted(this::close));
+        return this;
+    }
+
+    /**
+     * Queues a message. After the sink is closed, the message is written right away instead, after any that are still queued.
+     */
+    @Override
+    public void accept(String msg) {
+        if (closed) {
+            writeRest(msg);
+            return;
+        }
+        enqueue(msg);
+        // Closed meanwhile: close may have drained the queue before the message was in it, so it is written from here.
+        if (closed) writeRest(null);
+    }
+
+    private void enqueue(String msg) {
+        switch (policy) {
+            case BLOCK -> {
+                queued.incrementAndGet();
+                try {
+                    queue.put(msg);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    drop();
+                    done.incrementAndGet();
+                }
+            }
+            case DROP_OLDEST -> {
+                queued.incrementAndGet();
+                while (!queue.offer(msg)) {
+                    if (queue.poll() != null) {
+                        drop();
+                        done.incrementAndGet();
+                    }
+                }
+            }
+            case COUNT_AND_DROP -> {
+                if (queue.offer(msg)) {
+                    queued.incrementAndGet();
+                } else {
+                    drop();
+                }
+            }
+        }
+    }
+
+    private void drop() {
+        unreportedDrops.incrementAndGet();
+        drops.incrementAndGet();
+    }
+
+    private void drain() {
+        final List<String> batch = new ArrayList<>(BATCH_SIZE);
+        for (;;) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                // Stopped by close, which writes what is left.
+                return;
+            }
+            queue.drainTo(batch, BATCH_SIZE - 1);
+            write(batch);
+            done.addAndGet(batch.size());
+            batch.clear();
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Writes the count of the drops since the last batch, then the batch, and flushes.
+     */
+    private void write(List<String> batch) {
+        try {
+            final long dropped = unreportedDrops.getAndSet(0);
+            if (dropped > 0) {
+                out.write(String.format("%d more errors were dropped.", dropped));
+                out.write(System.lineSeparator());
+            }
+            for (String msg : batch) {
+                out.write(msg);
+                out.write(System.lineSeparator());
+            }
+            out.flush();
+        } catch (IOException e) {
+            // Like System.out, a broken output does not fail the reporting threads. The messages count as written.
+        }
+    }
+
+    /**
+     * Writes what is left in the queue, then the message if there is one, once the background thread has stopped - so nothing
+     * overtakes the messages that were queued before, or is written in the middle of them.
+     */
+    private void writeRest(String msg) {
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (out) {
+            final List<String> rest = new ArrayList<>();
+            queue.drainTo(rest);
+            if (msg != null) rest.add(msg);
+            write(rest);
+            done.addAndGet(msg != null ? rest.size() - 1 : rest.size());
+        }
+    }
+
+    /**
+     * Waits until the messages that were queued before the call are written or dropped. Returns right away if there are none.
+     */
+    public void flush() {
+        final long target = queued.get();
+        if (done.get() >= target) return;
+        synchronized (this) {
+            while (done.get() < target && writer.isAlive()) {
+                try {
+                    wait(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the waiting messages and stops the background thread. Messages reported later are written right away.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        flush();
+        closed = true;
+        writer.interrupt();
+        // Whatever was queued while closing. A reporter that waits for space gets it now, and writes its message itself.
+        writeRest(null);
+    }
+
+    /**
+     * @return How many messages were dropped because the queue was full.
+     */
+    public long getDrops() {
+        return drops.get();
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+}
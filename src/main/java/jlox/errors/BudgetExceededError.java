@@ -0,0 +1,29 @@
+package jlox.errors;
+
+import jlox.scanner.Token;
+
+/**
+ * Thrown when an evaluation uses more than its budget. The token is the one of the node that was evaluated when it happened.
+ */
+public class BudgetExceededError extends RuntimeError {
+
+    /**
+     * The limits of a budget.
+     */
+    public enum Resource {
+        NODES,
+        STRING_BYTES,
+        TIME
+    }
+
+    private final Resource resource;
+
+    public BudgetExceededError(Token token, Resource resource, String msg) {
+        super(token, msg);
+        this.resource = resource;
+    }
+
+    public Resource getResource() {
+        return resource;
+    }
+}
@@ -0,0 +1,38 @@
+package jlox.errors;
+
+import java.util.List;
+
+/**
+ * Thrown when source code cannot be compiled into an expression. Holds every diagnostic that the scanner and the parser reported.
+ */
+public class CompileError extends RuntimeException {
+    private final List<Diagnostic> errors;
+    private final List<String> diagnostics;
+
+    public CompileError(List<Diagnostic> errors) {
+        super(String.join(System.lineSeparator(), errors.stream().map(Diagnostic::toString).toList()));
+        this.errors = List.copyOf(errors);
+        this.diagnostics = this.errors.stream().map(Diagnostic::toString).toList();
+    }
+
+    /**
+     * @return The formatted diagnostics, as the ErrorLogger prints them.
+     */
+    public List<String> getDiagnostics() {
+        return diagnostics;
+    }
+
+    /**
+     * @return The diagnostics with their lines.
+     */
+    public List<Diagnostic> getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return The line of the first diagnostic, or -1 if there is none.
+     */
+    public int getLine() {
+        return errors.isEmpty() ? -1 : errors.get(0).getLine();
+    }
+}
@@ -0,0 +1,65 @@
+package jlox.errors;
+
+import java.util.Objects;
+
+/**
+ * An error at a line of the source, kept apart from its text: the message is only formatted when it is asked for, so the
+ * diagnostics that are merged or dropped cost no formatting.
+ */
+public final class Diagnostic {
+    private final int line;
+    private final String where;
+    private final String format;
+    private final Object detail;
+    private int repeats = 1;
+
+    /**
+     * @param format The message, or a String.format pattern for the detail.
+     * @param detail The single argument of the pattern, or null if the message is not a pattern.
+     */
+    public Diagnostic(int line, String where, String format, Object detail) {
+        this.line = line;
+        this.where = where;
+        this.format = format;
+        this.detail = detail;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public String getWhere() {
+        return where;
+    }
+
+    public String getMessage() {
+        return detail == null ? format : String.format(format, detail);
+    }
+
+    /**
+     * @return How many identical diagnostics in a row this one stands for.
+     */
+    public int getRepeats() {
+        return repeats;
+    }
+
+    /**
+     * @return Whether the other diagnostic says the same about the same line, without formatting either of them.
+     */
+    boolean isSameAs(int line, String where, String format, Object detail) {
+        return this.line == line && Objects.equals(this.where, where) && this.format.equals(format) && Objects.equals(this.detail, detail);
+    }
+
+    void repeat() {
+        repeats++;
+    }
+
+    /**
+     * @return The message that {@link ErrorLogger#report(int, String, String)} would print, with the number of repeats if there were any.
+     */
+    @Override
+    public String toString() {
+        final String msg = repeats == 1 ? getMessage() : String.format("%s (%d times)", getMessage(), repeats);
+        return ErrorLogger.format(line, where, msg);
+    }
+}
@@ -0,0 +1,90 @@
+package jlox.errors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects the diagnostics of one source, so that a broken source - a binary file fed to the scanner - cannot flood the log.
+ * Identical diagnostics in a row are merged into one, and after {@link #getLimit()} diagnostics the rest are only counted.
+ * Nothing is formatted until the diagnostics are reported.
+ */
+public final class Diagnostics {
+
+    public static final int DEFAULT_LIMIT = 100;
+
+    private final int limit;
+    private final List<Diagnostic> diagnostics = new ArrayList<>();
+    private int total;
+    private int suppressed;
+
+    public Diagnostics() {
+        this(DEFAULT_LIMIT);
+    }
+
+    /**
+     * @param limit The maximal number of diagnostics that are kept.
+     */
+    public Diagnostics(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("The limit must be positive.");
+        }
+        this.limit = limit;
+    }
+
+    /**
+     * @param format The message, or a String.format pattern for the detail.
+     * @param detail The single argument of the pattern, or null if the message is not a pattern.
+     */
+    public void add(int line, String where, String format, Object detail) {
+        total++;
+        // Once one was left out, the last kept diagnostic is no longer the previous one.
+        if (suppressed == 0 && !diagnostics.isEmpty() && diagnostics.get(diagnostics.size() - 1).isSameAs(line, where, format, detail)) {
+            diagnostics.get(diagnostics.size() - 1).repeat();
+        } else if (diagnostics.size() < limit) {
+            diagnostics.add(new Diagnostic(line, where, format, detail));
+        } else {
+            suppressed++;
+        }
+    }
+
+    /**
+     * Reports the kept diagnostics in order, then how many were left out, and clears them.
+     */
+    public void reportTo(ErrorLogger errorLogger) {
+        for (Diagnostic d : diagnostics) {
+            errorLogger.report(d);
+        }
+        if (suppressed > 0) {
+            final int line = diagnostics.get(diagnostics.size() - 1).getLine();
+            errorLogger.report(line, "", String.format("Too many errors, %d more were not reported.", suppressed));
+        }
+        diagnostics.clear();
+        suppressed = 0;
+    }
+
+    /**
+     * @return The kept diagnostics, not yet reported.
+     */
+    public List<Diagnostic> getDiagnostics() {
+        return Collections.unmodifiableList(diagnostics);
+    }
+
+    /**
+     * @return Every added diagnostic, including the merged and the left out ones.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return The diagnostics that were left out since the last report, because the limit was reached.
+     */
+    public int getSuppressed() {
+        return suppressed;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
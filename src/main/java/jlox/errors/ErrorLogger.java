@@ -6,18 +6,75 @@ import java.util.function.Consumer;
  * Utililty class for logging that can be configured with an output stream and a format for the message.
  */
 public final class ErrorLogger {
-    private String format = "[line %d] Error %s: %s";
-    private Consumer<String> logFunc;
+    private final Consumer<String> logFunc;
+
+    /**
+     * Takes the errors unformatted instead of the log function, if not null.
+     */
+    private final Consumer<Diagnostic> collectFunc;
 
     public ErrorLogger() {
-        this.logFunc = System.err::println;
+        this(System.err::println);
     }
 
     public ErrorLogger(Consumer<String> reporterFunc) {
-        this.logFunc = reporterFunc;
+        this(reporterFunc, null);
+    }
+
+    private ErrorLogger(Consumer<String> logFunc, Consumer<Diagnostic> collectFunc) {
+        this.logFunc = logFunc;
+        this.collectFunc = collectFunc;
+    }
+
+    /**
+     * @return A logger that formats nothing and passes every error on as a {@link Diagnostic}, so its line stays known.
+     */
+    public static ErrorLogger collecting(Consumer<Diagnostic> collectFunc) {
+        return new ErrorLogger(null, collectFunc);
     }
 
     public void report(int line, String where, String msg) {
-        logFunc.accept(String.format(format, line, where, msg));
+        if (collectFunc != null) {
+            collectFunc.accept(new Diagnostic(line, where, msg, null));
+        } else {
+            logFunc.accept(format(line, where, msg));
+        }
+    }
+
+    /**
+     * Reports a diagnostic that was collected earlier. It is formatted only now.
+     */
+    public void report(Diagnostic diagnostic) {
+        if (collectFunc != null) {
+            collectFunc.accept(diagnostic);
+        } else {
+            logFunc.accept(diagnostic.toString());
+        }
+    }
+
+    /**
+     * Waits until the reported messages are written, if they go through an {@link AsyncSink}. Call it before printing anything else
+     * to the same stream, so the two stay in order.
+     */
+    public void flush() {
+        if (logFunc instanceof AsyncSink sink) sink.flush();
+    }
+
+    /**
+     * Builds the message by concatenation: it is called for every error, and String.format would parse the pattern every time.
+     */
+    static String format(int line, String where, String msg) {
+        return "[line " + line + "] Error " + where + ": " + msg;
+    }
+
+    /**
+     * Passes on a message that another logger has already formatted, for example one that collected the errors of a worker thread.
+     * @throws IllegalStateException if the logger is {@link #collecting(Consumer) collecting}: the message has lost its structure.
+     */
+    public void relay(String formatted) {
+        if (collectFunc != null) {
+            throw new IllegalStateException("A collecting logger only takes diagnostics.");
+        }
+        logFunc.accept(formatted);
     }
 }
@@ -0,0 +1,49 @@
+package jlox.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import jlox.parser.Expr;
+
+/**
+ * An evaluation of an expression in a Flight Recorder recording.
+ */
+@Name("jlox.Evaluate")
+@Label("Evaluate")
+@Category({"jlox", "Interpreter"})
+@Description("Evaluates a tree")
+public final class EvaluateEvent extends jdk.jfr.Event {
+
+    @Label("Nodes")
+    int nodeCount;
+
+    @Label("Result Type")
+    @Description("number, string, boolean or nil, or the class of another value")
+    String resultType;
+
+    @Label("Error")
+    boolean error;
+
+    /**
+     * Ends the event and commits it if it is recorded. The nodes are counted only then.
+     * @param value The value of the expression, ignored if the evaluation failed.
+     */
+    public void finish(Expr expr, Object value, boolean error) {
+        end();
+        if (!shouldCommit()) return;
+        this.nodeCount = Trees.count(expr);
+        this.error = error;
+        this.resultType = error ? null : typeOf(value);
+        commit();
+    }
+
+    private static String typeOf(Object value) {
+        if (value == null) return "nil";
+        if (value instanceof Double) return "number";
+        if (value instanceof String) return "string";
+        if (value instanceof Boolean) return "boolean";
+        return value.getClass().getSimpleName();
+    }
+}
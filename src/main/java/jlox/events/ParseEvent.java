@@ -0,0 +1,64 @@
+package jlox.events;
+
+import java.util.List;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import jlox.parser.Expr;
+
+/**
+ * A call of Parser.parse or Parser.parseScript in a Flight Recorder recording.
+ */
+@Name("jlox.Parse")
+@Label("Parse")
+@Category({"jlox", "Compiler"})
+@Description("Turns the tokens into trees")
+public final class ParseEvent extends jdk.jfr.Event {
+
+    @Label("Tokens")
+    int tokenCount;
+
+    @Label("Statements")
+    @Description("The number of trees, 1 for an expression")
+    int statements;
+
+    @Label("Nodes")
+    @Description("The number of nodes of all trees")
+    int nodeCount;
+
+    @Label("Error")
+    boolean error;
+
+    /**
+     * Ends the event of a single expression and commits it if it is recorded. The nodes are counted only then.
+     * @param tree The parsed tree, or null if it had an error.
+     */
+    public void finish(int tokenCount, Expr tree) {
+        end();
+        if (!shouldCommit()) return;
+        this.tokenCount = tokenCount;
+        this.statements = tree == null ? 0 : 1;
+        this.nodeCount = tree == null ? 0 : Trees.count(tree);
+        this.error = tree == null;
+        commit();
+    }
+
+    /**
+     * Ends the event of a script and commits it if it is recorded. The nodes are counted only then.
+     * @param trees The parsed trees, without those that had errors.
+     */
+    public void finish(int tokenCount, List<Expr> trees, boolean error) {
+        end();
+        if (!shouldCommit()) return;
+        this.tokenCount = tokenCount;
+        this.statements = trees.size();
+        for (Expr e : trees) {
+            this.nodeCount += Trees.count(e);
+        }
+        this.error = error;
+        commit();
+    }
+}
@@ -0,0 +1,44 @@
+package jlox.events;
+
+import java.util.List;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import jlox.scanner.Token;
+
+/**
+ * A call of Scanner.scanTokens in a Flight Recorder recording.
+ */
+@Name("jlox.Scan")
+@Label("Scan")
+@Category({"jlox", "Compiler"})
+@Description("Turns the source into tokens")
+public final class ScanEvent extends jdk.jfr.Event {
+
+    @Label("Source Length")
+    @DataAmount(DataAmount.BYTES)
+    int sourceLength;
+
+    @Label("Tokens")
+    int tokenCount;
+
+    @Label("Errors")
+    @Description("The number of characters or literals that the scanner reported")
+    int errors;
+
+    /**
+     * Ends the event and commits it if it is recorded.
+     */
+    public void finish(String source, List<Token> tokens, int errors) {
+        end();
+        if (!shouldCommit()) return;
+        this.sourceLength = source.length();
+        this.tokenCount = tokens.size();
+        this.errors = errors;
+        commit();
+    }
+}
@@ -0,0 +1,36 @@
+package jlox.events;
+
+import java.util.ArrayDeque;
+
+import jlox.parser.Expr;
+
+final class Trees {
+
+    private Trees() {
+    }
+
+    /**
+     * @return The number of nodes of the tree. It uses its own stack, so it works for trees of any depth.
+     */
+    static int count(Expr root) {
+        final ArrayDeque<Expr> pending = new ArrayDeque<>();
+        pending.push(root);
+        int count = 0;
+        while (!pending.isEmpty()) {
+            final Expr e = pending.pop();
+            count++;
+            if (e instanceof Expr.Binary b) {
+                pending.push(b.left);
+                pending.push(b.right);
+            } else if (e instanceof Expr.Logical l) {
+                pending.push(l.left);
+                pending.push(l.right);
+            } else if (e instanceof Expr.Unary u) {
+                pending.push(u.right);
+            } else if (e instanceof Expr.Grouping g) {
+                pending.push(g.expression);
+            }
+        }
+        return count;
+    }
+}
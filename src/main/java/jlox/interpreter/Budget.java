@@ -0,0 +1,48 @@
+package jlox.interpreter;
+
+import java.time.Duration;
+
+/**
+ * The limits of one evaluation by a {@link BudgetedInterpreter}. Use Long.MAX_VALUE for a limit that does not apply.
+ */
+public final class Budget {
+
+    public static final Budget UNLIMITED = new Budget(Long.MAX_VALUE, Long.MAX_VALUE, null);
+
+    private final long maxNodes;
+    private final long maxStringBytes;
+    private final Duration timeout;
+
+    /**
+     * @param maxNodes The maximal number of nodes that are evaluated. A node that is evaluated twice counts twice.
+     * @param maxStringBytes The maximal number of bytes that the evaluation copies into strings, two per character.
+     * @param timeout The maximal wall-clock time of the evaluation, or null for none.
+     */
+    public Budget(long maxNodes, long maxStringBytes, Duration timeout) {
+        if (maxNodes <= 0 || maxStringBytes <= 0 || (timeout != null && (timeout.isNegative() || timeout.isZero()))) {
+            throw new IllegalArgumentException("The limits of a budget must be positive.");
+        }
+        this.maxNodes = maxNodes;
+        this.maxStringBytes = maxStringBytes;
+        this.timeout = timeout;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    public long getMaxStringBytes() {
+        return maxStringBytes;
+    }
+
+    /**
+     * @return The timeout, or null for none.
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public boolean isUnlimited() {
+        return maxNodes == Long.MAX_VALUE && maxStringBytes == Long.MAX_VALUE && timeout == null;
+    }
+}
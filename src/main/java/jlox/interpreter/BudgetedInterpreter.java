@@ -0,0 +1,127 @@
+package jlox.interpreter;
+
+import java.util.Map;
+
+import jlox.errors.BudgetExceededError;
+import jlox.errors.RuntimeError;
+import jlox.parser.Expr;
+import jlox.scanner.Token;
+import jlox.scanner.TokenType;
+
+/**
+ * An interpreter for untrusted expressions: every evaluation gets a {@link Budget} of nodes, string bytes and time, and fails with a
+ * {@link BudgetExceededError} when it runs out of any of them.
+ *
+ * The accounting is cheap: a counter per node, a length per string operand of '+', and a look at the clock every
+ * {@link #CLOCK_INTERVAL} nodes. With an unlimited budget there is no accounting at all.
+ *
+ * Strings are concatenated lazily through ropes, so the bytes that count are those that are eventually copied: every plain string
+ * operand of a '+' - a literal, a parameter, a stringified number or a short result that was copied right away. A rope operand
+ * was counted when its parts were.
+ *
+ * Only evaluate and interpret are metered. Like the Interpreter, it can be shared between threads as long as they use evaluate.
+ */
+public class BudgetedInterpreter extends Interpreter {
+
+    /**
+     * How many nodes are evaluated between two looks at the clock.
+     */
+    public static final int CLOCK_INTERVAL = 1024;
+
+    private final Map<String, Object> bindings;
+    private final Budget budget;
+
+    public BudgetedInterpreter(Budget budget) {
+        this(Map.of(), budget);
+    }
+
+    public BudgetedInterpreter(Map<String, Object> bindings, Budget budget) {
+        super(bindings);
+        this.bindings = bindings;
+        this.budget = budget;
+    }
+
+    public Budget getBudget() {
+        return budget;
+    }
+
+    /**
+     * @throws BudgetExceededError if the evaluation needs more than the budget.
+     */
+    @Override
+    public Object evaluate(Expr expr) throws RuntimeError {
+        if (budget.isUnlimited()) {
+            return super.evaluate(expr);
+        }
+        return new Metered(bindings, budget).evaluate(expr);
+    }
+
+    /**
+     * The state of one evaluation.
+     */
+    private static final class Metered extends Interpreter {
+        private final long maxNodes;
+        private final long maxStringBytes;
+        private final long deadline;
+        private final boolean hasDeadline;
+
+        private long nodes;
+        private long stringBytes;
+
+        /**
+         * The token of the last evaluated node that has one, for the error. Literals have none.
+         */
+        private Token current;
+
+        Metered(Map<String, Object> bindings, Budget budget) {
+            super(bindings);
+            this.maxNodes = budget.getMaxNodes();
+            this.maxStringBytes = budget.getMaxStringBytes();
+            this.hasDeadline = budget.getTimeout() != null;
+            this.deadline = hasDeadline ? System.nanoTime() + budget.getTimeout().toNanos() : 0;
+        }
+
+        @Override
+        protected Object evaluateNode(Expr e) {
+            if (e instanceof Expr.Binary b) {
+                current = b.operator;
+            } else if (e instanceof Expr.Unary u) {
+                current = u.operator;
+            } else if (e instanceof Expr.Logical l) {
+                current = l.operator;
+            } else if (e instanceof Expr.Variable v) {
+                current = v.name;
+            }
+
+            if (++nodes > maxNodes) {
+                throw exceeded(BudgetExceededError.Resource.NODES, String.format("Evaluated more than %d nodes.", maxNodes));
+            }
+            if (hasDeadline && nodes % CLOCK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+                throw exceeded(BudgetExceededError.Resource.TIME, "Evaluation ran out of time.");
+            }
+            return super.evaluateNode(e);
+        }
+
+        @Override
+        Object applyBinary(Token operator, Object leftVal, Object rightVal) {
+            if (operator.type == TokenType.PLUS && leftVal instanceof CharSequence) {
+                current = operator;
+                // Counted before the concatenation, so an oversized result is never built.
+                stringBytes += copied(leftVal) + (Numbers.isNumber(rightVal) ? 2L * Numbers.toString(rightVal).length() : copied(rightVal));
+                if (stringBytes > maxStringBytes) {
+                    throw exceeded(BudgetExceededError.Resource.STRING_BYTES, String.format("Produced more than %d bytes of strings.", maxStringBytes));
+                }
+            }
+            return super.applyBinary(operator, leftVal, rightVal);
+        }
+
+        private static long copied(Object operand) {
+            return operand instanceof String s ? 2L * s.length() : 0;
+        }
+
+        private BudgetExceededError exceeded(BudgetExceededError.Resource resource, String msg) {
+            final Token token = current != null ? current : new Token(TokenType.EOF, "", null, 1);
+            return new BudgetExceededError(token, resource, msg);
+        }
+    }
+}
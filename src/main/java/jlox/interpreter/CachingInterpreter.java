@@ -0,0 +1,88 @@
+package jlox.interpreter;
+
+import java.util.Map;
+
+import jlox.errors.RuntimeError;
+import jlox.parser.Expr;
+
+/**
+ * An interpreter that looks up the values of operators in a {@link ResultCache} before it evaluates them, so formulas that are
+ * evaluated again - or that share subformulas with earlier ones - are not computed twice. Errors are cached as well, and are rethrown
+ * with the token of the expression that failed first.
+ *
+ * Only the subtrees without variables are cached: their value does not depend on the bindings.
+ * Like the Interpreter, it can be shared between threads as long as they use evaluate.
+ */
+public class CachingInterpreter extends Interpreter {
+
+    private final ResultCache cache;
+
+    /**
+     * The keys of the tree that the current thread evaluates. They are built once per evaluation.
+     */
+    private final ThreadLocal<Map<Expr, ResultCache.Key>> currentKeys = new ThreadLocal<>();
+
+    public CachingInterpreter(ResultCache cache) {
+        this(Map.of(), cache);
+    }
+
+    public CachingInterpreter(Map<String, Object> bindings, ResultCache cache) {
+        super(bindings);
+        this.cache = cache;
+    }
+
+    public ResultCache getCache() {
+        return cache;
+    }
+
+    @Override
+    protected Object evaluateNode(Expr e) {
+        final Map<Expr, ResultCache.Key> keys = currentKeys.get();
+        if (keys != null) {
+            return evaluateCached(e, keys.get(e));
+        }
+
+        // The root of an evaluation. A repeated formula hits right here, so the keys of the subtrees are only built on a miss.
+        final ResultCache.Key key = ResultCache.key(e);
+        if (key != null) {
+            final ResultCache.Entry entry = cache.get(key);
+            if (entry != null) return cached(entry);
+        }
+
+        currentKeys.set(ResultCache.keys(e));
+        try {
+            return key == null ? super.evaluateNode(e) : evaluateAndStore(e, key);
+        } finally {
+            currentKeys.remove();
+        }
+    }
+
+    private Object evaluateCached(Expr e, ResultCache.Key key) {
+        if (key == null) {
+            return super.evaluateNode(e);
+        }
+
+        final ResultCache.Entry entry = cache.get(key);
+        if (entry != null) {
+            return cached(entry);
+        }
+        return evaluateAndStore(e, key);
+    }
+
+    private Object evaluateAndStore(Expr e, ResultCache.Key key) {
+        final Object value;
+        try {
+            value = super.evaluateNode(e);
+        } catch (RuntimeError err) {
+            cache.putError(key, err);
+            throw err;
+        }
+        cache.putValue(key, export(value));
+        return value;
+    }
+
+    private static Object cached(ResultCache.Entry entry) {
+        if (entry.error != null) throw entry.error;
+        return entry.value;
+    }
+}
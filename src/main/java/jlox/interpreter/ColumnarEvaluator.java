@@ -0,0 +1,508 @@
+package jlox.interpreter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import jlox.errors.RuntimeError;
+import jlox.parser.Expr;
+import jlox.scanner.Token;
+import jlox.scanner.TokenType;
+
+/**
+ * Evaluates one expression over many rows at once. The parameters of the expression are bound to columns of numbers and
+ * the rows are processed in batches, node by node, instead of walking the whole tree once per row.
+ *
+ * The expression is planned once: every node becomes a kernel that fills a buffer for a batch of rows.
+ * Subtrees which are provably numeric or boolean (and so cannot fail) become plain loops over primitive arrays, without boxing or
+ * type checks per row; the JIT may auto-vectorize some of them. Everything else falls back to the scalar operators of the
+ * {@link Interpreter}, row by row, so every row gets exactly the value or the RuntimeError that Interpreter.interpret would give it.
+ *
+ * Not thread-safe, because the kernels keep their buffers between batches. Use one evaluator per thread.
+ */
+public final class ColumnarEvaluator {
+
+    public static final int BATCH_SIZE = 1024;
+
+    enum Kind { NUMBER, BOOL, ANY }
+
+    private final Interpreter scalar = new Interpreter();
+
+    /**
+     * The names of the columns that the expression references.
+     */
+    private final Set<String> referencedColumns = new HashSet<>();
+
+    private final Kernel root;
+
+    /**
+     * The columns of the evaluation in progress.
+     */
+    private Map<String, double[]> bound;
+
+    /**
+     * @param expr The expression to evaluate.
+     * @param columns The names of the parameters which will be bound to columns. References to other names fail on every row.
+     */
+    public ColumnarEvaluator(Expr expr, Collection<String> columns) {
+        this.root = expr.accept(new Planner(new HashSet<>(columns)));
+    }
+
+    /**
+     * Evaluates the expression for every row of the columns.
+     * @param columns The values of the parameters. All the columns must have the same length - the number of rows.
+     * @return The value or the error of every row.
+     */
+    public ColumnarResult evaluate(Map<String, double[]> columns) {
+        int rows = -1;
+        for (double[] column : columns.values()) {
+            if (rows != -1 && column.length != rows) {
+                throw new IllegalArgumentException("All columns must have the same length.");
+            }
+            rows = column.length;
+        }
+        for (String name : referencedColumns) {
+            if (!columns.containsKey(name)) {
+                throw new IllegalArgumentException(String.format("Missing column '%s'.", name));
+            }
+        }
+        rows = Math.max(rows, 0);
+
+        bound = columns;
+        try {
+            final ColumnarResult result = new ColumnarResult(root.kind, rows);
+            for (int from = 0; from < rows; from += BATCH_SIZE) {
+                final int count = Math.min(BATCH_SIZE, rows - from);
+                root.eval(from, count);
+                result.copy(root, from, count);
+            }
+            return result;
+        } finally {
+            bound = null;
+        }
+    }
+
+    /**
+     * Turns every node of the tree into a kernel, picking a primitive-array loop wherever the types of the operands are known.
+     */
+    private final class Planner implements Expr.Visitor<Kernel> {
+        private final Set<String> columns;
+
+        Planner(Set<String> columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public Kernel visitLiteralExpr(Expr.Literal expr) {
+            return new ConstKernel(expr.value);
+        }
+
+        @Override
+        public Kernel visitGroupingExpr(Expr.Grouping expr) {
+            return expr.expression.accept(this);
+        }
+
+        @Override
+        public Kernel visitVariableExpr(Expr.Variable expr) {
+            if (columns.contains(expr.name.lexeme)) {
+                referencedColumns.add(expr.name.lexeme);
+                return new ColumnKernel(expr.name.lexeme);
+            }
+            return new ErrorKernel(new RuntimeError(expr.name, String.format("Undefined variable '%s'.", expr.name.lexeme)));
+        }
+
+        @Override
+        public Kernel visitUnaryExpr(Expr.Unary expr) {
+            final Kernel right = expr.right.accept(this);
+
+            switch (expr.operator.type) {
+                case TokenType.PLUS:
+                    if (right.kind == Kind.NUMBER) return right;
+                    break;
+                case TokenType.MINUS:
+                    if (right.kind == Kind.NUMBER) return new NegateKernel(right);
+                    break;
+                case TokenType.BANG:
+                    if (right.kind == Kind.BOOL) return new NotKernel(right);
+                    break;
+                default:
+                    break;
+            }
+            return new ScalarUnaryKernel(expr.operator, right);
+        }
+
+        @Override
+        public Kernel visitBinaryExpr(Expr.Binary expr) {
+            final Kernel left = expr.left.accept(this);
+            final Kernel right = expr.right.accept(this);
+
+            if (left.kind == Kind.NUMBER && right.kind == Kind.NUMBER) {
+                switch (expr.operator.type) {
+                    case TokenType.PLUS:
+                    case TokenType.MINUS:
+                    case TokenType.STAR:
+                    case TokenType.SLASH:
+                        return new ArithmeticKernel(expr.operator, left, right);
+                    case TokenType.LESS:
+                    case TokenType.LESS_EQUAL:
+                    case TokenType.GREATER:
+                    case TokenType.GREATER_EQUAL:
+                    case TokenType.EQUAL_EQUAL:
+                    case TokenType.BANG_EQUAL:
+                        return new CompareKernel(expr.operator, left, right);
+                    default:
+                        break;
+                }
+            }
+            if (left.kind == Kind.BOOL && right.kind == Kind.BOOL) {
+                switch (expr.operator.type) {
+                    case TokenType.EQUAL_EQUAL:
+                    case TokenType.BANG_EQUAL:
+                        return new BoolEqualityKernel(expr.operator, left, right);
+                    default:
+                        break;
+                }
+            }
+            return new ScalarBinaryKernel(expr.operator, left, right);
+        }
+
+        @Override
+        public Kernel visitLogicalExpr(Expr.Logical expr) {
+            final Kernel left = expr.left.accept(this);
+            final Kernel right = expr.right.accept(this);
+
+            if (left.kind == Kind.BOOL && right.kind == Kind.BOOL) {
+                return new LogicalBoolKernel(expr.operator, left, right);
+            }
+            return new ScalarLogicalKernel(expr.operator, left, right);
+        }
+    }
+
+    /**
+     * Computes the values of one node for a batch of rows. Only the ANY kernels can produce errors.
+     */
+    abstract static class Kernel {
+        final Kind kind;
+        double[] numbers;
+        boolean[] bools;
+        Object[] values;
+        RuntimeError[] errors;
+
+        Kernel(Kind kind) {
+            this.kind = kind;
+            switch (kind) {
+                case NUMBER -> numbers = new double[BATCH_SIZE];
+                case BOOL -> bools = new boolean[BATCH_SIZE];
+                case ANY -> {
+                    values = new Object[BATCH_SIZE];
+                    errors = new RuntimeError[BATCH_SIZE];
+                }
+            }
+        }
+
+        /**
+         * Fills the buffers for the rows [from, from + count).
+         */
+        abstract void eval(int from, int count);
+
+        Object get(int i) {
+            return switch (kind) {
+                case NUMBER -> numbers[i];
+                case BOOL -> bools[i];
+                case ANY -> values[i];
+            };
+        }
+
+        RuntimeError error(int i) {
+            return kind == Kind.ANY ? errors[i] : null;
+        }
+    }
+
+    private static Kind kindOf(Object value) {
+        if (value instanceof Double) return Kind.NUMBER;
+        if (value instanceof Boolean) return Kind.BOOL;
+        return Kind.ANY;
+    }
+
+    private static final class ConstKernel extends Kernel {
+        ConstKernel(Object value) {
+            super(kindOf(value));
+            switch (kind) {
+                case NUMBER -> Arrays.fill(numbers, (Double)value);
+                case BOOL -> Arrays.fill(bools, (Boolean)value);
+                case ANY -> Arrays.fill(values, value);
+            }
+        }
+
+        @Override
+        void eval(int from, int count) {
+            // The buffer already holds the value for every row.
+        }
+    }
+
+    private static final class ErrorKernel extends Kernel {
+        ErrorKernel(RuntimeError error) {
+            super(Kind.ANY);
+            Arrays.fill(errors, error);
+        }
+
+        @Override
+        void eval(int from, int count) {
+            // The buffer already holds the error for every row.
+        }
+    }
+
+    private final class ColumnKernel extends Kernel {
+        private final String name;
+
+        ColumnKernel(String name) {
+            super(Kind.NUMBER);
+            this.name = name;
+        }
+
+        @Override
+        void eval(int from, int count) {
+            System.arraycopy(bound.get(name), from, numbers, 0, count);
+        }
+    }
+
+    private static final class NegateKernel extends Kernel {
+        private final Kernel right;
+
+        NegateKernel(Kernel right) {
+            super(Kind.NUMBER);
+            this.right = right;
+        }
+
+        @Override
+        void eval(int from, int count) {
+            right.eval(from, count);
+            final double[] r = right.numbers;
+            for (int i = 0; i < count; i++) numbers[i] = -r[i];
+        }
+    }
+
+    private static final class NotKernel extends Kernel {
+        private final Kernel right;
+
+        NotKernel(Kernel right) {
+            super(Kind.BOOL);
+            this.right = right;
+        }
+
+        @Override
+        void eval(int from, int count) {
+            right.eval(from, count);
+            final boolean[] r = right.bools;
+            for (int i = 0; i < count; i++) bools[i] = !r[i];
+        }
+    }
+
+    private static final class ArithmeticKernel extends Kernel {
+        private final Token operator;
+        private final Kernel left;
+        private final Kernel right;
+
+        ArithmeticKernel(Token operator, Kernel left, Kernel right) {
+            super(Kind.NUMBER);
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void eval(int from, int count) {
+            left.eval(from, count);
+            right.eval(from, count);
+            final double[] l = left.numbers;
+            final double[] r = right.numbers;
+
+            // One loop per operator, so that each of them is a straight line the JIT may auto-vectorize.
+            switch (operator.type) {
+                case TokenType.PLUS -> { for (int i = 0; i < count; i++) numbers[i] = l[i] + r[i]; }
+                case TokenType.MINUS -> { for (int i = 0; i < count; i++) numbers[i] = l[i] - r[i]; }
+                case TokenType.STAR -> { for (int i = 0; i < count; i++) numbers[i] = l[i] * r[i]; }
+                case TokenType.SLASH -> { for (int i = 0; i < count; i++) numbers[i] = l[i] / r[i]; }
+                default -> throw new IllegalStateException("Not an arithmetic operator: " + operator.type);
+            }
+        }
+    }
+
+    private static final class CompareKernel extends Kernel {
+        private final Token operator;
+        private final Kernel left;
+        private final Kernel right;
+
+        CompareKernel(Token operator, Kernel left, Kernel right) {
+            super(Kind.BOOL);
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void eval(int from, int count) {
+            left.eval(from, count);
+            right.eval(from, count);
+            final double[] l = left.numbers;
+            final double[] r = right.numbers;
+
+            // Equality compares the bits, like Double.equals in the interpreter, so NaN == NaN and 0 != -0.
+            switch (operator.type) {
+                case TokenType.LESS -> { for (int i = 0; i < count; i++) bools[i] = l[i] < r[i]; }
+                case TokenType.LESS_EQUAL -> { for (int i = 0; i < count; i++) bools[i] = l[i] <= r[i]; }
+                case TokenType.GREATER -> { for (int i = 0; i < count; i++) bools[i] = l[i] > r[i]; }
+                case TokenType.GREATER_EQUAL -> { for (int i = 0; i < count; i++) bools[i] = l[i] >= r[i]; }
+                case TokenType.EQUAL_EQUAL -> { for (int i = 0; i < count; i++) bools[i] = Double.doubleToLongBits(l[i]) == Double.doubleToLongBits(r[i]); }
+                case TokenType.BANG_EQUAL -> { for (int i = 0; i < count; i++) bools[i] = Double.doubleToLongBits(l[i]) != Double.doubleToLongBits(r[i]); }
+                default -> throw new IllegalStateException("Not a comparison operator: " + operator.type);
+            }
+        }
+    }
+
+    private static final class BoolEqualityKernel extends Kernel {
+        private final boolean negate;
+        private final Kernel left;
+        private final Kernel right;
+
+        BoolEqualityKernel(Token operator, Kernel left, Kernel right) {
+            super(Kind.BOOL);
+            this.negate = operator.type == TokenType.BANG_EQUAL;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void eval(int from, int count) {
+            left.eval(from, count);
+            right.eval(from, count);
+            final boolean[] l = left.bools;
+            final boolean[] r = right.bools;
+            for (int i = 0; i < count; i++) bools[i] = (l[i] == r[i]) != negate;
+        }
+    }
+
+    private final class ScalarUnaryKernel extends Kernel {
+        private final Token operator;
+        private final Kernel right;
+
+        ScalarUnaryKernel(Token operator, Kernel right) {
+            super(Kind.ANY);
+            this.operator = operator;
+            this.right = right;
+        }
+
+        @Override
+        void eval(int from, int count) {
+            right.eval(from, count);
+            for (int i = 0; i < count; i++) {
+                values[i] = null;
+                errors[i] = right.error(i);
+                if (errors[i] != null) continue;
+
+                try {
+                    values[i] = scalar.applyUnary(operator, right.get(i));
+                } catch (RuntimeError e) {
+                    errors[i] = e;
+                }
+            }
+        }
+    }
+
+    private final class ScalarBinaryKernel extends Kernel {
+        private final Token operator;
+        private final Kernel left;
+        private final Kernel right;
+
+        ScalarBinaryKernel(Token operator, Kernel left, Kernel right) {
+            super(Kind.ANY);
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void eval(int from, int count) {
+            left.eval(from, count);
+            right.eval(from, count);
+            for (int i = 0; i < count; i++) {
+                values[i] = null;
+                // The interpreter evaluates the left operand first, so its error wins.
+                errors[i] = left.error(i);
+                if (errors[i] == null) errors[i] = right.error(i);
+                if (errors[i] != null) continue;
+
+                try {
+                    values[i] = scalar.applyBinary(operator, left.get(i), right.get(i));
+                } catch (RuntimeError e) {
+                    errors[i] = e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Boolean operands cannot fail, so both are computed for the whole batch and combined without branches.
+     */
+    private static final class LogicalBoolKernel extends Kernel {
+        private final boolean or;
+        private final Kernel left;
+        private final Kernel right;
+
+        LogicalBoolKernel(Token operator, Kernel left, Kernel right) {
+            super(Kind.BOOL);
+            this.or = operator.type == TokenType.OR;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void eval(int from, int count) {
+            left.eval(from, count);
+            right.eval(from, count);
+            final boolean[] l = left.bools;
+            final boolean[] r = right.bools;
+            if (or) {
+                for (int i = 0; i < count; i++) bools[i] = l[i] | r[i];
+            } else {
+                for (int i = 0; i < count; i++) bools[i] = l[i] & r[i];
+            }
+        }
+    }
+
+    /**
+     * The right operand is computed for the whole batch, which is safe because expressions are pure, but its value or error only
+     * counts in the rows where the interpreter would have evaluated it.
+     */
+    private static final class ScalarLogicalKernel extends Kernel {
+        private final Token operator;
+        private final Kernel left;
+        private final Kernel right;
+
+        ScalarLogicalKernel(Token operator, Kernel left, Kernel right) {
+            super(Kind.ANY);
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void eval(int from, int count) {
+            left.eval(from, count);
+            right.eval(from, count);
+            for (int i = 0; i < count; i++) {
+                errors[i] = left.error(i);
+                if (errors[i] != null) {
+                    values[i] = null;
+                } else if (Interpreter.decides(operator, left.get(i))) {
+                    values[i] = left.get(i);
+                } else {
+                    values[i] = right.get(i);
+                    errors[i] = right.error(i);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package jlox.interpreter;
+
+import jlox.errors.Error;
+import jlox.errors.RuntimeError;
+
+/**
+ * The values, or the errors, of an expression evaluated over columns by the {@link ColumnarEvaluator}.
+ * Numeric and boolean results are kept as primitive arrays. Other results are kept per row together with their errors.
+ */
+public final class ColumnarResult {
+    private final ColumnarEvaluator.Kind kind;
+    private final int size;
+    private double[] numbers;
+    private boolean[] bools;
+    private Object[] values;
+    private RuntimeError[] errors;
+
+    ColumnarResult(ColumnarEvaluator.Kind kind, int size) {
+        this.kind = kind;
+        this.size = size;
+        switch (kind) {
+            case NUMBER -> numbers = new double[size];
+            case BOOL -> bools = new boolean[size];
+            case ANY -> {
+                values = new Object[size];
+                errors = new RuntimeError[size];
+            }
+        }
+    }
+
+    /**
+     * Copies the rows of a batch from the buffers of the root kernel.
+     */
+    void copy(ColumnarEvaluator.Kernel kernel, int from, int count) {
+        switch (kind) {
+            case NUMBER -> System.arraycopy(kernel.numbers, 0, numbers, from, count);
+            case BOOL -> System.arraycopy(kernel.bools, 0, bools, from, count);
+            case ANY -> {
+                for (int i = 0; i < count; i++) values[from + i] = Interpreter.export(kernel.values[i]);
+                System.arraycopy(kernel.errors, 0, errors, from, count);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if every row evaluated to a number, so that {@link #getNumbers()} can be used.
+     */
+    public boolean isNumeric() {
+        return kind == ColumnarEvaluator.Kind.NUMBER;
+    }
+
+    /**
+     * @return The values of all rows, without boxing them. Only available when the result is numeric.
+     */
+    public double[] getNumbers() {
+        if (!isNumeric()) {
+            throw new IllegalStateException("The result is not numeric.");
+        }
+        return numbers;
+    }
+
+    /**
+     * @return The value of a row, as Interpreter.interpret would return it, or null if the row failed.
+     */
+    public Object get(int row) {
+        return switch (kind) {
+            case NUMBER -> numbers[row];
+            case BOOL -> bools[row];
+            case ANY -> values[row];
+        };
+    }
+
+    public Error<RuntimeError> getError(int row) {
+        if (kind != ColumnarEvaluator.Kind.ANY || errors[row] == null) {
+            return Error.None();
+        }
+        return new Error<RuntimeError>(errors[row]);
+    }
+}
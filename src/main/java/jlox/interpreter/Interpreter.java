@@ -1,23 +1,50 @@
 package jlox.interpreter;
 
+import java.util.Map;
+
 import jlox.errors.RuntimeError;
+import jlox.events.EvaluateEvent;
+import jlox.metrics.Metrics;
 import jlox.parser.Expr;
 import jlox.parser.Expr.Binary;
 import jlox.parser.Expr.Grouping;
 import jlox.parser.Expr.Literal;
+import jlox.parser.Expr.Logical;
 import jlox.parser.Expr.Unary;
+import jlox.parser.Expr.Variable;
 import jlox.scanner.Token;
 import jlox.scanner.TokenType;
 import jlox.errors.Error;
 
 /**
  * Evaluates AST and produces a value or side effects.
+ * Integral numbers are kept as longs while the arithmetic on them stays exact, see {@link Numbers}.
+ * The only mutable state is the error of the last {@link #interpret(Expr)} call. {@link #evaluate(Expr)} does not touch it, so an
+ * interpreter can be shared between threads as long as they use evaluate.
  */
 
 public class Interpreter implements Expr.Visitor<Object> {
 
+    /**
+     * Marks a name that is missing from the bindings, because null is a valid value - nil.
+     */
+    private static final Object UNDEFINED = new Object();
+
+    /**
+     * Values of the parameters that the expression can reference by name.
+     */
+    private final Map<String, Object> bindings;
+
     private Error<RuntimeError> error;
 
+    public Interpreter() {
+        this(Map.of());
+    }
+
+    public Interpreter(Map<String, Object> bindings) {
+        this.bindings = bindings;
+    }
+
     public Object interpret(Expr expr) {
         try {
             final Object res = evaluate(expr);
@@ -29,27 +56,117 @@ public class Interpreter implements Expr.Visitor<Object> {
         }
     }
 
+    /**
+     * Evaluates the expression without remembering the outcome, which makes it safe to call concurrently.
+     * Each call is an {@link EvaluateEvent} in a Flight Recorder recording, and is counted by the {@link Metrics} when they are installed.
+     * @return The value of the expression.
+     * @throws RuntimeError if the evaluation fails.
+     */
+    public Object evaluate(Expr expr) throws RuntimeError {
+        final EvaluateEvent event = new EvaluateEvent();
+        final Metrics metrics = Metrics.installed();
+        final long start = metrics == null ? 0 : System.nanoTime();
+        event.begin();
+        Object res = null;
+        Throwable failure = null;
+        try {
+            res = export(evaluateNode(expr));
+            return res;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            event.finish(expr, res, failure != null);
+            if (metrics != null) metrics.recordEvaluation(System.nanoTime() - start, failure);
+        }
+    }
+
+    /**
+     * Applies an operator to literal operands, for the optimizer. Unlike {@link #evaluate(Expr)} it is neither an event nor counted
+     * by the metrics: folding a constant is not an evaluation.
+     * @param node A binary or unary operator, or a grouping, whose operands are literals.
+     * @return The value, as evaluate would return it.
+     * @throws RuntimeError if the operator fails on the operands.
+     */
+    public Object fold(Expr node) throws RuntimeError {
+        return export(switch (node) {
+            case Expr.Binary b -> applyBinary(b.operator, literal(b.left), literal(b.right));
+            case Expr.Unary u -> applyUnary(u.operator, literal(u.right));
+            case Expr.Grouping g -> literal(g.expression);
+            default -> throw new IllegalArgumentException("Only operators and groupings can be folded.");
+        });
+    }
+
+    private static Object literal(Expr operand) {
+        if (!(operand instanceof Literal l)) {
+            throw new IllegalArgumentException("The operands of a folded operator must be literals.");
+        }
+        return Numbers.narrow(l.value);
+    }
+
+    /**
+     * Turns an internal value into the value that the public entrypoints return: ropes become strings and longs become doubles.
+     */
+    static Object export(Object value) {
+        return Numbers.widen(Rope.flatten(value));
+    }
+
     public Error<RuntimeError> getError() {
         return error;
     }
 
     @Override
     public Object visitLiteralExpr(Literal expr) {
-        return expr.value;
+        return Numbers.narrow(expr.value);
     }
 
     @Override
     public Object visitGroupingExpr(Grouping expr) {
-        return evaluate(expr.expression);
+        return evaluateNode(expr.expression);
     }
 
     @Override
     public Object visitBinaryExpr(Binary expr) {
-        final Object leftVal = evaluate(expr.left);
-        final Object rightVal = evaluate(expr.right);
+        final Object leftVal = evaluateNode(expr.left);
+        final Object rightVal = evaluateNode(expr.right);
+        return applyBinary(expr.operator, leftVal, rightVal);
+    }
+
+    /**
+     * The right operand is only evaluated when the left one does not decide the result. The result is the value of the operand that
+     * decided it, not necessarily a boolean - 'nil or 1' is 1.
+     */
+    @Override
+    public Object visitLogicalExpr(Logical expr) {
+        final Object leftVal = evaluateNode(expr.left);
+        if (decides(expr.operator, leftVal)) {
+            return leftVal;
+        }
+        return evaluateNode(expr.right);
+    }
+
+    @Override
+    public Object visitUnaryExpr(Unary expr) {
+        final Object val = evaluateNode(expr.right);
+        return applyUnary(expr.operator, val);
+    }
+
+    @Override
+    public Object visitVariableExpr(Variable expr) {
+        final Object val = bindings.getOrDefault(expr.name.lexeme, UNDEFINED);
+        if (val == UNDEFINED) {
+            throw new RuntimeError(expr.name, String.format("Undefined variable '%s'.", expr.name.lexeme));
+        }
+        return Numbers.narrow(val);
+    }
 
+    /**
+     * Applies a binary operator to already evaluated operands.
+     * Other evaluators in this package share it, so that all of them produce the same values and errors.
+     */
+    Object applyBinary(Token operator, Object leftVal, Object rightVal) {
         // Some of the operators can work only for numbers.
-        switch (expr.operator.type) {
+        switch (operator.type) {
             case TokenType.MINUS:
             case TokenType.SLASH:
             case TokenType.STAR:
@@ -57,58 +174,61 @@ public class Interpreter implements Expr.Visitor<Object> {
             case TokenType.LESS_EQUAL:
             case TokenType.GREATER:
             case TokenType.GREATER_EQUAL:
-                checkNumberOperand(expr.operator, leftVal);
-                checkNumberOperand(expr.operator, rightVal);
+                checkNumberOperand(operator, leftVal);
+                checkNumberOperand(operator, rightVal);
                 break;
             default:
                 break;
         }
 
-        return switch (expr.operator.type) {
-            case TokenType.PLUS -> performBinaryPlus(expr.operator, leftVal, rightVal);
-            case TokenType.MINUS -> (Double)leftVal - (Double)rightVal;
-            case TokenType.SLASH -> (Double)leftVal / (Double)rightVal;
-            case TokenType.STAR -> (Double)leftVal * (Double)rightVal;
-            case TokenType.LESS -> (Double)leftVal < (Double)rightVal;
-            case TokenType.LESS_EQUAL -> (Double)leftVal <= (Double)rightVal;
-            case TokenType.GREATER -> (Double)leftVal > (Double)rightVal;
-            case TokenType.GREATER_EQUAL -> (Double)leftVal >= (Double)rightVal;
+        return switch (operator.type) {
+            case TokenType.PLUS -> performBinaryPlus(operator, leftVal, rightVal);
+            case TokenType.MINUS -> Numbers.subtract(leftVal, rightVal);
+            case TokenType.SLASH -> Numbers.divide(leftVal, rightVal);
+            case TokenType.STAR -> Numbers.multiply(leftVal, rightVal);
+            case TokenType.LESS -> Numbers.less(leftVal, rightVal);
+            case TokenType.LESS_EQUAL -> Numbers.lessEqual(leftVal, rightVal);
+            case TokenType.GREATER -> Numbers.less(rightVal, leftVal);
+            case TokenType.GREATER_EQUAL -> Numbers.lessEqual(rightVal, leftVal);
             case TokenType.EQUAL_EQUAL -> isEqual(leftVal, rightVal);
             case TokenType.BANG_EQUAL -> !isEqual(leftVal, rightVal);
-            default -> throw new RuntimeError(expr.operator, "Unimplemented binary operator.");
+            default -> throw new RuntimeError(operator, "Unimplemented binary operator.");
         };
     }
 
-    @Override
-    public Object visitUnaryExpr(Unary expr) {
-        final Object val = evaluate(expr.right);
-
-        switch (expr.operator.type) {
+    /**
+     * Applies a unary operator to an already evaluated operand.
+     */
+    Object applyUnary(Token operator, Object val) {
+        switch (operator.type) {
             case TokenType.PLUS:
             case TokenType.MINUS:
-                checkNumberOperand(expr.operator, val);
+                checkNumberOperand(operator, val);
                 break;
             case TokenType.BANG:
-                checkBoolOperand(expr.operator, val);
+                checkBoolOperand(operator, val);
                 break;
             default:
                 break;
         }
 
-        return switch (expr.operator.type) {
+        return switch (operator.type) {
             case TokenType.PLUS -> val;
-            case TokenType.MINUS -> -(Double)val;
+            case TokenType.MINUS -> Numbers.negate(val);
             case TokenType.BANG -> !isTruthy(val);
-            default -> throw new RuntimeError(expr.operator, "Unimplemented unary operator.");
+            default -> throw new RuntimeError(operator, "Unimplemented unary operator.");
         };
     }
 
-    private Object evaluate(Expr e) {
+    /**
+     * Evaluates a single node of the tree. Every visit method goes through here for its operands, so subclasses can hook into it.
+     */
+    protected Object evaluateNode(Expr e) {
         return e.accept(this);
     }
 
     private void checkNumberOperand(Token operator, Object operand) {
-        if (operand instanceof Double) return;
+        if (Numbers.isNumber(operand)) return;
         throw new RuntimeError(operator, "Operand must be a number.");
     }
 
@@ -117,13 +237,21 @@ public class Interpreter implements Expr.Visitor<Object> {
         throw new RuntimeError(operator, "Operand must be a boolean.");
     }
 
-    private boolean isTruthy(Object val) {
+    /**
+     * @return true if the left operand of a logical operator is its result: a truthy one for 'or', a falsey one for 'and'.
+     */
+    static boolean decides(Token operator, Object leftVal) {
+        return operator.type == TokenType.OR ? isTruthy(leftVal) : !isTruthy(leftVal);
+    }
+
+    static boolean isTruthy(Object val) {
         if (val == null) return false;
         if (val instanceof Boolean b) return b;
         return true;
     }
 
     /**
+     * Strings are concatenated lazily through a {@link Rope}, so long chains of '+' do not copy the growing prefix on every step.
      * When the left value is a string and the right value is a number, concatenate the stringified number to the left string.
      * When the left value is a string and the right value is a string, concatenate.
      * When the left value is a number and the right value is a string, throw error.
@@ -134,27 +262,30 @@ public class Interpreter implements Expr.Visitor<Object> {
      * @return Returns the result of performing the + operation on the two values.
      */
     private Object performBinaryPlus(Token plus, Object leftVal, Object rightVal) {
-        if (leftVal instanceof String l && rightVal instanceof Double r) {
-            return l + r.toString();
+        if (leftVal instanceof CharSequence l && Numbers.isNumber(rightVal)) {
+            return Rope.concat(l, Numbers.toString(rightVal));
         }
-        else if (leftVal instanceof String l && rightVal instanceof String r) {
-            return l + r;
+        else if (leftVal instanceof CharSequence l && rightVal instanceof CharSequence r) {
+            return Rope.concat(l, r);
         }
-        else if (leftVal instanceof Number && rightVal instanceof String) {
+        else if (leftVal instanceof Number && rightVal instanceof CharSequence) {
             throw new RuntimeError(plus, "Invalid operation between left-hand side number and right-hand side string");
         }
-        else if (leftVal instanceof Double l && rightVal instanceof Double r) {
-            return l + r;
+        else if (Numbers.isNumber(leftVal) && Numbers.isNumber(rightVal)) {
+            return Numbers.add(leftVal, rightVal);
         }
         else {
-            final String msg = String.format("Unsupported operation between values: '%s' and '%s'.", leftVal, rightVal);
+            final String msg = String.format("Unsupported operation between values: '%s' and '%s'.", export(leftVal), export(rightVal));
             throw new RuntimeError(plus, msg);
         }
     }
 
     private boolean isEqual(Object o1, Object o2) {
+        o1 = Rope.flatten(o1);
+        o2 = Rope.flatten(o2);
         if (o1 == null && o2 == null) return true;
         if (o1 == null) return false;
+        if (Numbers.isNumber(o1) && Numbers.isNumber(o2)) return Numbers.equal(o1, o2);
         return o1.equals(o2);
     }
 }
@@ -0,0 +1,231 @@
+package jlox.interpreter;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import jlox.errors.RuntimeError;
+import jlox.events.EvaluateEvent;
+import jlox.metrics.Metrics;
+import jlox.parser.Expr;
+import jlox.scanner.Token;
+import jlox.scanner.TokenType;
+
+/**
+ * Evaluates expressions with every intermediate value packed into a primitive long, so arithmetic does not allocate a box per result.
+ *
+ * A number is stored as the bits of its double. All NaNs are stored as the one canonical NaN, which leaves the other NaN bit patterns
+ * free to encode the rest: nil and the booleans are fixed patterns, and a string is a pattern with the index of the string in a
+ * side table that lives as long as the evaluation.
+ *
+ * The values and the errors are the same as Interpreter.evaluate returns and throws. The evaluator does not go through the
+ * interpreter and its hooks - it is a separate runtime - but like Interpreter.evaluate, each call is an {@link EvaluateEvent} and is
+ * counted by the {@link Metrics}. An instance holds no state between calls and can be shared between threads.
+ */
+public final class NanBoxEvaluator {
+
+    private static final long CANONICAL_NAN = Double.doubleToRawLongBits(Double.NaN);
+
+    /**
+     * Quiet NaNs with the sign bit set. Arithmetic only produces the canonical NaN, so these never collide with a number.
+     */
+    private static final long TAG_MASK = 0xFFFF_0000_0000_0000L;
+    private static final long SPECIAL_TAG = 0xFFFC_0000_0000_0000L;
+    private static final long STRING_TAG = 0xFFFD_0000_0000_0000L;
+
+    private static final long NIL = SPECIAL_TAG | 1;
+    private static final long FALSE = SPECIAL_TAG | 2;
+    private static final long TRUE = SPECIAL_TAG | 3;
+
+    private static final Object UNDEFINED = new Object();
+
+    private final Map<String, Object> bindings;
+
+    public NanBoxEvaluator() {
+        this(Map.of());
+    }
+
+    /**
+     * @param bindings The values of the parameters: numbers as Double, booleans, strings or null.
+     */
+    public NanBoxEvaluator(Map<String, Object> bindings) {
+        this.bindings = bindings;
+    }
+
+    /**
+     * @return The value of the expression, the same as Interpreter.evaluate would return.
+     * @throws RuntimeError the same error that Interpreter.evaluate would throw.
+     */
+    public Object evaluate(Expr expr) throws RuntimeError {
+        final EvaluateEvent event = new EvaluateEvent();
+        final Metrics metrics = Metrics.installed();
+        final long start = metrics == null ? 0 : System.nanoTime();
+        event.begin();
+        Object res = null;
+        Throwable failure = null;
+        try {
+            final Strings strings = new Strings();
+            res = strings.decode(evaluate(expr, strings));
+            return res;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            event.finish(expr, res, failure != null);
+            if (metrics != null) metrics.recordEvaluation(System.nanoTime() - start, failure);
+        }
+    }
+
+    /**
+     * The strings of one evaluation. A boxed string value is an index into this table.
+     */
+    private static final class Strings {
+        private CharSequence[] table;
+        private int size;
+
+        long add(CharSequence s) {
+            if (table == null) {
+                // Most numeric expressions never need it.
+                table = new CharSequence[8];
+            } else if (size == table.length) {
+                table = Arrays.copyOf(table, size * 2);
+            }
+            table[size] = s;
+            return STRING_TAG | size++;
+        }
+
+        CharSequence get(long value) {
+            return table[(int)(value & ~TAG_MASK)];
+        }
+
+        Object decode(long value) {
+            if (isNumber(value)) return Double.longBitsToDouble(value);
+            if (isString(value)) return get(value).toString();
+            if (value == NIL) return null;
+            return value == TRUE;
+        }
+    }
+
+    private long evaluate(Expr e, Strings strings) {
+        if (e instanceof Expr.Binary b) {
+            final long left = evaluate(b.left, strings);
+            final long right = evaluate(b.right, strings);
+            return applyBinary(b.operator, left, right, strings);
+        }
+        if (e instanceof Expr.Logical l) {
+            final long left = evaluate(l.left, strings);
+            final boolean truthy = left != NIL && left != FALSE;
+            if (l.operator.type == TokenType.OR ? truthy : !truthy) {
+                return left;
+            }
+            return evaluate(l.right, strings);
+        }
+        if (e instanceof Expr.Unary u) {
+            return applyUnary(u.operator, evaluate(u.right, strings));
+        }
+        if (e instanceof Expr.Grouping g) {
+            return evaluate(g.expression, strings);
+        }
+        if (e instanceof Expr.Literal l) {
+            return encode(l.value, strings);
+        }
+        if (e instanceof Expr.Variable v) {
+            final Object val = bindings.getOrDefault(v.name.lexeme, UNDEFINED);
+            if (val == UNDEFINED) {
+                throw new RuntimeError(v.name, String.format("Undefined variable '%s'.", v.name.lexeme));
+            }
+            return encode(val, strings);
+        }
+        throw new IllegalArgumentException("Unknown expression: " + e.getClass().getSimpleName());
+    }
+
+    private long applyBinary(Token operator, long left, long right, Strings strings) {
+        return switch (operator.type) {
+            case TokenType.PLUS -> plus(operator, left, right, strings);
+            case TokenType.MINUS -> number(number(operator, left) - number(operator, right));
+            case TokenType.SLASH -> number(number(operator, left) / number(operator, right));
+            case TokenType.STAR -> number(number(operator, left) * number(operator, right));
+            case TokenType.LESS -> bool(number(operator, left) < number(operator, right));
+            case TokenType.LESS_EQUAL -> bool(number(operator, left) <= number(operator, right));
+            case TokenType.GREATER -> bool(number(operator, left) > number(operator, right));
+            case TokenType.GREATER_EQUAL -> bool(number(operator, left) >= number(operator, right));
+            case TokenType.EQUAL_EQUAL -> bool(isEqual(left, right, strings));
+            case TokenType.BANG_EQUAL -> bool(!isEqual(left, right, strings));
+            default -> throw new RuntimeError(operator, "Unimplemented binary operator.");
+        };
+    }
+
+    private long applyUnary(Token operator, long value) {
+        return switch (operator.type) {
+            case TokenType.PLUS -> number(number(operator, value));
+            case TokenType.MINUS -> number(-number(operator, value));
+            case TokenType.BANG -> {
+                if (value != TRUE && value != FALSE && value != NIL) {
+                    throw new RuntimeError(operator, "Operand must be a boolean.");
+                }
+                yield value == TRUE ? FALSE : TRUE;
+            }
+            default -> throw new RuntimeError(operator, "Unimplemented unary operator.");
+        };
+    }
+
+    /**
+     * The same cases, in the same order, as the interpreter's '+'.
+     */
+    private long plus(Token plus, long left, long right, Strings strings) {
+        if (isString(left) && isNumber(right)) {
+            return strings.add(Rope.concat(strings.get(left), Double.toString(Double.longBitsToDouble(right))));
+        }
+        if (isString(left) && isString(right)) {
+            return strings.add(Rope.concat(strings.get(left), strings.get(right)));
+        }
+        if (isNumber(left) && isString(right)) {
+            throw new RuntimeError(plus, "Invalid operation between left-hand side number and right-hand side string");
+        }
+        if (isNumber(left) && isNumber(right)) {
+            return number(Double.longBitsToDouble(left) + Double.longBitsToDouble(right));
+        }
+        final String msg = String.format("Unsupported operation between values: '%s' and '%s'.", strings.decode(left), strings.decode(right));
+        throw new RuntimeError(plus, msg);
+    }
+
+    /**
+     * Numbers compare like Double.equals, which is exactly the comparison of their bits once NaNs are canonical.
+     */
+    private static boolean isEqual(long left, long right, Strings strings) {
+        if (isString(left) && isString(right)) {
+            return strings.get(left).toString().equals(strings.get(right).toString());
+        }
+        return left == right;
+    }
+
+    private static double number(Token operator, long value) {
+        if (!isNumber(value)) {
+            throw new RuntimeError(operator, "Operand must be a number.");
+        }
+        return Double.longBitsToDouble(value);
+    }
+
+    private static long number(double value) {
+        return value != value ? CANONICAL_NAN : Double.doubleToRawLongBits(value);
+    }
+
+    private static long bool(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    private static boolean isNumber(long value) {
+        return (value & SPECIAL_TAG) != SPECIAL_TAG;
+    }
+
+    private static boolean isString(long value) {
+        return (value & TAG_MASK) == STRING_TAG;
+    }
+
+    private static long encode(Object value, Strings strings) {
+        if (value == null) return NIL;
+        if (value instanceof Double d) return number(d);
+        if (value instanceof Boolean b) return bool(b);
+        if (value instanceof String s) return strings.add(s);
+        throw new IllegalArgumentException("Unsupported value: " + value.getClass().getSimpleName());
+    }
+}
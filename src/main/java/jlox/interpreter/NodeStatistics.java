@@ -0,0 +1,57 @@
+package jlox.interpreter;
+
+/**
+ * What the evaluations of one node of the tree cost, over all the places it was evaluated from.
+ */
+public final class NodeStatistics {
+    private final String name;
+    private final int line;
+    private final long count;
+    private final long inclusiveNanos;
+    private final long exclusiveNanos;
+
+    NodeStatistics(String name, int line, long count, long inclusiveNanos, long exclusiveNanos) {
+        this.name = name;
+        this.line = line;
+        this.count = count;
+        this.inclusiveNanos = inclusiveNanos;
+        this.exclusiveNanos = exclusiveNanos;
+    }
+
+    /**
+     * @return The operator or the variable name, 'literal' or 'group', followed by the source line when it is known.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The source line of the node, or 0 if it has no token and neither do its ancestors - a lone literal.
+     */
+    public int getLine() {
+        return line;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The time spent in the node and its operands.
+     */
+    public long getInclusiveNanos() {
+        return inclusiveNanos;
+    }
+
+    /**
+     * @return The time spent in the node itself, without its operands.
+     */
+    public long getExclusiveNanos() {
+        return exclusiveNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d evaluations, %.3f ms inclusive, %.3f ms exclusive", name, count, inclusiveNanos / 1000000.0, exclusiveNanos / 1000000.0);
+    }
+}
@@ -0,0 +1,135 @@
+package jlox.interpreter;
+
+/**
+ * Arithmetic on Lox numbers. A number is a double, but integral values are kept as a Long while the operations on them stay exact,
+ * so counter- and index-style arithmetic works on longs and small results come from the Long cache instead of a new Double.
+ *
+ * A Long always holds a value that a double represents exactly - at most 2^53 in magnitude and never negative zero - so every
+ * operation gives the same number as it would on doubles. When the result leaves that range, is negative zero or is not integral,
+ * the operation falls back to doubles.
+ *
+ * Like ropes, longs never leave the interpreter - the public entrypoints widen them to a Double.
+ */
+final class Numbers {
+
+    /**
+     * The largest magnitude up to which every integer is exactly representable as a double.
+     */
+    static final long MAX_EXACT = 1L << 53;
+
+    private static final Double NEGATIVE_ZERO = -0.0;
+
+    private Numbers() {
+    }
+
+    static boolean isNumber(Object value) {
+        return value instanceof Long || value instanceof Double;
+    }
+
+    /**
+     * @return The value as a Long if it is an integral number that stays exact, otherwise the value unchanged.
+     */
+    static Object narrow(Object value) {
+        if (value instanceof Double d) {
+            final double v = d;
+            final long l = (long)v;
+            if (l == v && fits(l) && (l != 0 || Double.doubleToRawLongBits(v) == 0)) {
+                return l;
+            }
+        } else if (value instanceof Long l && !fits(l)) {
+            return l.doubleValue();
+        }
+        return value;
+    }
+
+    /**
+     * @return Longs as a Double, other values unchanged.
+     */
+    static Object widen(Object value) {
+        return value instanceof Long l ? l.doubleValue() : value;
+    }
+
+    static Object add(Object left, Object right) {
+        if (left instanceof Long l && right instanceof Long r) {
+            return exactOrDouble(l + r);
+        }
+        return toDouble(left) + toDouble(right);
+    }
+
+    static Object subtract(Object left, Object right) {
+        if (left instanceof Long l && right instanceof Long r) {
+            return exactOrDouble(l - r);
+        }
+        return toDouble(left) - toDouble(right);
+    }
+
+    static Object multiply(Object left, Object right) {
+        if (left instanceof Long l && right instanceof Long r) {
+            final long product = l * r;
+            if (Math.multiplyHigh(l, r) == (product >> 63) && fits(product)) {
+                // 0 * -1 is -0.0 in floating point.
+                return product == 0 && (l < 0 || r < 0) ? NEGATIVE_ZERO : (Object)product;
+            }
+            return (double)l * (double)r;
+        }
+        return toDouble(left) * toDouble(right);
+    }
+
+    static Object divide(Object left, Object right) {
+        if (left instanceof Long l && right instanceof Long r && r != 0 && l % r == 0) {
+            // 0 / -1 is -0.0 in floating point.
+            return l == 0 && r < 0 ? NEGATIVE_ZERO : (Object)(l / r);
+        }
+        return toDouble(left) / toDouble(right);
+    }
+
+    static Object negate(Object value) {
+        if (value instanceof Long l) {
+            return l == 0 ? NEGATIVE_ZERO : (Object)(-l);
+        }
+        return -toDouble(value);
+    }
+
+    static boolean less(Object left, Object right) {
+        if (left instanceof Long l && right instanceof Long r) {
+            return l < r;
+        }
+        return toDouble(left) < toDouble(right);
+    }
+
+    static boolean lessEqual(Object left, Object right) {
+        if (left instanceof Long l && right instanceof Long r) {
+            return l <= r;
+        }
+        return toDouble(left) <= toDouble(right);
+    }
+
+    /**
+     * Equality of two numbers with the semantics of Double.equals, whatever representation each of them has.
+     */
+    static boolean equal(Object left, Object right) {
+        if (left instanceof Long l && right instanceof Long r) {
+            return l.longValue() == r.longValue();
+        }
+        return Double.doubleToLongBits(toDouble(left)) == Double.doubleToLongBits(toDouble(right));
+    }
+
+    /**
+     * @return The text of the number as Double.toString prints it.
+     */
+    static String toString(Object value) {
+        return Double.toString(toDouble(value));
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Long l ? (double)l : (Double)value;
+    }
+
+    private static boolean fits(long value) {
+        return value >= -MAX_EXACT && value <= MAX_EXACT;
+    }
+
+    private static Object exactOrDouble(long value) {
+        return fits(value) ? (Object)value : (double)value;
+    }
+}
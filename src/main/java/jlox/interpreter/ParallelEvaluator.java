@@ -0,0 +1,147 @@
+package jlox.interpreter;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import jlox.errors.RuntimeError;
+import jlox.events.EvaluateEvent;
+import jlox.metrics.Metrics;
+import jlox.parser.Expr;
+
+/**
+ * Evaluates huge trees on a fork/join pool. The operands of a binary expression are pure and independent, so when the right
+ * operand is big enough it is forked as a separate task while the current thread evaluates the left one.
+ * Subtrees smaller than the threshold are evaluated sequentially by the interpreter - splitting them would cost more than it saves.
+ *
+ * Errors are reported exactly as the sequential interpreter reports them: an error in the left operand wins over an error in
+ * the right one, because the sequential order would never have reached the right operand.
+ * A whole evaluation is one {@link EvaluateEvent} and is counted once by the {@link Metrics}, however many tasks it took.
+ */
+public final class ParallelEvaluator {
+
+    /**
+     * Subtrees with fewer nodes than this are not worth a task.
+     */
+    public static final int DEFAULT_THRESHOLD = 10_000;
+
+    private final Interpreter interpreter;
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ParallelEvaluator(Interpreter interpreter) {
+        this(interpreter, ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param interpreter Evaluates the small subtrees and applies the operators. It is shared by all tasks, so only its thread-safe part is used.
+     * @param pool The pool that runs the tasks.
+     * @param threshold The minimal number of nodes in a subtree for it to become a separate task.
+     */
+    public ParallelEvaluator(Interpreter interpreter, ForkJoinPool pool, int threshold) {
+        this.interpreter = interpreter;
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * @return The value of the expression, the same as Interpreter.evaluate would return.
+     * @throws RuntimeError the same error that the sequential evaluation would throw.
+     */
+    public Object evaluate(Expr expr) throws RuntimeError {
+        final EvaluateEvent event = new EvaluateEvent();
+        final Metrics metrics = Metrics.installed();
+        final long start = metrics == null ? 0 : System.nanoTime();
+        event.begin();
+        Object res = null;
+        Throwable failure = null;
+        try {
+            res = Interpreter.export(pool.invoke(new EvaluateTask(expr, measure(expr))));
+            return res;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            event.finish(expr, res, failure != null);
+            if (metrics != null) metrics.recordEvaluation(System.nanoTime() - start, failure);
+        }
+    }
+
+    private final class EvaluateTask extends RecursiveTask<Object> {
+        private final Expr expr;
+        private final Map<Expr, Integer> largeSubtrees;
+
+        EvaluateTask(Expr expr, Map<Expr, Integer> largeSubtrees) {
+            this.expr = expr;
+            this.largeSubtrees = largeSubtrees;
+        }
+
+        @Override
+        protected Object compute() {
+            return evaluate(expr);
+        }
+
+        private Object evaluate(Expr e) {
+            if (!largeSubtrees.containsKey(e)) {
+                return interpreter.evaluateNode(e);
+            }
+
+            if (e instanceof Expr.Binary b) {
+                EvaluateTask rightTask = null;
+                if (largeSubtrees.containsKey(b.right)) {
+                    rightTask = new EvaluateTask(b.right, largeSubtrees);
+                    rightTask.fork();
+                }
+
+                final Object leftVal;
+                try {
+                    leftVal = evaluate(b.left);
+                } catch (RuntimeError err) {
+                    // The sequential order stops here, whatever happens on the right.
+                    if (rightTask != null) rightTask.cancel(false);
+                    throw err;
+                }
+                final Object rightVal = rightTask != null ? rightTask.join() : interpreter.evaluateNode(b.right);
+                return interpreter.applyBinary(b.operator, leftVal, rightVal);
+            }
+            if (e instanceof Expr.Logical l) {
+                // Never forked: the right operand may not be evaluated at all.
+                final Object leftVal = evaluate(l.left);
+                return Interpreter.decides(l.operator, leftVal) ? leftVal : evaluate(l.right);
+            }
+            if (e instanceof Expr.Unary u) {
+                return interpreter.applyUnary(u.operator, evaluate(u.right));
+            }
+            if (e instanceof Expr.Grouping g) {
+                return evaluate(g.expression);
+            }
+            return interpreter.evaluateNode(e);
+        }
+    }
+
+    /**
+     * Counts the nodes of every subtree and keeps the sizes of those above the threshold. The small ones are the majority and
+     * we don't need to know more than that they are small.
+     */
+    private Map<Expr, Integer> measure(Expr root) {
+        final Map<Expr, Integer> large = new IdentityHashMap<>();
+        count(root, large);
+        return large;
+    }
+
+    private int count(Expr e, Map<Expr, Integer> large) {
+        int size = 1;
+        if (e instanceof Expr.Binary b) {
+            size += count(b.left, large) + count(b.right, large);
+        } else if (e instanceof Expr.Logical l) {
+            size += count(l.left, large) + count(l.right, large);
+        } else if (e instanceof Expr.Unary u) {
+            size += count(u.right, large);
+        } else if (e instanceof Expr.Grouping g) {
+            size += count(g.expression, large);
+        }
+        if (size >= threshold) large.put(e, size);
+        return size;
+    }
+}
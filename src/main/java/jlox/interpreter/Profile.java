@@ -0,0 +1,254 @@
+package jlox.interpreter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jlox.parser.Expr;
+import jlox.scanner.Token;
+
+/**
+ * The evaluations recorded by a {@link ProfilingInterpreter}, as a tree of the places the nodes were evaluated from.
+ * A node that is shared by several trees, or by several places in one tree, has a frame for each of them.
+ *
+ * It can be read while evaluations are still being recorded: every method sees the evaluations that finished before it.
+ */
+public final class Profile {
+
+    /**
+     * A node evaluated from a particular place. The root frame has no node and holds the recorded trees.
+     */
+    static final class Frame {
+        private static final Frame[] NONE = new Frame[0];
+        private static final int MAX_SCANNED_CHILDREN = 2;
+
+        final Expr expr;
+        long count;
+        long inclusiveNanos;
+        long childNanos;
+
+        private Frame[] children = NONE;
+        private int childCount;
+
+        /**
+         * The children by node, once there are more than {@link #MAX_SCANNED_CHILDREN}.
+         */
+        private Map<Expr, Frame> index;
+
+        Frame(Expr expr) {
+            this.expr = expr;
+        }
+
+        /**
+         * @return The frame of a child, created when it is first evaluated. An operator has at most two operands, which are searched;
+         * the root has a child for every recorded tree, and those are looked up in the index.
+         */
+        Frame child(Expr e) {
+            if (index != null) {
+                final Frame frame = index.get(e);
+                if (frame != null) return frame;
+            } else {
+                for (int i = 0; i < childCount; i++) {
+                    if (children[i].expr == e) return children[i];
+                }
+            }
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, Math.max(2, childCount * 2));
+            }
+            final Frame frame = new Frame(e);
+            children[childCount++] = frame;
+            if (index != null) {
+                index.put(e, frame);
+            } else if (childCount > MAX_SCANNED_CHILDREN) {
+                index = new IdentityHashMap<>();
+                for (int i = 0; i < childCount; i++) index.put(children[i].expr, children[i]);
+            }
+            return frame;
+        }
+
+        long exclusiveNanos() {
+            return inclusiveNanos - childNanos;
+        }
+    }
+
+    private final Frame root = new Frame(null);
+    private final AtomicLong evaluations = new AtomicLong();
+    private long sampled;
+
+    /**
+     * Counts an evaluation, recorded or not. It takes no lock, so the evaluations that are not recorded stay cheap.
+     * @return The number of evaluations before this one.
+     */
+    long countEvaluation() {
+        return evaluations.getAndIncrement();
+    }
+
+    /**
+     * Adds the frames of one recorded evaluation.
+     */
+    synchronized void add(Frame recorded) {
+        sampled++;
+        merge(root, recorded);
+    }
+
+    private static void merge(Frame into, Frame from) {
+        into.count += from.count;
+        into.inclusiveNanos += from.inclusiveNanos;
+        into.childNanos += from.childNanos;
+        for (int i = 0; i < from.childCount; i++) {
+            merge(into.child(from.children[i].expr), from.children[i]);
+        }
+    }
+
+    /**
+     * @return How many evaluations were started, recorded or not.
+     */
+    public long getEvaluations() {
+        return evaluations.get();
+    }
+
+    /**
+     * @return How many evaluations were recorded. The counts and times cover only these.
+     */
+    public synchronized long getSampledEvaluations() {
+        return sampled;
+    }
+
+    /**
+     * @return The time of all recorded evaluations.
+     */
+    public synchronized long getTotalNanos() {
+        return root.childNanos;
+    }
+
+    /**
+     * @return The statistics of every evaluated node, the most expensive one first by exclusive time.
+     */
+    public synchronized List<NodeStatistics> getNodes() {
+        final Map<Expr, long[]> totals = new IdentityHashMap<>();
+        final Map<Expr, String> names = new IdentityHashMap<>();
+        final Map<Expr, Integer> lines = new IdentityHashMap<>();
+        collect(root, 0, totals, names, lines);
+
+        final List<NodeStatistics> nodes = new ArrayList<>(totals.size());
+        for (Map.Entry<Expr, long[]> entry : totals.entrySet()) {
+            final long[] t = entry.getValue();
+            final Expr e = entry.getKey();
+            nodes.add(new NodeStatistics(names.get(e), lines.get(e), t[0], t[1], t[2]));
+        }
+        nodes.sort(Comparator.comparingLong(NodeStatistics::getExclusiveNanos).reversed());
+        return nodes;
+    }
+
+    private static void collect(Frame frame, int parentLine, Map<Expr, long[]> totals, Map<Expr, String> names, Map<Expr, Integer> lines) {
+        int line = parentLine;
+        if (frame.expr != null) {
+            line = lineOf(frame.expr, parentLine);
+            final long[] t = totals.computeIfAbsent(frame.expr, e -> new long[3]);
+            t[0] += frame.count;
+            t[1] += frame.inclusiveNanos;
+            t[2] += frame.exclusiveNanos();
+            names.putIfAbsent(frame.expr, name(frame.expr, line));
+            lines.putIfAbsent(frame.expr, line);
+        }
+        for (int i = 0; i < frame.childCount; i++) {
+            collect(frame.children[i], line, totals, names, lines);
+        }
+    }
+
+    /**
+     * Writes the collapsed stacks that flame graph tools read: one line per evaluated place, the frames from the root separated
+     * by ';', then a space and the exclusive time in nanoseconds. Places that took no measurable time are left out.
+     */
+    public synchronized void writeCollapsed(Writer out) throws IOException {
+        final StringBuilder path = new StringBuilder();
+        for (int i = 0; i < root.childCount; i++) {
+            writeCollapsed(root.children[i], 0, path, out);
+        }
+        out.flush();
+    }
+
+    private static void writeCollapsed(Frame frame, int parentLine, StringBuilder path, Writer out) throws IOException {
+        final int length = path.length();
+        final int line = lineOf(frame.expr, parentLine);
+        if (length > 0) path.append(';');
+        path.append(name(frame.expr, line));
+
+        if (frame.exclusiveNanos() > 0) {
+            out.write(path.toString());
+            out.write(' ');
+            out.write(Long.toString(frame.exclusiveNanos()));
+            out.write(System.lineSeparator());
+        }
+        for (int i = 0; i < frame.childCount; i++) {
+            writeCollapsed(frame.children[i], line, path, out);
+        }
+        path.setLength(length);
+    }
+
+    /**
+     * @param limit The maximal number of nodes in the table.
+     * @return A table of the nodes with the highest exclusive time. The times are per recorded evaluation, so they estimate the
+     * cost of every evaluation even when only some of them were sampled.
+     */
+    public synchronized String top(int limit) {
+        final List<NodeStatistics> nodes = getNodes();
+        final long total = root.childNanos;
+        final long per = Math.max(1, sampled);
+
+        final StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d evaluations, %d recorded, %.2f milliseconds", evaluations.get(), sampled, total / 1000000.0));
+        sb.append(System.lineSeparator());
+        sb.append(String.format("%7s %12s %12s %10s  %s", "self", "self ns", "total ns", "calls", "node"));
+        for (int i = 0; i < Math.min(limit, nodes.size()); i++) {
+            final NodeStatistics n = nodes.get(i);
+            sb.append(System.lineSeparator());
+            sb.append(String.format("%6.1f%% %12.1f %12.1f %10.2f  %s",
+                    total == 0 ? 0.0 : 100.0 * n.getExclusiveNanos() / total,
+                    (double)n.getExclusiveNanos() / per, (double)n.getInclusiveNanos() / per, (double)n.getCount() / per, n.getName()));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return top(10);
+    }
+
+    /**
+     * @return The line of the node's token, or the line of the closest ancestor with a token for literals and groupings.
+     */
+    private static int lineOf(Expr e, int parentLine) {
+        final Token token = tokenOf(e);
+        return token != null ? token.line : parentLine;
+    }
+
+    private static Token tokenOf(Expr e) {
+        if (e instanceof Expr.Binary b) return b.operator;
+        if (e instanceof Expr.Unary u) return u.operator;
+        if (e instanceof Expr.Logical l) return l.operator;
+        if (e instanceof Expr.Variable v) return v.name;
+        return null;
+    }
+
+    private static String name(Expr e, int line) {
+        final String name;
+        if (e instanceof Expr.Unary u) {
+            name = "unary " + u.operator.lexeme;
+        } else if (e instanceof Expr.Literal) {
+            name = "literal";
+        } else if (e instanceof Expr.Grouping) {
+            name = "group";
+        } else {
+            final Token token = tokenOf(e);
+            name = token != null ? token.lexeme : e.getClass().getSimpleName();
+        }
+        return line == 0 ? name : name + " (line " + line + ")";
+    }
+}
@@ -0,0 +1,249 @@
+package jlox.interpreter;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import jlox.errors.RuntimeError;
+import jlox.metrics.CacheMXBean;
+import jlox.metrics.Metrics;
+import jlox.parser.Expr;
+
+/**
+ * Remembers the values of expressions by their structure, for the {@link CachingInterpreter}.
+ * An expression without variables is pure, so two trees with the same structure have the same value - or fail with the same error -
+ * even when they were parsed separately. Groupings do not change the value, so '(1 + 2)' and '1 + 2' are the same key.
+ *
+ * The least recently used entries are evicted when the cache has more entries or more bytes than its limits. The bytes are an
+ * estimate of the memory that an entry keeps alive, including the tree of its key.
+ * A cache can be shared between threads and between interpreters with different bindings.
+ * Its hit rate is one of the {@link Metrics} once it is registered with {@link Metrics#registerCache(String, CacheMXBean)}.
+ */
+public final class ResultCache implements CacheMXBean {
+
+    private static final long ENTRY_BYTES = 96;
+    private static final long NODE_BYTES = 48;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries The maximal number of cached expressions.
+     * @param maxBytes The maximal estimated memory of the cached expressions and their values.
+     */
+    public ResultCache(int maxEntries, long maxBytes) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("The limits of the cache must be positive.");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * The structure of an expression. The hash is computed once, when the keys of a tree are built; equality compares the trees.
+     */
+    static final class Key {
+        private final Expr expr;
+        private final int hash;
+        private final int size;
+
+        private Key(Expr expr, int hash, int size) {
+            this.expr = expr;
+            this.hash = hash;
+            this.size = size;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && hash == other.hash && size == other.size && sameStructure(expr, other.expr);
+        }
+    }
+
+    /**
+     * A value, or the error the expression failed with.
+     */
+    static final class Entry {
+        final Object value;
+        final RuntimeError error;
+
+        private Entry(Object value, RuntimeError error) {
+            this.value = value;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Builds the keys of all operators in the tree that do not depend on variables. Literals are not worth caching.
+     */
+    static Map<Expr, Key> keys(Expr root) {
+        final Map<Expr, Key> keys = new IdentityHashMap<>();
+        build(root, keys);
+        return keys;
+    }
+
+    /**
+     * Builds the key of the root only, without the keys of the subtrees.
+     * @return The key, or null if the root is not an operator or depends on variables.
+     */
+    static Key key(Expr root) {
+        while (root instanceof Expr.Grouping g) root = g.expression;
+        if (!(root instanceof Expr.Binary) && !(root instanceof Expr.Unary) && !(root instanceof Expr.Logical)) return null;
+        return build(root, null);
+    }
+
+    /**
+     * @param keys Collects the keys of the operators, if not null.
+     * @return The key of the subtree, or null if it depends on variables.
+     */
+    private static Key build(Expr e, Map<Expr, Key> keys) {
+        if (e instanceof Expr.Grouping g) {
+            return build(g.expression, keys);
+        }
+        if (e instanceof Expr.Literal l) {
+            return new Key(l, Objects.hashCode(l.value), 1);
+        }
+        if (e instanceof Expr.Unary u) {
+            final Key right = build(u.right, keys);
+            if (right == null) return null;
+            return put(keys, u, 31 * u.operator.type.ordinal() + right.hash, right.size + 1);
+        }
+        if (e instanceof Expr.Binary b) {
+            final Key left = build(b.left, keys);
+            final Key right = build(b.right, keys);
+            if (left == null || right == null) return null;
+            return put(keys, b, (31 * left.hash + b.operator.type.ordinal()) * 31 + right.hash, left.size + right.size + 1);
+        }
+        if (e instanceof Expr.Logical l) {
+            final Key left = build(l.left, keys);
+            final Key right = build(l.right, keys);
+            if (left == null || right == null) return null;
+            return put(keys, l, (31 * left.hash + l.operator.type.ordinal()) * 31 + right.hash, left.size + right.size + 1);
+        }
+        return null;
+    }
+
+    private static Key put(Map<Expr, Key> keys, Expr e, int hash, int size) {
+        final Key key = new Key(e, hash, size);
+        if (keys != null) keys.put(e, key);
+        return key;
+    }
+
+    private static boolean sameStructure(Expr a, Expr b) {
+        while (a instanceof Expr.Grouping g) a = g.expression;
+        while (b instanceof Expr.Grouping g) b = g.expression;
+
+        if (a == b) return true;
+        if (a instanceof Expr.Literal la && b instanceof Expr.Literal lb) {
+            return Objects.equals(la.value, lb.value);
+        }
+        if (a instanceof Expr.Unary ua && b instanceof Expr.Unary ub) {
+            return ua.operator.type == ub.operator.type && sameStructure(ua.right, ub.right);
+        }
+        if (a instanceof Expr.Binary ba && b instanceof Expr.Binary bb) {
+            return ba.operator.type == bb.operator.type && sameStructure(ba.left, bb.left) && sameStructure(ba.right, bb.right);
+        }
+        if (a instanceof Expr.Logical la && b instanceof Expr.Logical lb) {
+            return la.operator.type == lb.operator.type && sameStructure(la.left, lb.left) && sameStructure(la.right, lb.right);
+        }
+        return false;
+    }
+
+    /**
+     * @return The cached value or error, or null if the expression is not cached.
+     */
+    synchronized Entry get(Key key) {
+        final Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * @param value The value as the public entrypoints return it, so it can be shared between threads.
+     */
+    void putValue(Key key, Object value) {
+        put(key, new Entry(value, null));
+    }
+
+    void putError(Key key, RuntimeError error) {
+        put(key, new Entry(null, error));
+    }
+
+    private synchronized void put(Key key, Entry entry) {
+        final Entry previous = entries.put(key, entry);
+        if (previous != null) bytes -= estimate(key, previous);
+        bytes += estimate(key, entry);
+
+        final Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries || bytes > maxBytes) {
+            final Map.Entry<Key, Entry> e = eldest.next();
+            bytes -= estimate(e.getKey(), e.getValue());
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static long estimate(Key key, Entry entry) {
+        long size = ENTRY_BYTES + key.size * NODE_BYTES;
+        if (entry.value instanceof String s) size += 2L * s.length();
+        if (entry.error != null) size += ENTRY_BYTES + 2L * entry.error.getMessage().length();
+        return size;
+    }
+
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The share of lookups that found a cached result, or 0 before the first lookup.
+     */
+    @Override
+    public double getHitRate() {
+        final long h = getHits();
+        final long total = h + getMisses();
+        return total == 0 ? 0.0 : (double)h / total;
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The estimated memory of the cached entries.
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+}
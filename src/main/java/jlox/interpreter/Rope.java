@@ -0,0 +1,100 @@
+package jlox.interpreter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A lazily concatenated string, produced by the '+' operator on strings.
+ * Concatenating two ropes is O(1) - we only remember the two halves. The characters are copied exactly once, when somebody
+ * observes the value (equality, printing, error messages), so a left-deep chain like "a" + "b" + "c" + ... is linear instead of
+ * copying the growing prefix on every step.
+ *
+ * Ropes never leave the interpreter - the public entrypoints flatten them to a plain String. That is also why this class is not thread-safe.
+ */
+final class Rope implements CharSequence {
+
+    /**
+     * Short results are cheaper to copy right away than to keep as a tree of nodes.
+     */
+    static final int FLATTEN_THRESHOLD = 64;
+
+    private CharSequence left;
+    private CharSequence right;
+    private final int length;
+
+    /**
+     * The flattened value, once somebody asked for it. After that we drop the halves, so the garbage can be collected.
+     */
+    private String flat;
+
+    private Rope(CharSequence left, CharSequence right, int length) {
+        this.left = left;
+        this.right = right;
+        this.length = length;
+    }
+
+    /**
+     * Concatenates two character sequences, either eagerly when the result is short, or by building a rope node.
+     * @return A String or a Rope with the characters of 'left' followed by the characters of 'right'.
+     */
+    static CharSequence concat(CharSequence left, CharSequence right) {
+        final int length = left.length() + right.length();
+        if (length <= FLATTEN_THRESHOLD) {
+            return left.toString().concat(right.toString());
+        }
+        return new Rope(left, right, length);
+    }
+
+    /**
+     * Turns ropes into strings and leaves every other value as it is.
+     */
+    static Object flatten(Object value) {
+        return value instanceof Rope r ? r.toString() : value;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().subSequence(start, end);
+    }
+
+    /**
+     * Copies all the leaves into one buffer. The walk uses a heap-allocated stack, because the ropes we build from
+     * long chains are as deep as the chain itself.
+     */
+    @Override
+    public String toString() {
+        if (flat != null) return flat;
+
+        final char[] buffer = new char[length];
+        int pos = 0;
+        final Deque<CharSequence> stack = new ArrayDeque<>();
+        stack.push(this);
+
+        while (!stack.isEmpty()) {
+            final CharSequence part = stack.pop();
+            if (part instanceof Rope r && r.flat == null) {
+                stack.push(r.right);
+                stack.push(r.left);
+                continue;
+            }
+            final String s = part.toString();
+            s.getChars(0, s.length(), buffer, pos);
+            pos += s.length();
+        }
+
+        flat = new String(buffer);
+        left = null;
+        right = null;
+        return flat;
+    }
+}
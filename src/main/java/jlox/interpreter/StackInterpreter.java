@@ -0,0 +1,320 @@
+package jlox.interpreter;
+
+import java.util.Arrays;
+
+import jlox.analysis.StaticType;
+import jlox.analysis.TypeInfo;
+import jlox.errors.RuntimeError;
+import jlox.events.EvaluateEvent;
+import jlox.metrics.Metrics;
+import jlox.parser.Expr;
+import jlox.scanner.TokenType;
+
+/**
+ * Evaluates trees of any depth in bounded native stack. A left-deep chain like 1 + 1 + ... + 1 with hundreds of thousands of terms
+ * would overflow the thread stack in the {@link Interpreter}.
+ * Here the tree is first linearized in postorder - operands before their operator - and then the program is run in a loop with
+ * the intermediate values on a heap-allocated stack, so a deep tree is just a longer program.
+ *
+ * Linearizing costs about as much as evaluating, so a one-off evaluation recurses like the interpreter while the tree is shallow and only
+ * linearizes the subtrees below {@link #MAX_RECURSION} levels. Linearize once with {@link #linearize(Expr)} when evaluating many times.
+ *
+ * The program runs in the same order as the Interpreter evaluates - left operand, right operand, operator - so the values and
+ * the errors are the same. The operators and the variables are delegated to the interpreter.
+ * An instance holds no state between calls and can be shared between threads.
+ */
+public final class StackInterpreter {
+
+    private static final byte VALUE = 0;
+    private static final byte UNARY = 1;
+    private static final byte BINARY = 2;
+
+    /**
+     * Operators whose operands are proven to be numbers, so they skip the operand checks.
+     */
+    private static final byte NUMERIC_UNARY = 3;
+    private static final byte NUMERIC_BINARY = 4;
+
+    /**
+     * The left operand of a logical operator is on the stack. If it decides the result, jump over the right operand,
+     * otherwise drop it and continue with the right operand.
+     */
+    private static final byte JUMP = 5;
+
+    /**
+     * The states of a node on the work stack of the linearization.
+     */
+    private static final byte EXPAND = 0;
+    private static final byte EMIT = 1;
+    private static final byte PATCH = 2;
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    /**
+     * How deep a one-off evaluation recurses before it switches to a linearized program.
+     */
+    public static final int MAX_RECURSION = 512;
+
+    private final Interpreter interpreter;
+
+    public StackInterpreter() {
+        this(new Interpreter());
+    }
+
+    public StackInterpreter(Interpreter interpreter) {
+        this.interpreter = interpreter;
+    }
+
+    /**
+     * A tree in postorder. Linearize an expression once when it is evaluated many times.
+     */
+    public static final class Program {
+        private final Expr root;
+        private final Expr[] nodes;
+        private final byte[] kinds;
+        private final int[] targets;
+        private final int maxStack;
+
+        private Program(Expr root, Expr[] nodes, byte[] kinds, int[] targets, int maxStack) {
+            this.root = root;
+            this.nodes = nodes;
+            this.kinds = kinds;
+            this.targets = targets;
+            this.maxStack = maxStack;
+        }
+
+        public int size() {
+            return nodes.length;
+        }
+    }
+
+    /**
+     * Orders the nodes of the tree so that each operator comes right after its operands. Groupings have no effect on the
+     * value, so they are left out. A logical operator becomes a conditional jump between its operands, so the right operand
+     * is skipped when the left one decides. The walk itself uses a heap-allocated stack.
+     */
+    public static Program linearize(Expr expr) {
+        return linearize(expr, null);
+    }
+
+    /**
+     * Like {@link #linearize(Expr)}, but the arithmetic on operands that are proven to be numbers skips the runtime checks.
+     * @param types The types of the tree. They must hold at runtime - if the checker assumed types of parameters, the bindings must have them.
+     */
+    public static Program linearize(Expr expr, TypeInfo types) {
+        Expr[] nodes = new Expr[INITIAL_CAPACITY];
+        byte[] kinds = new byte[INITIAL_CAPACITY];
+        int[] targets = new int[INITIAL_CAPACITY];
+        int size = 0;
+
+        // A node is pushed more than once: first to push its operands, then, in a later state, to emit it after them.
+        Expr[] work = new Expr[INITIAL_CAPACITY];
+        byte[] states = new byte[INITIAL_CAPACITY];
+        int workSize = 0;
+        work[workSize++] = expr;
+
+        // The jumps of the logical operators whose right operand is being emitted. They nest, so a stack is enough.
+        int[] jumps = new int[INITIAL_CAPACITY];
+        int jumpsSize = 0;
+
+        int depth = 0;
+        int maxStack = 0;
+        while (workSize > 0) {
+            final Expr e = work[--workSize];
+            final byte state = states[workSize];
+
+            // Every node pushes at most four entries.
+            if (workSize + 4 > work.length) {
+                work = Arrays.copyOf(work, work.length * 2);
+                states = Arrays.copyOf(states, states.length * 2);
+            }
+
+            if (e instanceof Expr.Grouping g) {
+                work[workSize] = g.expression;
+                states[workSize++] = EXPAND;
+            } else if (state == EXPAND && e instanceof Expr.Binary b) {
+                work[workSize] = b;
+                states[workSize++] = EMIT;
+                // The left operand goes on top, so it is emitted first.
+                work[workSize] = b.right;
+                states[workSize++] = EXPAND;
+                work[workSize] = b.left;
+                states[workSize++] = EXPAND;
+            } else if (state == EXPAND && e instanceof Expr.Unary u) {
+                work[workSize] = u;
+                states[workSize++] = EMIT;
+                work[workSize] = u.right;
+                states[workSize++] = EXPAND;
+            } else if (state == EXPAND && e instanceof Expr.Logical l) {
+                // left, jump over the right operand if the left decides, right.
+                work[workSize] = l;
+                states[workSize++] = PATCH;
+                work[workSize] = l.right;
+                states[workSize++] = EXPAND;
+                work[workSize] = l;
+                states[workSize++] = EMIT;
+                work[workSize] = l.left;
+                states[workSize++] = EXPAND;
+            } else if (state == PATCH) {
+                targets[jumps[--jumpsSize]] = size;
+            } else {
+                if (size == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, nodes.length * 2);
+                    kinds = Arrays.copyOf(kinds, kinds.length * 2);
+                    targets = Arrays.copyOf(targets, targets.length * 2);
+                }
+                nodes[size] = e;
+                if (e instanceof Expr.Binary b) {
+                    kinds[size] = isNumeric(b, types) ? NUMERIC_BINARY : BINARY;
+                    depth--;
+                } else if (e instanceof Expr.Unary u) {
+                    kinds[size] = isNumeric(u, types) ? NUMERIC_UNARY : UNARY;
+                } else if (e instanceof Expr.Logical) {
+                    kinds[size] = JUMP;
+                    // When the jump is not taken, the left value is dropped and the right one takes its place.
+                    depth--;
+                    if (jumpsSize == jumps.length) jumps = Arrays.copyOf(jumps, jumpsSize * 2);
+                    jumps[jumpsSize++] = size;
+                } else {
+                    kinds[size] = VALUE;
+                    maxStack = Math.max(maxStack, ++depth);
+                }
+                size++;
+            }
+        }
+
+        return new Program(expr, Arrays.copyOf(nodes, size), Arrays.copyOf(kinds, size), Arrays.copyOf(targets, size), maxStack);
+    }
+
+    private static boolean isNumeric(Expr.Binary b, TypeInfo types) {
+        if (types == null || types.typeOf(b.left) != StaticType.NUMBER || types.typeOf(b.right) != StaticType.NUMBER) return false;
+        return switch (b.operator.type) {
+            case TokenType.PLUS, TokenType.MINUS, TokenType.STAR, TokenType.SLASH,
+                 TokenType.LESS, TokenType.LESS_EQUAL, TokenType.GREATER, TokenType.GREATER_EQUAL -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean isNumeric(Expr.Unary u, TypeInfo types) {
+        if (types == null || types.typeOf(u.right) != StaticType.NUMBER) return false;
+        return u.operator.type == TokenType.MINUS || u.operator.type == TokenType.PLUS;
+    }
+
+    /**
+     * @return The value of the expression, the same as Interpreter.evaluate would return.
+     * @throws RuntimeError the same error that Interpreter.evaluate would throw.
+     */
+    public Object evaluate(Expr expr) throws RuntimeError {
+        final EvaluateEvent event = new EvaluateEvent();
+        final Metrics metrics = Metrics.installed();
+        final long start = metrics == null ? 0 : System.nanoTime();
+        event.begin();
+        Object res = null;
+        Throwable failure = null;
+        try {
+            res = Interpreter.export(evaluate(expr, 0));
+            return res;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            event.finish(expr, res, failure != null);
+            if (metrics != null) metrics.recordEvaluation(System.nanoTime() - start, failure);
+        }
+    }
+
+    /**
+     * Runs a linearized tree. Like {@link #evaluate(Expr)}, each run is an {@link EvaluateEvent} and is counted by the {@link Metrics}.
+     */
+    public Object evaluate(Program program) throws RuntimeError {
+        final EvaluateEvent event = new EvaluateEvent();
+        final Metrics metrics = Metrics.installed();
+        final long start = metrics == null ? 0 : System.nanoTime();
+        event.begin();
+        Object res = null;
+        Throwable failure = null;
+        try {
+            res = Interpreter.export(run(program));
+            return res;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            event.finish(program.root, res, failure != null);
+            if (metrics != null) metrics.recordEvaluation(System.nanoTime() - start, failure);
+        }
+    }
+
+    private Object evaluate(Expr e, int depth) {
+        if (depth == MAX_RECURSION) {
+            return run(linearize(e));
+        }
+
+        if (e instanceof Expr.Binary b) {
+            final Object leftVal = evaluate(b.left, depth + 1);
+            final Object rightVal = evaluate(b.right, depth + 1);
+            return interpreter.applyBinary(b.operator, leftVal, rightVal);
+        }
+        if (e instanceof Expr.Unary u) {
+            return interpreter.applyUnary(u.operator, evaluate(u.right, depth + 1));
+        }
+        if (e instanceof Expr.Logical l) {
+            final Object leftVal = evaluate(l.left, depth + 1);
+            return Interpreter.decides(l.operator, leftVal) ? leftVal : evaluate(l.right, depth + 1);
+        }
+        if (e instanceof Expr.Grouping g) {
+            return evaluate(g.expression, depth + 1);
+        }
+        return interpreter.evaluateNode(e);
+    }
+
+    private Object run(Program program) {
+        final Expr[] nodes = program.nodes;
+        final byte[] kinds = program.kinds;
+        final int[] targets = program.targets;
+        final Object[] values = new Object[program.maxStack];
+        int top = 0;
+
+        for (int i = 0; i < nodes.length; i++) {
+            switch (kinds[i]) {
+                case VALUE -> values[top++] = interpreter.evaluateNode(nodes[i]);
+                case UNARY -> values[top - 1] = interpreter.applyUnary(((Expr.Unary)nodes[i]).operator, values[top - 1]);
+                case BINARY -> {
+                    top--;
+                    values[top - 1] = interpreter.applyBinary(((Expr.Binary)nodes[i]).operator, values[top - 1], values[top]);
+                }
+                case NUMERIC_UNARY -> {
+                    if (((Expr.Unary)nodes[i]).operator.type == TokenType.MINUS) values[top - 1] = Numbers.negate(values[top - 1]);
+                }
+                case NUMERIC_BINARY -> {
+                    top--;
+                    values[top - 1] = applyNumeric(((Expr.Binary)nodes[i]).operator.type, values[top - 1], values[top]);
+                }
+                case JUMP -> {
+                    if (Interpreter.decides(((Expr.Logical)nodes[i]).operator, values[top - 1])) {
+                        i = targets[i] - 1;
+                    } else {
+                        top--;
+                    }
+                }
+                default -> throw new IllegalStateException("Unknown instruction: " + kinds[i]);
+            }
+        }
+
+        return values[0];
+    }
+
+    private static Object applyNumeric(TokenType operator, Object l, Object r) {
+        return switch (operator) {
+            case TokenType.PLUS -> Numbers.add(l, r);
+            case TokenType.MINUS -> Numbers.subtract(l, r);
+            case TokenType.STAR -> Numbers.multiply(l, r);
+            case TokenType.SLASH -> Numbers.divide(l, r);
+            case TokenType.LESS -> Numbers.less(l, r);
+            case TokenType.LESS_EQUAL -> Numbers.lessEqual(l, r);
+            case TokenType.GREATER -> Numbers.less(r, l);
+            case TokenType.GREATER_EQUAL -> Numbers.lessEqual(r, l);
+            default -> throw new IllegalStateException("Not a numeric operator: " + operator);
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package jlox.metrics;
+
+/**
+ * The lookups of a cache.
+ */
+public interface CacheMXBean {
+
+    long getHits();
+
+    long getMisses();
+
+    /**
+     * @return The share of the lookups that were hits, between 0 and 1, or 0 before the first lookup.
+     */
+    double getHitRate();
+}
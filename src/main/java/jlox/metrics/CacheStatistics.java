@@ -0,0 +1,33 @@
+package jlox.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Reads the counters of a cache when they are asked for, so the cache does not need to know about the metrics.
+ */
+final class CacheStatistics implements CacheMXBean {
+    private final LongSupplier hits;
+    private final LongSupplier misses;
+
+    CacheStatistics(LongSupplier hits, LongSupplier misses) {
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    @Override
+    public long getHits() {
+        return hits.getAsLong();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.getAsLong();
+    }
+
+    @Override
+    public double getHitRate() {
+        final long h = getHits();
+        final long total = h + getMisses();
+        return total == 0 ? 0.0 : (double)h / total;
+    }
+}
@@ -0,0 +1,39 @@
+package jlox.metrics;
+
+import java.util.Map;
+
+/**
+ * The counters of the scanner, the parser and the interpreter, since the metrics were installed.
+ */
+public interface EngineMXBean {
+
+    long getScans();
+
+    long getTokensScanned();
+
+    /**
+     * @return The unexpected characters and broken literals that the scanner reported.
+     */
+    long getScanErrors();
+
+    /**
+     * @return The calls of parse and parseScript.
+     */
+    long getParses();
+
+    long getParseErrors();
+
+    long getEvaluations();
+
+    long getRuntimeErrors();
+
+    /**
+     * @return The parse errors by their message, with the names and the numbers in it left out.
+     */
+    Map<String, Long> getParseErrorsByKind();
+
+    /**
+     * @return The runtime errors by their message, with the names and the numbers in it left out.
+     */
+    Map<String, Long> getRuntimeErrorsByKind();
+}
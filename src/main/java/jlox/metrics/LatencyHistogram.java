@@ -0,0 +1,131 @@
+package jlox.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies in a fixed amount of memory, with the layout of an HDR histogram: the values below
+ * {@link #SUB_BUCKETS} have a bucket each, and every higher power of two is split into {@link #SUB_BUCKETS} buckets of equal
+ * width. So a bucket is never wider than 1/32 of its values, and the whole range up to {@link #MAX_VALUE} takes 1280 counters.
+ *
+ * Recording is lock-free: three adders. Every bucket is a LongAdder too, because the latencies cluster in a few buckets and a
+ * shared counter there would be contended by every thread that records. An adder only grows its cells once it is contended, so
+ * the idle buckets stay small. Reading is not atomic with recording, so a snapshot taken under load can be off by the values
+ * recorded while it was read.
+ */
+public final class LatencyHistogram implements LatencyMXBean {
+
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The highest value that is told apart from higher ones, about 4.9 hours in nanoseconds. Higher values count as this one.
+     */
+    public static final long MAX_VALUE = (1L << 44) - 1;
+
+    private static final int BUCKETS = SUB_BUCKETS + (44 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) counts[i] = new LongAdder();
+    }
+
+    /**
+     * @param nanos The latency. Negative values count as 0.
+     */
+    public void record(long nanos) {
+        final long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts[indexOf(value)].increment();
+        count.increment();
+        sum.add(value);
+        // Only written when it grows, so it is rarely contended.
+        for (long m = max.get(); value > m; m = max.get()) {
+            if (max.compareAndSet(m, value)) break;
+        }
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int)value;
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int)((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * @return The highest value that falls into the bucket.
+     */
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKETS) return index;
+        final int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        final long sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getMeanNanos() {
+        final long n = count.sum();
+        return n == 0 ? 0.0 : (double)sum.sum() / n;
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    @Override
+    public long getP50Nanos() {
+        return getPercentileNanos(50);
+    }
+
+    @Override
+    public long getP90Nanos() {
+        return getPercentileNanos(90);
+    }
+
+    @Override
+    public long getP99Nanos() {
+        return getPercentileNanos(99);
+    }
+
+    @Override
+    public long getP999Nanos() {
+        return getPercentileNanos(99.9);
+    }
+
+    /**
+     * @return The highest value of the bucket that holds the percentile, but not more than the maximum; 0 if nothing was recorded.
+     */
+    @Override
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100.");
+        }
+        // One snapshot of the buckets, so the rank and the search agree.
+        final long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += snapshot[i] = counts[i].sum();
+        if (total == 0) return 0;
+
+        final long rank = Math.max(1, (long)Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) return Math.min(highestValueOf(i), max.get());
+        }
+        return max.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d, mean %.0f ns, p50 %d ns, p99 %d ns, max %d ns", getCount(), getMeanNanos(), getP50Nanos(), getP99Nanos(), getMaxNanos());
+    }
+}
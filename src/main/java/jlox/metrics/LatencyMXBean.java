@@ -0,0 +1,26 @@
+package jlox.metrics;
+
+/**
+ * The latencies of one phase, in nanoseconds. The percentiles are accurate to about 3%.
+ */
+public interface LatencyMXBean {
+
+    long getCount();
+
+    double getMeanNanos();
+
+    long getMaxNanos();
+
+    long getP50Nanos();
+
+    long getP90Nanos();
+
+    long getP99Nanos();
+
+    long getP999Nanos();
+
+    /**
+     * @param percentile Between 0 and 100.
+     */
+    long getPercentileNanos(double percentile);
+}
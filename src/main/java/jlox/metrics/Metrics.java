@@ -0,0 +1,285 @@
+package jlox.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import jlox.errors.ParseError;
+import jlox.errors.RuntimeError;
+
+/**
+ * The counters and the latencies of the scanner, the parser and the interpreter, exposed as MXBeans on the platform MBean server:
+ * jlox:type=Engine for the counters, jlox:type=Latency,phase=scan|parse|evaluate for the latencies and
+ * jlox:type=Cache,name=... for the caches that were registered.
+ *
+ * Nothing is recorded until the metrics are installed - with -Djlox.metrics=true on the command line, or with {@link #install()}.
+ * Until then the scanner, the parser and the interpreter only read a field to find out. Recording is lock-free: adders, and a
+ * {@link LatencyHistogram} per phase, so concurrent evaluations do not wait for each other.
+ */
+public final class Metrics implements EngineMXBean {
+
+    public static final String DOMAIN = "jlox";
+
+    /**
+     * The number of error kinds that are told apart. Further kinds are counted as {@link #OTHER_KIND}, so the memory stays fixed.
+     */
+    public static final int MAX_KINDS = 64;
+    public static final String OTHER_KIND = "other";
+
+    private static volatile Metrics installed;
+
+    private final LongAdder scans = new LongAdder();
+    private final LongAdder tokens = new LongAdder();
+    private final LongAdder scanErrors = new LongAdder();
+    private final LongAdder parses = new LongAdder();
+    private final LongAdder parseErrors = new LongAdder();
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder runtimeErrors = new LongAdder();
+    private final Map<String, LongAdder> parseErrorKinds = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> runtimeErrorKinds = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram scanLatency = new LatencyHistogram();
+    private final LatencyHistogram parseLatency = new LatencyHistogram();
+    private final LatencyHistogram evaluateLatency = new LatencyHistogram();
+    private final Map<String, ObjectName> caches = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * @return The installed metrics, or null if nothing should be recorded.
+     */
+    public static Metrics installed() {
+        return installed;
+    }
+
+    /**
+     * Starts recording and registers the MXBeans. Installing twice returns the metrics that are already installed.
+     */
+    public static synchronized Metrics install() {
+        if (installed == null) {
+            final Metrics metrics = new Metrics();
+            metrics.register(name("type=Engine"), metrics);
+            metrics.register(name("type=Latency,phase=scan"), metrics.scanLatency);
+            metrics.register(name("type=Latency,phase=parse"), metrics.parseLatency);
+            metrics.register(name("type=Latency,phase=evaluate"), metrics.evaluateLatency);
+            installed = metrics;
+        }
+        return installed;
+    }
+
+    /**
+     * Stops recording and unregisters all MXBeans, including those of the caches.
+     */
+    public static synchronized void uninstall() {
+        final Metrics metrics = installed;
+        if (metrics == null) return;
+        installed = null;
+        metrics.unregister(name("type=Engine"));
+        metrics.unregister(name("type=Latency,phase=scan"));
+        metrics.unregister(name("type=Latency,phase=parse"));
+        metrics.unregister(name("type=Latency,phase=evaluate"));
+        for (ObjectName cache : metrics.caches.values()) metrics.unregister(cache);
+        metrics.caches.clear();
+    }
+
+    /**
+     * Exposes the hit rate of a cache as jlox:type=Cache,name=..., until it is unregistered or the metrics are uninstalled.
+     * The counters are read only when they are asked for.
+     */
+    public void registerCache(String name, LongSupplier hits, LongSupplier misses) {
+        final ObjectName objectName = name("type=Cache,name=" + ObjectName.quote(name));
+        if (caches.putIfAbsent(name, objectName) != null) {
+            throw new IllegalArgumentException("A cache named '" + name + "' is already registered.");
+        }
+        register(objectName, new CacheStatistics(hits, misses));
+    }
+
+    /**
+     * Exposes the hit rate of a cache, such as a ResultCache, like {@link #registerCache(String, LongSupplier, LongSupplier)}.
+     * Register a cache once, however many interpreters share it, and unregister it when it is dropped: the metrics keep it alive.
+     */
+    public void registerCache(String name, CacheMXBean cache) {
+        registerCache(name, cache::getHits, cache::getMisses);
+    }
+
+    public void unregisterCache(String name) {
+        final ObjectName objectName = caches.remove(name);
+        if (objectName != null) unregister(objectName);
+    }
+
+    public void recordScan(long nanos, int tokenCount, int errors) {
+        scans.increment();
+        tokens.add(tokenCount);
+        scanErrors.add(errors);
+        scanLatency.record(nanos);
+    }
+
+    /**
+     * @param error The error of the expression, or null.
+     */
+    public void recordParse(long nanos, ParseError error) {
+        parses.increment();
+        if (error != null) count(parseErrors, parseErrorKinds, error.getMessage());
+        parseLatency.record(nanos);
+    }
+
+    /**
+     * @param errors The errors of all statements of a script.
+     */
+    public void recordParse(long nanos, List<ParseError> errors) {
+        parses.increment();
+        for (ParseError error : errors) count(parseErrors, parseErrorKinds, error.getMessage());
+        parseLatency.record(nanos);
+    }
+
+    /**
+     * @param failure What the evaluation threw, or null. Errors other than RuntimeError, like a stack overflow, are counted by their class.
+     */
+    public void recordEvaluation(long nanos, Throwable failure) {
+        evaluations.increment();
+        if (failure != null) {
+            count(runtimeErrors, runtimeErrorKinds, failure instanceof RuntimeError ? failure.getMessage() : failure.getClass().getSimpleName());
+        }
+        evaluateLatency.record(nanos);
+    }
+
+    private static void count(LongAdder total, Map<String, LongAdder> kinds, String message) {
+        total.increment();
+        final String kind = kindOf(message);
+        LongAdder adder = kinds.get(kind);
+        if (adder == null) {
+            adder = kinds.size() < MAX_KINDS ? kinds.computeIfAbsent(kind, k -> new LongAdder()) : kinds.computeIfAbsent(OTHER_KIND, k -> new LongAdder());
+        }
+        adder.increment();
+    }
+
+    /**
+     * @return The message with the quoted parts and the numbers replaced by '_', so "Undefined variable 'a'." and
+     * "Undefined variable 'b'." are the same kind.
+     */
+    static String kindOf(String message) {
+        if (message == null) return OTHER_KIND;
+        final StringBuilder sb = new StringBuilder(message.length());
+        for (int i = 0; i < message.length(); i++) {
+            final char c = message.charAt(i);
+            final int close = c == '\'' ? message.indexOf('\'', i + 1) : -1;
+            if (close > 0) {
+                sb.append("'_'");
+                i = close;
+            } else if (Character.isDigit(c)) {
+                sb.append('_');
+                while (isNumberPart(message, i + 1)) i++;
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return true for a digit, or for a '.' that is followed by a digit.
+     */
+    private static boolean isNumberPart(String message, int i) {
+        if (i >= message.length()) return false;
+        if (Character.isDigit(message.charAt(i))) return true;
+        return message.charAt(i) == '.' && i + 1 < message.length() && Character.isDigit(message.charAt(i + 1));
+    }
+
+    @Override
+    public long getScans() {
+        return scans.sum();
+    }
+
+    @Override
+    public long getTokensScanned() {
+        return tokens.sum();
+    }
+
+    @Override
+    public long getScanErrors() {
+        return scanErrors.sum();
+    }
+
+    @Override
+    public long getParses() {
+        return parses.sum();
+    }
+
+    @Override
+    public long getParseErrors() {
+        return parseErrors.sum();
+    }
+
+    @Override
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    @Override
+    public long getRuntimeErrors() {
+        return runtimeErrors.sum();
+    }
+
+    @Override
+    public Map<String, Long> getParseErrorsByKind() {
+        return snapshot(parseErrorKinds);
+    }
+
+    @Override
+    public Map<String, Long> getRuntimeErrorsByKind() {
+        return snapshot(runtimeErrorKinds);
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> kinds) {
+        final Map<String, Long> res = new TreeMap<>();
+        kinds.forEach((kind, adder) -> res.put(kind, adder.sum()));
+        return res;
+    }
+
+    public LatencyHistogram getScanLatency() {
+        return scanLatency;
+    }
+
+    public LatencyHistogram getParseLatency() {
+        return parseLatency;
+    }
+
+    public LatencyHistogram getEvaluateLatency() {
+        return evaluateLatency;
+    }
+
+    private static ObjectName name(String properties) {
+        try {
+            return new ObjectName(DOMAIN + ":" + properties);
+        } catch (JMException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private void register(ObjectName name, Object bean) {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+            server.registerMBean(bean, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register " + name, e);
+        }
+    }
+
+    private void unregister(ObjectName name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException e) {
+            // Already unregistered by someone else.
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package jlox.optimizer;
+
+import jlox.analysis.StaticType;
+import jlox.analysis.TypeInfo;
+import jlox.parser.Expr;
+import jlox.scanner.Token;
+import jlox.scanner.TokenType;
+
+/**
+ * Moves a literal operand of a comparison to the right: 1 < x -> x > 1, nil == x -> x == nil. Equal formulas then have equal trees,
+ * which helps the result cache.
+ *
+ * Swapping the operands changes the order of evaluation, which is only invisible when one of them is a literal - a literal cannot
+ * fail, so the other operand fails the same way in any order. An ordering comparison additionally needs both operands proven to be
+ * numbers, because its own operand checks run left to right.
+ */
+public final class CanonicalizeComparisons implements Pass {
+
+    @Override
+    public String getName() {
+        return "canonicalize-comparisons";
+    }
+
+    @Override
+    public Expr rewrite(Expr node, TypeInfo types) {
+        if (!(node instanceof Expr.Binary b) || !(b.left instanceof Expr.Literal) || b.right instanceof Expr.Literal) return node;
+
+        final TokenType type = b.operator.type;
+        final TokenType mirrored = switch (type) {
+            case TokenType.EQUAL_EQUAL, TokenType.BANG_EQUAL -> type;
+            case TokenType.LESS -> TokenType.GREATER;
+            case TokenType.LESS_EQUAL -> TokenType.GREATER_EQUAL;
+            case TokenType.GREATER -> TokenType.LESS;
+            case TokenType.GREATER_EQUAL -> TokenType.LESS_EQUAL;
+            default -> null;
+        };
+        if (mirrored == null) return node;
+
+        if (mirrored != type && (types.typeOf(b.left) != StaticType.NUMBER || types.typeOf(b.right) != StaticType.NUMBER)) {
+            return node;
+        }
+
+        final Token operator = mirrored == type ? b.operator : new Token(mirrored, lexeme(mirrored), null, b.operator.line);
+        return new Expr.Binary(b.right, operator, b.left);
+    }
+
+    private static String lexeme(TokenType type) {
+        return switch (type) {
+            case TokenType.LESS -> "<";
+            case TokenType.LESS_EQUAL -> "<=";
+            case TokenType.GREATER -> ">";
+            case TokenType.GREATER_EQUAL -> ">=";
+            default -> throw new IllegalArgumentException("Not a comparison: " + type);
+        };
+    }
+}
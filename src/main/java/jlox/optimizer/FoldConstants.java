@@ -0,0 +1,85 @@
+package jlox.optimizer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jlox.analysis.TypeInfo;
+import jlox.errors.RuntimeError;
+import jlox.interpreter.Interpreter;
+import jlox.parser.Expr;
+import jlox.scanner.TokenType;
+
+/**
+ * Replaces operators on literals with the literal of their value. Operators that fail are kept, so the error still happens at runtime,
+ * on its own token.
+ * A logical operator only needs a literal on the left: it either decides the result, or the result is the right operand.
+ *
+ * A chain of '+' on string literals is folded as a whole, into one buffer. Folded node by node, every step would copy the growing
+ * prefix into a new literal, which is quadratic in the length of the chain.
+ */
+public final class FoldConstants implements Pass {
+
+    private final Interpreter interpreter = new Interpreter();
+
+    @Override
+    public String getName() {
+        return "fold-constants";
+    }
+
+    @Override
+    public Expr rewriteChain(Expr node, TypeInfo types) {
+        // The '+' nodes of the chain, from the top down to the operand on the far left.
+        final List<Expr.Binary> chain = new ArrayList<>();
+        Expr e = node;
+        while (e instanceof Expr.Binary b && b.operator.type == TokenType.PLUS) {
+            chain.add(b);
+            e = b.left;
+        }
+        if (!isString(e)) return node;
+
+        // The string literals at the bottom of the chain. What is above them is left to the rewrite of the single nodes.
+        int above = chain.size();
+        while (above > 0 && isString(chain.get(above - 1).right)) above--;
+        if (chain.size() - above < 2) return node;
+
+        final StringBuilder value = new StringBuilder((String)((Expr.Literal)e).value);
+        for (int i = chain.size() - 1; i >= above; i--) {
+            value.append((String)((Expr.Literal)chain.get(i).right).value);
+        }
+        Expr result = new Expr.Literal(value.toString());
+        for (int i = above - 1; i >= 0; i--) {
+            result = new Expr.Binary(result, chain.get(i).operator, chain.get(i).right);
+        }
+        return result;
+    }
+
+    @Override
+    public Expr rewrite(Expr node, TypeInfo types) {
+        if (node instanceof Expr.Logical l && l.left instanceof Expr.Literal left) {
+            final boolean truthy = left.value != null && !Boolean.FALSE.equals(left.value);
+            return (l.operator.type == TokenType.OR) == truthy ? left : l.right;
+        }
+
+        final boolean constant = switch (node) {
+            case Expr.Binary b -> isLiteral(b.left) && isLiteral(b.right);
+            case Expr.Unary u -> isLiteral(u.right);
+            case Expr.Grouping g -> isLiteral(g.expression);
+            default -> false;
+        };
+        if (!constant) return node;
+
+        try {
+            return new Expr.Literal(interpreter.fold(node));
+        } catch (RuntimeError err) {
+            return node;
+        }
+    }
+
+    private static boolean isLiteral(Expr e) {
+        return e instanceof Expr.Literal;
+    }
+
+    private static boolean isString(Expr e) {
+        return e instanceof Expr.Literal l && l.value instanceof String;
+    }
+}
@@ -0,0 +1,29 @@
+package jlox.optimizer;
+
+import java.util.List;
+
+import jlox.parser.Expr;
+
+/**
+ * The result of the {@link PassManager}: the rewritten tree and what every enabled pass did to it.
+ */
+public final class OptimizedExpr {
+    private final Expr expr;
+    private final List<PassStatistics> statistics;
+
+    OptimizedExpr(Expr expr, List<PassStatistics> statistics) {
+        this.expr = expr;
+        this.statistics = List.copyOf(statistics);
+    }
+
+    public Expr getExpr() {
+        return expr;
+    }
+
+    /**
+     * @return The statistics of the enabled passes, in the order they ran.
+     */
+    public List<PassStatistics> getStatistics() {
+        return statistics;
+    }
+}
@@ -0,0 +1,33 @@
+package jlox.optimizer;
+
+import jlox.analysis.TypeInfo;
+import jlox.parser.Expr;
+
+/**
+ * A rewrite rule of the {@link PassManager}. A pass must preserve the semantics exactly: the rewritten expression evaluates to the same
+ * value, or fails with the same error - the same message on the same token - for every binding of the variables.
+ */
+public interface Pass {
+
+    /**
+     * The name that the pass is toggled and reported by.
+     */
+    String getName();
+
+    /**
+     * Rewrites a single node. The pass manager walks the tree bottom-up, so the operands are already rewritten.
+     * @param types The types of the tree that the pass started with. Nodes created during the pass are UNKNOWN, except literals.
+     * @return The replacement, or the node itself if the rule does not apply.
+     */
+    Expr rewrite(Expr node, TypeInfo types);
+
+    /**
+     * Rewrites a chain of binary operators as a whole, before anything in it is rewritten, for rules that would cost more node by node.
+     * It is called top-down on every node that is not the left operand of a binary operator, so on the top of every left-leaning
+     * chain once. The replacement is then rewritten bottom-up like any other tree.
+     * @return The replacement, or the node itself if the rule does not apply.
+     */
+    default Expr rewriteChain(Expr node, TypeInfo types) {
+        return node;
+    }
+}
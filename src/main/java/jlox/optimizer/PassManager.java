@@ -0,0 +1,124 @@
+package jlox.optimizer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import jlox.analysis.TypeChecker;
+import jlox.analysis.TypeInfo;
+import jlox.parser.Expr;
+
+/**
+ * Runs rewrite passes over a tree, one after another, and reports how many nodes each of them eliminated.
+ * Every pass can be disabled by its name. The types are inferred again before every pass, without any assumptions about the
+ * variables, so the rules that depend on types are sound for any bindings.
+ *
+ * Some rewrites that look algebraic are deliberately missing, because they change the value of some expression:
+ * 'x + 0' is not x when x is -0.0, and reassociating 'x + 1 + 2' into 'x + 3' rounds differently for large x.
+ */
+public final class PassManager {
+
+    private final List<Pass> passes;
+    private final Set<String> disabled = new HashSet<>();
+
+    public PassManager(List<Pass> passes) {
+        this.passes = List.copyOf(passes);
+    }
+
+    /**
+     * @return A pass manager with all the passes of this package, in an order where every pass benefits from the previous ones.
+     */
+    public static PassManager standard() {
+        return new PassManager(List.of(
+            new RemoveGroupings(),
+            new FoldConstants(),
+            new RemoveDoubleNegations(),
+            new RemoveIdentityOperations(),
+            new CanonicalizeComparisons()
+        ));
+    }
+
+    public PassManager setEnabled(String name, boolean enabled) {
+        if (passes.stream().noneMatch(p -> p.getName().equals(name))) {
+            throw new IllegalArgumentException("Unknown pass: " + name);
+        }
+        if (enabled) {
+            disabled.remove(name);
+        } else {
+            disabled.add(name);
+        }
+        return this;
+    }
+
+    public boolean isEnabled(String name) {
+        return !disabled.contains(name);
+    }
+
+    public OptimizedExpr run(Expr expr) {
+        final List<PassStatistics> statistics = new ArrayList<>();
+        for (Pass pass : passes) {
+            if (!isEnabled(pass.getName())) continue;
+
+            final int before = count(expr);
+            final Rewriter rewriter = new Rewriter(pass, new TypeChecker().check(expr));
+            expr = rewriter.rewrite(expr);
+            statistics.add(new PassStatistics(pass.getName(), before, count(expr), rewriter.rewrites));
+        }
+        return new OptimizedExpr(expr, statistics);
+    }
+
+    /**
+     * Applies a pass bottom-up and rebuilds only the nodes whose operands changed. Chains are offered to the pass first, top-down.
+     */
+    private static final class Rewriter {
+        private final Pass pass;
+        private final TypeInfo types;
+        private int rewrites;
+
+        Rewriter(Pass pass, TypeInfo types) {
+            this.pass = pass;
+            this.types = types;
+        }
+
+        Expr rewrite(Expr e) {
+            final Expr chain = pass.rewriteChain(e, types);
+            if (chain != e) rewrites++;
+            return rewriteNode(chain);
+        }
+
+        /**
+         * Rewrites a node without offering it as a chain: it was offered already, or it is part of the chain above it.
+         */
+        private Expr rewriteNode(Expr e) {
+            Expr node = e;
+            if (e instanceof Expr.Binary b) {
+                final Expr left = rewriteNode(b.left);
+                final Expr right = rewrite(b.right);
+                if (left != b.left || right != b.right) node = new Expr.Binary(left, b.operator, right);
+            } else if (e instanceof Expr.Logical l) {
+                final Expr left = rewrite(l.left);
+                final Expr right = rewrite(l.right);
+                if (left != l.left || right != l.right) node = new Expr.Logical(left, l.operator, right);
+            } else if (e instanceof Expr.Unary u) {
+                final Expr right = rewrite(u.right);
+                if (right != u.right) node = new Expr.Unary(u.operator, right);
+            } else if (e instanceof Expr.Grouping g) {
+                final Expr inner = rewrite(g.expression);
+                if (inner != g.expression) node = new Expr.Grouping(inner);
+            }
+
+            final Expr rewritten = pass.rewrite(node, types);
+            if (rewritten != node) rewrites++;
+            return rewritten;
+        }
+    }
+
+    static int count(Expr e) {
+        if (e instanceof Expr.Binary b) return 1 + count(b.left) + count(b.right);
+        if (e instanceof Expr.Logical l) return 1 + count(l.left) + count(l.right);
+        if (e instanceof Expr.Unary u) return 1 + count(u.right);
+        if (e instanceof Expr.Grouping g) return 1 + count(g.expression);
+        return 1;
+    }
+}
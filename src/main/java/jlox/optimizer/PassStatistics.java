@@ -0,0 +1,46 @@
+package jlox.optimizer;
+
+/**
+ * What a single pass did to a tree.
+ */
+public final class PassStatistics {
+    private final String name;
+    private final int nodesBefore;
+    private final int nodesAfter;
+    private final int rewrites;
+
+    PassStatistics(String name, int nodesBefore, int nodesAfter, int rewrites) {
+        this.name = name;
+        this.nodesBefore = nodesBefore;
+        this.nodesAfter = nodesAfter;
+        this.rewrites = rewrites;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getNodesBefore() {
+        return nodesBefore;
+    }
+
+    public int getNodesAfter() {
+        return nodesAfter;
+    }
+
+    public int getNodesEliminated() {
+        return nodesBefore - nodesAfter;
+    }
+
+    /**
+     * @return How many nodes the pass replaced. A rewrite does not always eliminate nodes, for example a canonicalized comparison.
+     */
+    public int getRewrites() {
+        return rewrites;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d -> %d nodes, %d rewrites", name, nodesBefore, nodesAfter, rewrites);
+    }
+}
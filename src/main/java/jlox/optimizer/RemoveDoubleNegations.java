@@ -0,0 +1,38 @@
+package jlox.optimizer;
+
+import jlox.analysis.StaticType;
+import jlox.analysis.TypeInfo;
+import jlox.parser.Expr;
+import jlox.scanner.TokenType;
+
+/**
+ * --x -> x and +x -> x when x is proven to be a number, !!b -> b when b is proven to be a boolean.
+ * Without the proof the operators are not removable: they fail on other types, and !!nil is false, not nil.
+ */
+public final class RemoveDoubleNegations implements Pass {
+
+    @Override
+    public String getName() {
+        return "remove-double-negations";
+    }
+
+    @Override
+    public Expr rewrite(Expr node, TypeInfo types) {
+        if (!(node instanceof Expr.Unary outer)) return node;
+
+        if (outer.operator.type == TokenType.PLUS && types.typeOf(outer.right) == StaticType.NUMBER) {
+            return outer.right;
+        }
+        if (outer.right instanceof Expr.Unary inner && inner.operator.type == outer.operator.type) {
+            final StaticType required = switch (outer.operator.type) {
+                case TokenType.MINUS -> StaticType.NUMBER;
+                case TokenType.BANG -> StaticType.BOOL;
+                default -> null;
+            };
+            if (required != null && types.typeOf(inner.right) == required) {
+                return inner.right;
+            }
+        }
+        return node;
+    }
+}
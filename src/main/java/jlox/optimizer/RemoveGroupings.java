@@ -0,0 +1,20 @@
+package jlox.optimizer;
+
+import jlox.analysis.TypeInfo;
+import jlox.parser.Expr;
+
+/**
+ * (x) -> x. The tree already encodes the precedence, so a grouping only passes the value of its expression through.
+ */
+public final class RemoveGroupings implements Pass {
+
+    @Override
+    public String getName() {
+        return "remove-groupings";
+    }
+
+    @Override
+    public Expr rewrite(Expr node, TypeInfo types) {
+        return node instanceof Expr.Grouping g ? g.expression : node;
+    }
+}
@@ -0,0 +1,50 @@
+package jlox.optimizer;
+
+import jlox.analysis.StaticType;
+import jlox.analysis.TypeInfo;
+import jlox.parser.Expr;
+import jlox.scanner.TokenType;
+
+/**
+ * x * 1 -> x, 1 * x -> x, x / 1 -> x and x - 0 -> x when x is proven to be a number, so the operator could not have failed.
+ * These hold for every double, including -0.0, infinities and NaN. x + 0 does not: -0.0 + 0 is 0.0.
+ */
+public final class RemoveIdentityOperations implements Pass {
+
+    @Override
+    public String getName() {
+        return "remove-identity-operations";
+    }
+
+    @Override
+    public Expr rewrite(Expr node, TypeInfo types) {
+        if (!(node instanceof Expr.Binary b)) return node;
+
+        switch (b.operator.type) {
+            case TokenType.STAR:
+                if (isNumber(b.left, types) && isLiteral(b.right, 1.0)) return b.left;
+                if (isLiteral(b.left, 1.0) && isNumber(b.right, types)) return b.right;
+                break;
+            case TokenType.SLASH:
+                if (isNumber(b.left, types) && isLiteral(b.right, 1.0)) return b.left;
+                break;
+            case TokenType.MINUS:
+                if (isNumber(b.left, types) && isLiteral(b.right, 0.0)) return b.left;
+                break;
+            default:
+                break;
+        }
+        return node;
+    }
+
+    private static boolean isNumber(Expr e, TypeInfo types) {
+        return types.typeOf(e) == StaticType.NUMBER;
+    }
+
+    /**
+     * Compares like Double.equals, so the literal 0 is not -0.0.
+     */
+    private static boolean isLiteral(Expr e, double value) {
+        return e instanceof Expr.Literal l && Double.valueOf(value).equals(l.value);
+    }
+}
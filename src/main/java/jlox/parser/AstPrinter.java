@@ -48,18 +48,35 @@ package jlox.parser;
  */
 public final class AstPrinter implements Expr.Visitor<String> {
 
+    /**
+     * The parentheses of a tree parsed without Grouping nodes. They are printed as the groupings they stand for.
+     */
+    private final Parentheses parentheses;
+
+    public AstPrinter() {
+        this(new Parentheses());
+    }
+
+    public AstPrinter(Parentheses parentheses) {
+        this.parentheses = parentheses;
+    }
+
     public String print(Expr expr) {
-        return expr.accept(this);
+        String str = expr.accept(this);
+        for (int i = parentheses.depth(expr); i > 0; i--) {
+            str = "(group " + str + ")";
+        }
+        return str;
     }
 
     @Override
     public String visitLiteralExpr(Expr.Literal expr) {
-        return expr.value.toString();
+        return expr.value == null ? "nil" : expr.value.toString();
     }
 
     @Override
     public String visitGroupingExpr(Expr.Grouping expr) {
-        return parenthesize("group", expr);
+        return parenthesize("group", expr.expression);
     }
 
     @Override
@@ -67,17 +84,27 @@ public final class AstPrinter implements Expr.Visitor<String> {
         return parenthesize(expr.operator.lexeme, expr.left, expr.right);
     }
 
+    @Override
+    public String visitLogicalExpr(Expr.Logical expr) {
+        return parenthesize(expr.operator.lexeme, expr.left, expr.right);
+    }
+
     @Override
     public String visitUnaryExpr(Expr.Unary expr) {
         return parenthesize(expr.operator.lexeme, expr.right);
     }
 
+    @Override
+    public String visitVariableExpr(Expr.Variable expr) {
+        return expr.name.lexeme;
+    }
+
     private String parenthesize(String name, Expr... exprs) {
         StringBuilder strBuilder = new StringBuilder();
         strBuilder.append('(').append(name);
 
         for (Expr e : exprs) {
-            strBuilder.append(' ').append(e.accept(this));;
+            strBuilder.append(' ').append(print(e));
         }
         strBuilder.append(')');
 
@@ -6,11 +6,22 @@ import jlox.scanner.Token;
 public abstract class Expr {
   public abstract <R> R accept(Visitor<R> visitor);
 public interface Visitor<R> {
+	R visitVariableExpr(Variable expr);
 	R visitLiteralExpr(Literal expr);
+	R visitLogicalExpr(Logical expr);
 	R visitGroupingExpr(Grouping expr);
 	R visitBinaryExpr(Binary expr);
 	R visitUnaryExpr(Unary expr);
 }
+public static class Variable extends Expr {
+	public Variable(Token name) {
+		this.name = name;
+	}
+
+	@Override	public <R> R accept(Visitor<R> visitor) {	return visitor.visitVariableExpr(this);	}
+	public final Token name;
+}
+
 public static class Literal extends Expr {
 	public Literal(Object value) {
 		this.value = value;
@@ -20,6 +31,19 @@ public static class Literal extends Expr {
 	public final Object value;
 }
 
+public static class Logical extends Expr {
+	public Logical(Expr left, Token operator, Expr right) {
+		this.left = left;
+		this.operator = operator;
+		this.right = right;
+	}
+
+	@Override	public <R> R accept(Visitor<R> visitor) {	return visitor.visitLogicalExpr(this);	}
+	public final Expr left;
+	public final Token operator;
+	public final Expr right;
+}
+
 public static class Grouping extends Expr {
 	public Grouping(Expr expression) {
 		this.expression = expression;
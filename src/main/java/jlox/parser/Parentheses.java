@@ -0,0 +1,64 @@
+package jlox.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jlox.scanner.Token;
+
+/**
+ * The parentheses of the source code, recorded by a {@link Parser} that does not build Grouping nodes.
+ * The tree already encodes the precedence, so the parentheses are only needed to show the source as it was written - for example by
+ * the {@link AstPrinter}.
+ */
+public final class Parentheses {
+
+    /**
+     * A pair of parentheses, from the opening to the closing token.
+     */
+    public static final class Span {
+        private final Token open;
+        private final Token close;
+
+        Span(Token open, Token close) {
+            this.open = open;
+            this.close = close;
+        }
+
+        public Token getOpen() {
+            return open;
+        }
+
+        public Token getClose() {
+            return close;
+        }
+    }
+
+    private final Map<Expr, List<Span>> spans = new IdentityHashMap<>();
+
+    void add(Expr expr, Token open, Token close) {
+        spans.computeIfAbsent(expr, e -> new ArrayList<>(1)).add(new Span(open, close));
+    }
+
+    /**
+     * @return The parentheses around the node, from the innermost to the outermost.
+     */
+    public List<Span> around(Expr expr) {
+        final List<Span> list = spans.get(expr);
+        return list == null ? Collections.emptyList() : Collections.unmodifiableList(list);
+    }
+
+    /**
+     * @return How many parentheses are around the node.
+     */
+    public int depth(Expr expr) {
+        final List<Span> list = spans.get(expr);
+        return list == null ? 0 : list.size();
+    }
+
+    public boolean isEmpty() {
+        return spans.isEmpty();
+    }
+}
@@ -1,12 +1,14 @@
 package jlox.parser;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Supplier;
 
 import jlox.errors.ParseError;
 import jlox.errors.UnexpectedTokenError;
 import jlox.errors.Error;
+import jlox.events.ParseEvent;
+import jlox.metrics.Metrics;
 import jlox.scanner.Token;
 import jlox.scanner.TokenType;
 
@@ -29,8 +31,29 @@ public class Parser {
     
     private Error<ParseError> error;
 
+    /**
+     * The errors of all statements of the last parsed script.
+     */
+    private List<ParseError> scriptErrors = List.of();
+
+    /**
+     * Whether parenthesized expressions are wrapped in Grouping nodes, or only recorded in {@link #parentheses}.
+     */
+    private final boolean groupingNodes;
+
+    private Parentheses parentheses = new Parentheses();
+
     public Parser(List<Token> tokens) {
+        this(tokens, true);
+    }
+
+    /**
+     * @param groupingNodes When false, the tree has no Grouping nodes - they only pass the value through - and the parentheses
+     * are recorded as metadata, see {@link #getParentheses()}.
+     */
+    public Parser(List<Token> tokens, boolean groupingNodes) {
         this.tokens = tokens;
+        this.groupingNodes = groupingNodes;
         currentIdx = 0;
         error = Error.None();
     }
@@ -40,6 +63,11 @@ public class Parser {
      * @return The Expr tree.
      */
     public Expr parse() {
+        final ParseEvent event = new ParseEvent();
+        final Metrics metrics = Metrics.installed();
+        final long start = metrics == null ? 0 : System.nanoTime();
+        event.begin();
+        parentheses = new Parentheses();
         try {
             final Expr e = expression();
 
@@ -48,17 +76,80 @@ public class Parser {
                 throw new UnexpectedTokenError(current());
             }
             error = Error.None();
+            event.finish(tokens.size(), e);
+            if (metrics != null) metrics.recordParse(System.nanoTime() - start, (ParseError)null);
             return e;
         } catch (ParseError e) {
             error = new Error<ParseError>(e);
+            event.finish(tokens.size(), null);
+            if (metrics != null) metrics.recordParse(System.nanoTime() - start, e);
             return null;
         }
     }
 
+    /**
+     * The entrypoint for scripts: expressions separated by ';'. The separator after the last expression is optional and empty
+     * statements are skipped. A statement with a syntax error is left out and the parser continues after the next ';', so
+     * one run reports the errors of all statements, see {@link #getScriptErrors()}. {@link #getError()} holds the first of them.
+     * @return The trees of the statements without errors, in source order.
+     */
+    public List<Expr> parseScript() {
+        final ParseEvent event = new ParseEvent();
+        final Metrics metrics = Metrics.installed();
+        final long start = metrics == null ? 0 : System.nanoTime();
+        event.begin();
+        parentheses = new Parentheses();
+        final List<Expr> statements = new ArrayList<>();
+        final List<ParseError> errors = new ArrayList<>();
+
+        while (more()) {
+            if (matchTokensAdvance(TokenType.SEMICOLON)) continue;
+            try {
+                final Expr e = expression();
+                if (more() && current().type != TokenType.SEMICOLON) {
+                    throw new UnexpectedTokenError(current(), "Expected ';' after expression.");
+                }
+                statements.add(e);
+            } catch (ParseError e) {
+                errors.add(e);
+                synchronize();
+            }
+        }
+
+        scriptErrors = errors;
+        error = errors.isEmpty() ? Error.None() : new Error<ParseError>(errors.get(0));
+        event.finish(tokens.size(), statements, !errors.isEmpty());
+        if (metrics != null) metrics.recordParse(System.nanoTime() - start, errors);
+        return statements;
+    }
+
+    /**
+     * Skips the rest of a broken statement.
+     */
+    private void synchronize() {
+        while (more() && current().type != TokenType.SEMICOLON) {
+            advance();
+        }
+    }
+
+    /**
+     * @return The errors of the last {@link #parseScript()} call, in source order.
+     */
+    public List<ParseError> getScriptErrors() {
+        return scriptErrors;
+    }
+
     public Error<ParseError> getError() {
         return error; // Can I modify it fron outside?
     }
 
+    /**
+     * @return The parentheses of the last parsed tree. Empty when the parser builds Grouping nodes.
+     */
+    public Parentheses getParentheses() {
+        return parentheses;
+    }
+
     /**
      * Entrypoint of parsing our tokens into AST.
      * This method should call the highest-precedence expression.
@@ -67,7 +158,21 @@ public class Parser {
      * @return The root of the AST.
      */
     private Expr expression() {
-        return equality();
+        return or();
+    }
+
+    /**
+     * Logical or has the lowest precedence, for example, a == b or c == d. The right operand is only evaluated when the left is falsey.
+     */
+    private Expr or() {
+        return parseLogicalExpr(this::and, TokenType.OR);
+    }
+
+    /**
+     * Logical and binds tighter than or, so a or b and c is a or (b and c).
+     */
+    private Expr and() {
+        return parseLogicalExpr(this::equality, TokenType.AND);
     }
 
     /**
@@ -117,16 +222,21 @@ public class Parser {
      */
     private Expr grouping() {
         if (matchTokensAdvance(TokenType.LEFT_PAREN)) {
+            final Token open = previous();
             Expr expr = expression();
             consumeToken(TokenType.RIGHT_PAREN, "Expected closing ')' at the end of grouping expression.");
-            return new Expr.Grouping(expr);
+            if (groupingNodes) {
+                return new Expr.Grouping(expr);
+            }
+            parentheses.add(expr, open, previous());
+            return expr;
         }
         return primary();
     }
 
     /**
-     * Primary expression is an expression which value we can know immediately.
-     * @return A literal expression.
+     * Primary expression is an expression which value we can know immediately, or a reference to a parameter, which value is bound at evaluation.
+     * @return A literal or a variable expression.
      */
     private Expr primary() {
         if (matchTokensAdvance(TokenType.FALSE)) return new Expr.Literal(false);
@@ -137,6 +247,10 @@ public class Parser {
             return new Expr.Literal(previous().literal);
         }
 
+        if (matchTokensAdvance(TokenType.IDENTIFIER)) {
+            return new Expr.Variable(previous());
+        }
+
         // We could not match anything, so we throw an error.
         throw new ParseError(current(), "Expected an expression");
     }
@@ -162,6 +276,21 @@ public class Parser {
         return left;
     }
 
+    /**
+     * Like {@link #parseBinaryExpr(Supplier, TokenType...)}, but builds logical expressions, which are evaluated lazily.
+     */
+    private Expr parseLogicalExpr(Supplier<Expr> next, TokenType type) {
+        Expr left = next.get();
+
+        while (matchTokensAdvance(type)) {
+            Token op = previous();
+            Expr right = next.get();
+            left = new Expr.Logical(left, op, right);
+        }
+
+        return left;
+    }
+
     /**
      * Check if a token exists in the source code. We do this check when we expect a token, for example, closing brace,
      * after an opening one.
@@ -180,7 +309,12 @@ public class Parser {
 
     private boolean matchTokens(TokenType... types) {
         if (!more()) { return false; }
-        return Arrays.stream(types).anyMatch(type -> tokens.get(currentIdx).type == type);
+        // A plain loop: this runs for every token at every precedence level, a stream per call would dominate the parsing.
+        final TokenType current = tokens.get(currentIdx).type;
+        for (TokenType type : types) {
+            if (current == type) return true;
+        }
+        return false;
     }
 
     private boolean matchTokensAdvance(TokenType... types) {
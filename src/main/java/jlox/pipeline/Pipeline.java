@@ -0,0 +1,331 @@
+package jlox.pipeline;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import jlox.JLox;
+import jlox.errors.ErrorLogger;
+import jlox.errors.ParseError;
+import jlox.errors.RuntimeError;
+import jlox.interpreter.Interpreter;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+import jlox.scanner.Token;
+import jlox.scanner.TokenType;
+
+/**
+ * Runs a stream of statements separated by ';' with the scanner, the parser and the interpreter on separate threads.
+ * The scanner turns batches of lines into batches of tokens, the parser cuts the tokens into statements and parses them, and the
+ * evaluator - the calling thread - evaluates them and prints the results in source order. The stages are connected by bounded
+ * {@link SpscQueue}s, so a fast stage waits for a slow one instead of buffering the whole input, and the throughput is that of the
+ * slowest stage rather than the sum of all three.
+ *
+ * A batch is scanned on its own, so a string literal cannot span the boundary of two batches.
+ * Errors are reported in the order of the statements, through the same thread that prints the results. The scanner errors of a
+ * batch are reported before its first statement.
+ */
+public final class Pipeline {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Lines scanned as one batch. Fewer batches mean fewer hand-offs between the threads.
+     */
+    public static final int DEFAULT_BATCH_LINES = 64;
+
+    private final Interpreter interpreter;
+    private final int capacity;
+    private final int batchLines;
+
+    public Pipeline(Interpreter interpreter) {
+        this(interpreter, DEFAULT_CAPACITY, DEFAULT_BATCH_LINES);
+    }
+
+    /**
+     * @param interpreter Evaluates the statements, only through its thread-safe evaluate.
+     * @param capacity The capacity of each queue between two stages.
+     * @param batchLines The number of lines that the scanner stage scans at once.
+     */
+    public Pipeline(Interpreter interpreter, int capacity, int batchLines) {
+        if (capacity <= 0 || batchLines <= 0) {
+            throw new IllegalArgumentException("The capacity and the batch size must be positive.");
+        }
+        this.interpreter = interpreter;
+        this.capacity = capacity;
+        this.batchLines = batchLines;
+    }
+
+    /**
+     * The tokens of a batch of lines, without the EOF, and the errors that the scanner reported on them.
+     */
+    private static final class Batch {
+        static final Batch END = new Batch(List.of(), List.of());
+
+        final List<Token> tokens;
+        final List<String> diagnostics;
+
+        Batch(List<Token> tokens, List<String> diagnostics) {
+            this.tokens = tokens;
+            this.diagnostics = diagnostics;
+        }
+    }
+
+    /**
+     * A parsed statement or its syntax error, with the scanner errors that came before it. Either may be missing.
+     */
+    private static final class Statement {
+        static final Statement END = new Statement(null, null, List.of());
+
+        final Expr expr;
+        final ParseError error;
+        final List<String> diagnostics;
+
+        Statement(Expr expr, ParseError error, List<String> diagnostics) {
+            this.expr = expr;
+            this.error = error;
+            this.diagnostics = diagnostics;
+        }
+    }
+
+    /**
+     * The time accounting of one stage.
+     */
+    private static final class Stage {
+        final String name;
+        long items;
+        long starved;
+        long blocked;
+        long start;
+        long end;
+
+        /**
+         * The first failure of the stage, passed on to the caller.
+         */
+        volatile Throwable failure;
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        <T> T take(SpscQueue<T> queue) throws InterruptedException {
+            final T item = queue.poll();
+            if (item != null) return item;
+            final long waitStart = System.nanoTime();
+            final T waited = queue.take();
+            starved += System.nanoTime() - waitStart;
+            return waited;
+        }
+
+        <T> void put(SpscQueue<T> queue, T item) throws InterruptedException {
+            if (queue.offer(item)) return;
+            final long waitStart = System.nanoTime();
+            queue.put(item);
+            blocked += System.nanoTime() - waitStart;
+        }
+
+        StageStatistics statistics() {
+            return new StageStatistics(name, items, end - start, starved, blocked);
+        }
+    }
+
+    /**
+     * Prints the value of every statement on its own line, or reports its errors, in the order of the statements.
+     * The output is flushed before an error is reported and at the end, and the errors are flushed before a result is printed,
+     * so the two streams stay in order.
+     */
+    public PipelineReport run(Reader input, Writer out, ErrorLogger errorLogger) throws IOException {
+        final SpscQueue<Batch> batches = new SpscQueue<>(capacity);
+        final SpscQueue<Statement> statements = new SpscQueue<>(capacity);
+        final Stage scanner = new Stage("scanner");
+        final Stage parser = new Stage("parser");
+        final Stage evaluator = new Stage("evaluator");
+
+        final Thread scannerThread = start("jlox-scanner", scanner, () -> scan(input, batches, scanner));
+        final Thread parserThread = start("jlox-parser", parser, () -> parse(batches, statements, parser));
+        boolean hadError = false;
+        try {
+            hadError = evaluate(statements, out, errorLogger, evaluator);
+        } finally {
+            // Only needed when this thread failed - otherwise the other stages have already finished.
+            scannerThread.interrupt();
+            parserThread.interrupt();
+            join(scannerThread);
+            join(parserThread);
+        }
+
+        rethrow(scanner.failure);
+        rethrow(parser.failure);
+        final List<StageStatistics> stages = List.of(scanner.statistics(), parser.statistics(), evaluator.statistics());
+        return new PipelineReport(stages, evaluator.items, evaluator.end - scanner.start, hadError);
+    }
+
+    private interface Body {
+        void run() throws Exception;
+    }
+
+    private static Thread start(String name, Stage stage, Body body) {
+        final Thread thread = new Thread(() -> {
+            stage.start = System.nanoTime();
+            try {
+                body.run();
+            } catch (InterruptedException e) {
+                // Stopped because another stage failed.
+            } catch (Throwable e) {
+                stage.failure = e;
+            }
+            stage.end = System.nanoTime();
+        }, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private void scan(Reader input, SpscQueue<Batch> batches, Stage stage) throws IOException, InterruptedException {
+        final BufferedReader reader = input instanceof BufferedReader b ? b : new BufferedReader(input, 1 << 16);
+        final StringBuilder lines = new StringBuilder();
+        int firstLine = 1;
+        boolean stopped = false;
+        try {
+            for (;;) {
+                lines.setLength(0);
+                int count = 0;
+                String line;
+                while (count < batchLines && (line = reader.readLine()) != null) {
+                    lines.append(line).append('\n');
+                    count++;
+                }
+                if (count == 0) break;
+
+                final List<String> diagnostics = new ArrayList<>(0);
+                final List<Token> tokens = new Scanner(lines.toString(), firstLine, new ErrorLogger(diagnostics::add)).scanTokens();
+                tokens.remove(tokens.size() - 1);
+                stage.put(batches, new Batch(tokens, diagnostics));
+                stage.items++;
+                firstLine += count;
+            }
+        } catch (InterruptedException e) {
+            stopped = true;
+            throw e;
+        } finally {
+            // Lets the next stage finish even when reading failed.
+            end(batches, Batch.END, stopped);
+        }
+    }
+
+    private static void parse(SpscQueue<Batch> batches, SpscQueue<Statement> statements, Stage stage) throws InterruptedException {
+        final List<Token> pending = new ArrayList<>();
+        List<String> diagnostics = new ArrayList<>(0);
+        boolean stopped = false;
+        try {
+            for (Batch batch = stage.take(batches); batch != Batch.END; batch = stage.take(batches)) {
+                diagnostics.addAll(batch.diagnostics);
+                for (Token token : batch.tokens) {
+                    if (token.type != TokenType.SEMICOLON) {
+                        pending.add(token);
+                    } else if (!pending.isEmpty()) {
+                        stage.put(statements, statement(pending, diagnostics));
+                        stage.items++;
+                        diagnostics = new ArrayList<>(0);
+                    }
+                }
+            }
+            if (!pending.isEmpty() || !diagnostics.isEmpty()) {
+                stage.put(statements, pending.isEmpty() ? new Statement(null, null, diagnostics) : statement(pending, diagnostics));
+                stage.items++;
+            }
+        } catch (InterruptedException e) {
+            stopped = true;
+            throw e;
+        } finally {
+            end(statements, Statement.END, stopped);
+        }
+    }
+
+    /**
+     * Sends the end of the stream to the next stage. A stopped stage only offers it: the interrupt has already been consumed, and
+     * the next stage is stopped as well, so waiting for space in its queue could wait forever.
+     */
+    private static <T> void end(SpscQueue<T> queue, T end, boolean stopped) throws InterruptedException {
+        if (stopped) {
+            queue.offer(end);
+        } else {
+            queue.put(end);
+        }
+    }
+
+    /**
+     * Parses the pending tokens and clears them.
+     */
+    private static Statement statement(List<Token> pending, List<String> diagnostics) {
+        pending.add(new Token(TokenType.EOF, "", null, pending.get(pending.size() - 1).line));
+        final Parser parser = new Parser(pending, false);
+        final Expr expr = parser.parse();
+        pending.clear();
+        return parser.getError().notNull()
+                ? new Statement(null, parser.getError().get(), diagnostics)
+                : new Statement(expr, null, diagnostics);
+    }
+
+    private boolean evaluate(SpscQueue<Statement> statements, Writer out, ErrorLogger errorLogger, Stage stage) throws IOException {
+        stage.start = System.nanoTime();
+        boolean hadError = false;
+        try {
+            for (Statement s = stage.take(statements); s != Statement.END; s = stage.take(statements)) {
+                if (!s.diagnostics.isEmpty()) {
+                    out.flush();
+                    s.diagnostics.forEach(errorLogger::relay);
+                    hadError = true;
+                }
+                if (s.error != null) {
+                    out.flush();
+                    errorLogger.report(s.error.getToken().line, s.error.getToken().lexeme, s.error.getMessage());
+                    hadError = true;
+                } else if (s.expr != null) {
+                    try {
+                        final String res = JLox.stringify(interpreter.evaluate(s.expr));
+                        errorLogger.flush();
+                        out.write(res);
+                        out.write(System.lineSeparator());
+                    } catch (RuntimeError err) {
+                        out.flush();
+                        errorLogger.report(err.getToken().line, err.getToken().lexeme, err.getMessage());
+                        hadError = true;
+                    }
+                    stage.items++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a statement.", e);
+        }
+        out.flush();
+        stage.end = System.nanoTime();
+        return hadError;
+    }
+
+    private static void join(Thread thread) {
+        boolean interrupted = false;
+        for (;;) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private static void rethrow(Throwable failure) throws IOException {
+        if (failure == null) return;
+        if (failure instanceof IOException e) throw e;
+        if (failure instanceof RuntimeException e) throw e;
+        if (failure instanceof Error e) throw e;
+        throw new IllegalStateException(failure);
+    }
+}
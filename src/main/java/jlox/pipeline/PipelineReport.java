@@ -0,0 +1,52 @@
+package jlox.pipeline;
+
+import java.util.List;
+
+/**
+ * The outcome of a {@link Pipeline} run.
+ */
+public final class PipelineReport {
+    private final List<StageStatistics> stages;
+    private final long statements;
+    private final long wallNanos;
+    private final boolean hadError;
+
+    PipelineReport(List<StageStatistics> stages, long statements, long wallNanos, boolean hadError) {
+        this.stages = stages;
+        this.statements = statements;
+        this.wallNanos = wallNanos;
+        this.hadError = hadError;
+    }
+
+    /**
+     * @return The scanner, the parser and the evaluator, in this order.
+     */
+    public List<StageStatistics> getStages() {
+        return stages;
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * @return Whether any statement had a scanner, parser or runtime error.
+     */
+    public boolean hadError() {
+        return hadError;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d statements in %.2f milliseconds", statements, wallNanos / 1000000.0));
+        for (StageStatistics stage : stages) {
+            sb.append(System.lineSeparator()).append(stage);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,110 @@
+package jlox.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded ring buffer between exactly one producer thread and one consumer thread.
+ * It needs no locks: the producer is the only writer of the tail and the consumer the only writer of the head, so each side
+ * publishes its index with a release store and reads the other one with an acquire load.
+ *
+ * {@link #put(Object)} and {@link #take()} wait when the queue is full or empty - that is the backpressure between the stages.
+ * They spin for a short while and then park for short intervals, so a waiting stage neither burns a core nor needs to be woken up.
+ * An interrupt ends the wait, so a stage can be stopped when another one fails.
+ */
+final class SpscQueue<T> {
+
+    private static final int SPINS = 100;
+    private static final long PARK_NANOS = 20_000;
+
+    private final AtomicReferenceArray<T> buffer;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * The last seen index of the other side. It only has to be read again when the cached one says the queue is full or empty.
+     */
+    private long cachedHead;
+    private long cachedTail;
+
+    /**
+     * @param capacity Rounded up to a power of two.
+     */
+    SpscQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive.");
+        }
+        final int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new AtomicReferenceArray<>(Math.max(size, 1));
+        this.mask = buffer.length() - 1;
+    }
+
+    int capacity() {
+        return buffer.length();
+    }
+
+    /**
+     * Called by the producer only.
+     * @return false if the queue is full.
+     */
+    boolean offer(T item) {
+        final long t = tail.getPlain();
+        if (t - cachedHead == buffer.length()) {
+            cachedHead = head.getAcquire();
+            if (t - cachedHead == buffer.length()) return false;
+        }
+        buffer.setPlain((int)t & mask, item);
+        tail.setRelease(t + 1);
+        return true;
+    }
+
+    /**
+     * Called by the consumer only.
+     * @return The oldest item, or null if the queue is empty.
+     */
+    T poll() {
+        final long h = head.getPlain();
+        if (h == cachedTail) {
+            cachedTail = tail.getAcquire();
+            if (h == cachedTail) return null;
+        }
+        final int index = (int)h & mask;
+        final T item = buffer.getPlain(index);
+        buffer.setPlain(index, null);
+        head.setRelease(h + 1);
+        return item;
+    }
+
+    /**
+     * Waits until there is space for the item.
+     */
+    void put(T item) throws InterruptedException {
+        for (int i = 0; !offer(item); i++) {
+            idle(i);
+        }
+    }
+
+    /**
+     * Waits until there is an item.
+     */
+    T take() throws InterruptedException {
+        T item;
+        for (int i = 0; (item = poll()) == null; i++) {
+            idle(i);
+        }
+        return item;
+    }
+
+    private static void idle(int attempt) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (attempt < SPINS) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+}
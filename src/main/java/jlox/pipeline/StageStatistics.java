@@ -0,0 +1,71 @@
+package jlox.pipeline;
+
+/**
+ * Where the thread of one stage spent the run: working, waiting for input from the previous stage, or waiting for space in the
+ * queue to the next one. The stage with the highest utilization is the bottleneck.
+ */
+public final class StageStatistics {
+    private final String name;
+    private final long items;
+    private final long wallNanos;
+    private final long starvedNanos;
+    private final long blockedNanos;
+
+    StageStatistics(String name, long items, long wallNanos, long starvedNanos, long blockedNanos) {
+        this.name = name;
+        this.items = items;
+        this.wallNanos = wallNanos;
+        this.starvedNanos = starvedNanos;
+        this.blockedNanos = blockedNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return How many items the stage produced: token batches, statements or printed results.
+     */
+    public long getItems() {
+        return items;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * @return The time spent waiting for the previous stage.
+     */
+    public long getStarvedNanos() {
+        return starvedNanos;
+    }
+
+    /**
+     * @return The time spent waiting for the next stage - the backpressure.
+     */
+    public long getBlockedNanos() {
+        return blockedNanos;
+    }
+
+    public long getBusyNanos() {
+        return Math.max(0, wallNanos - starvedNanos - blockedNanos);
+    }
+
+    /**
+     * @return The share of the wall time the stage was working, between 0 and 1.
+     */
+    public double getUtilization() {
+        return wallNanos == 0 ? 0.0 : (double)getBusyNanos() / wallNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-9s %10d items  busy %5.1f%%  starved %5.1f%%  blocked %5.1f%%",
+                name, items, 100.0 * getUtilization(), percent(starvedNanos), percent(blockedNanos));
+    }
+
+    private double percent(long nanos) {
+        return wallNanos == 0 ? 0.0 : 100.0 * nanos / wallNanos;
+    }
+}
@@ -1,11 +1,15 @@
 package jlox.scanner;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import jlox.errors.Diagnostics;
 import jlox.errors.ErrorLogger;
+import jlox.events.ScanEvent;
+import jlox.metrics.Metrics;
 
 /**
  * Turns source code into a list of tokens.
@@ -16,6 +20,11 @@ public class Scanner {
     private final List<Token> tokens;
     private final ErrorLogger errorLogger;
 
+    /**
+     * The errors of the source, reported when the scanning ends.
+     */
+    private final Diagnostics diagnostics;
+
     /**
      * Used to keep track of the start of a lexeme and then using this index to extract the whole lexeme from the source code.
      */
@@ -30,54 +39,88 @@ public class Scanner {
      * Used to keep track of which line we have reached in the source code.
      * This applies to running a script file and is later used to report on which line an error happened.
      */
-    private int line = 1;
+    private int line;
 
     /**
      * A map between text representation of a keyword, as it would appear in the code, and an enum type of the token.
      * The token type is easier to work with later in the Parser and Interpreter.
+     * It is read-only, because scanners on different threads share it.
      */
     public static final Map<String, TokenType> keywords;
 
     static {
-        keywords = new HashMap<>();
-        keywords.put("and",    TokenType.AND);
-        keywords.put("class",  TokenType.CLASS);
-        keywords.put("else",   TokenType.ELSE);
-        keywords.put("false",  TokenType.FALSE);
-        keywords.put("for",    TokenType.FOR);
-        keywords.put("fun",    TokenType.FUN);
-        keywords.put("if",     TokenType.IF);
-        keywords.put("nil",    TokenType.NIL);
-        keywords.put("or",     TokenType.OR);
-        keywords.put("print",  TokenType.PRINT);
-        keywords.put("return", TokenType.RETURN);
-        keywords.put("super",  TokenType.SUPER);
-        keywords.put("this",   TokenType.THIS);
-        keywords.put("true",   TokenType.TRUE);
-        keywords.put("var",    TokenType.VAR);
-        keywords.put("while",  TokenType.WHILE);
+        final Map<String, TokenType> words = new HashMap<>();
+        words.put("and",    TokenType.AND);
+        words.put("class",  TokenType.CLASS);
+        words.put("else",   TokenType.ELSE);
+        words.put("false",  TokenType.FALSE);
+        words.put("for",    TokenType.FOR);
+        words.put("fun",    TokenType.FUN);
+        words.put("if",     TokenType.IF);
+        words.put("nil",    TokenType.NIL);
+        words.put("or",     TokenType.OR);
+        words.put("print",  TokenType.PRINT);
+        words.put("return", TokenType.RETURN);
+        words.put("super",  TokenType.SUPER);
+        words.put("this",   TokenType.THIS);
+        words.put("true",   TokenType.TRUE);
+        words.put("var",    TokenType.VAR);
+        words.put("while",  TokenType.WHILE);
+        keywords = Collections.unmodifiableMap(words);
     }
 
     public Scanner(String source, ErrorLogger errorLogger) {
+        this(source, 1, errorLogger);
+    }
+
+    /**
+     * @param firstLine The line number of the first line of the source, for a source that is a part of a bigger input.
+     */
+    public Scanner(String source, int firstLine, ErrorLogger errorLogger) {
+        this(source, firstLine, errorLogger, Diagnostics.DEFAULT_LIMIT);
+    }
+
+    /**
+     * @param maxErrors The maximal number of errors that are reported for the source. Identical errors in a row count as one,
+     * and the errors beyond the limit are reported only by their number.
+     */
+    public Scanner(String source, int firstLine, ErrorLogger errorLogger, int maxErrors) {
         this.source = source;
         this.tokens = new ArrayList<>();
         this.errorLogger = errorLogger;
+        this.diagnostics = new Diagnostics(maxErrors);
+        this.line = firstLine;
     }
 
     /**
-     * Entrypoint of the Scanner class.
+     * Entrypoint of the Scanner class. The errors are reported when the whole source is scanned.
      * @return A list of tokens, generated from the source code.
      */
     public List<Token> scanTokens() {
+        final ScanEvent event = new ScanEvent();
+        final Metrics metrics = Metrics.installed();
+        final long startNanos = metrics == null ? 0 : System.nanoTime();
+        event.begin();
         while (!isAtEnd()) {
             start = current;
             scanToken();
         }
 
         tokens.add(new Token(TokenType.EOF, "", null, line));
+        final int errors = diagnostics.getTotal();
+        diagnostics.reportTo(errorLogger);
+        event.finish(source, tokens, errors);
+        if (metrics != null) metrics.recordScan(System.nanoTime() - startNanos, tokens.size(), errors);
         return tokens;
     }
 
+    /**
+     * @param format The message, or a pattern for the detail - formatted only if the error is reported.
+     */
+    private void error(int line, String where, String format, Object detail) {
+        diagnostics.add(line, where, format, detail);
+    }
+
     public int getCurrentLine() {
         return line;
     }
@@ -152,7 +195,7 @@ public class Scanner {
                     identifier();
                     break;
                 }
-                errorLogger.report(line, c + "", String.format("Unexpected symbol '%c'", c));
+                error(line, String.valueOf(c), "Unexpected symbol '%c'", c);
                 break;
         }
     }
@@ -167,7 +210,7 @@ public class Scanner {
         }
 
         if (isAtEnd()) {
-            errorLogger.report(line, "", "Unterminated string");
+            error(line, "", "Unterminated string", null);
             return;
         }
 
@@ -185,7 +228,7 @@ public class Scanner {
         while (!isAtEnd() && Character.isDigit(peek())) {
             advance();
             if (!isAtEnd() && Character.isAlphabetic(peek())) {
-                errorLogger.report(line, "", "Unexpected alphabetic character in number literal: " + peek());
+                error(line, "", "Unexpected alphabetic character in number literal: %c", peek());
                 consumeUntilSpace();
                 return;
             }
@@ -0,0 +1,86 @@
+package jlox.script;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+import jlox.CompiledExpression;
+import jlox.Result;
+import jlox.errors.RuntimeError;
+import jlox.parser.Expr;
+
+/**
+ * A parsed expression that can be evaluated with different contexts. It is immutable and can be shared between threads.
+ */
+public final class LoxCompiledScript extends CompiledScript {
+
+    private final LoxScriptEngine engine;
+    private final CompiledExpression expr;
+
+    /**
+     * The names that the expression references. Only these are read from the context, which also holds attributes of the host.
+     */
+    private final List<String> variables;
+
+    LoxCompiledScript(LoxScriptEngine engine, CompiledExpression expr) {
+        this.engine = engine;
+        this.expr = expr;
+        final Set<String> names = new LinkedHashSet<>();
+        collectVariables(expr.getExpr(), names);
+        this.variables = new ArrayList<>(names);
+    }
+
+    /**
+     * @return The value: a Double, a String, a Boolean or null for nil.
+     * @throws ScriptException with the line of the token that failed, or if a variable has a value that Lox does not support.
+     */
+    @Override
+    public Object eval(ScriptContext context) throws ScriptException {
+        final Map<String, Object> bindings = new HashMap<>(variables.size() * 2);
+        for (String name : variables) {
+            final int scope = context.getAttributesScope(name);
+            if (scope != -1) bindings.put(name, context.getAttribute(name, scope));
+        }
+
+        final Result res;
+        try {
+            res = expr.execute(bindings);
+        } catch (IllegalArgumentException e) {
+            throw new ScriptException(e.getMessage(), LoxScriptEngine.filename(context), -1);
+        }
+        if (!res.isSuccess()) {
+            final RuntimeError err = res.getError().get();
+            throw new ScriptException(err.getMessage(), LoxScriptEngine.filename(context), err.getToken().line);
+        }
+        return res.getValue();
+    }
+
+    @Override
+    public ScriptEngine getEngine() {
+        return engine;
+    }
+
+    private static void collectVariables(Expr e, Set<String> names) {
+        if (e instanceof Expr.Variable v) {
+            names.add(v.name.lexeme);
+        } else if (e instanceof Expr.Binary b) {
+            collectVariables(b.left, names);
+            collectVariables(b.right, names);
+        } else if (e instanceof Expr.Logical l) {
+            collectVariables(l.left, names);
+            collectVariables(l.right, names);
+        } else if (e instanceof Expr.Unary u) {
+            collectVariables(u.right, names);
+        } else if (e instanceof Expr.Grouping g) {
+            collectVariables(g.expression, names);
+        }
+    }
+}
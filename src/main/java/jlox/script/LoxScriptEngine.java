@@ -0,0 +1,83 @@
+package jlox.script;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+
+import javax.script.AbstractScriptEngine;
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngineFactory;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+
+import jlox.Lox;
+import jlox.errors.CompileError;
+
+/**
+ * The javax.script view of jlox. A script is one expression and its variables are read from the attributes of the context.
+ * Compile a script once with {@link #compile(String)} to evaluate it many times without scanning and parsing it again.
+ */
+public final class LoxScriptEngine extends AbstractScriptEngine implements Compilable {
+
+    private final LoxScriptEngineFactory factory;
+
+    LoxScriptEngine(LoxScriptEngineFactory factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public Object eval(String script, ScriptContext context) throws ScriptException {
+        return compile(script, filename(context)).eval(context);
+    }
+
+    @Override
+    public Object eval(Reader reader, ScriptContext context) throws ScriptException {
+        return eval(read(reader), context);
+    }
+
+    @Override
+    public CompiledScript compile(String script) throws ScriptException {
+        return compile(script, filename(getContext()));
+    }
+
+    @Override
+    public CompiledScript compile(Reader script) throws ScriptException {
+        return compile(read(script));
+    }
+
+    private LoxCompiledScript compile(String script, String filename) throws ScriptException {
+        try {
+            return new LoxCompiledScript(this, Lox.compile(script));
+        } catch (CompileError err) {
+            throw new ScriptException(err.getMessage(), filename, err.getLine());
+        }
+    }
+
+    @Override
+    public Bindings createBindings() {
+        return new SimpleBindings();
+    }
+
+    @Override
+    public ScriptEngineFactory getFactory() {
+        return factory;
+    }
+
+    static String filename(ScriptContext context) {
+        final Object name = context.getAttribute(FILENAME);
+        return name == null ? null : name.toString();
+    }
+
+    private static String read(Reader reader) throws ScriptException {
+        final StringWriter source = new StringWriter();
+        try {
+            reader.transferTo(source);
+        } catch (IOException e) {
+            throw new ScriptException(e);
+        }
+        return source.toString();
+    }
+}
@@ -0,0 +1,99 @@
+package jlox.script;
+
+import java.util.List;
+
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+
+/**
+ * Registers jlox with javax.script, so a ScriptEngineManager finds it by the name "jlox", the extension "lox" or its MIME type.
+ * It also answers to "lox" and to the language name "Lox", since the manager matches names case-sensitively.
+ */
+public final class LoxScriptEngineFactory implements ScriptEngineFactory {
+
+    private static final String VERSION = "1.0";
+
+    @Override
+    public String getEngineName() {
+        return "jlox";
+    }
+
+    @Override
+    public String getEngineVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public List<String> getExtensions() {
+        return List.of("lox");
+    }
+
+    @Override
+    public List<String> getMimeTypes() {
+        return List.of("application/x-lox");
+    }
+
+    @Override
+    public List<String> getNames() {
+        return List.of("jlox", "lox", "Lox");
+    }
+
+    @Override
+    public String getLanguageName() {
+        return "Lox";
+    }
+
+    @Override
+    public String getLanguageVersion() {
+        return VERSION;
+    }
+
+    /**
+     * The engine is STATELESS: expressions cannot assign, so an evaluation never changes the bindings and nothing leaks between threads.
+     */
+    @Override
+    public Object getParameter(String key) {
+        return switch (key) {
+            case ScriptEngine.ENGINE -> getEngineName();
+            case ScriptEngine.ENGINE_VERSION -> getEngineVersion();
+            case ScriptEngine.LANGUAGE -> getLanguageName();
+            case ScriptEngine.LANGUAGE_VERSION -> getLanguageVersion();
+            case ScriptEngine.NAME -> getNames().get(0);
+            case "THREADING" -> "STATELESS";
+            default -> null;
+        };
+    }
+
+    /**
+     * Lox expressions have no calls, so this is only a best effort: the method name as a variable reference. The caller can bind
+     * the name to the result of the call.
+     */
+    @Override
+    public String getMethodCallSyntax(String obj, String m, String... args) {
+        return m;
+    }
+
+    /**
+     * An expression has no print statement, its value is the output. Lox strings have no escapes, so the text cannot contain '"'.
+     */
+    @Override
+    public String getOutputStatement(String toDisplay) {
+        return "\"" + toDisplay + "\"";
+    }
+
+    /**
+     * @throws IllegalArgumentException for more than one statement: the engine evaluates a single expression.
+     */
+    @Override
+    public String getProgram(String... statements) {
+        if (statements.length != 1) {
+            throw new IllegalArgumentException("A jlox program is a single expression.");
+        }
+        return statements[0];
+    }
+
+    @Override
+    public ScriptEngine getScriptEngine() {
+        return new LoxScriptEngine(this);
+    }
+}
@@ -0,0 +1,72 @@
+package jlox.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * A connection to an {@link EvalServer}. Requests on one connection are answered in order, so a client is not thread-safe -
+ * open one per thread.
+ */
+public final class EvalClient implements Closeable {
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    public EvalClient(String host, int port) throws IOException {
+        this.socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    /**
+     * The answer of the server to one request.
+     */
+    public static final class Response {
+        private final byte status;
+        private final String text;
+
+        Response(byte status, String text) {
+            this.status = status;
+            this.text = text;
+        }
+
+        public boolean isSuccess() {
+            return status == Frames.OK;
+        }
+
+        /**
+         * @return Whether the server refused to evaluate the request, for example because it timed out.
+         */
+        public boolean isRejected() {
+            return status == Frames.REJECTED;
+        }
+
+        /**
+         * @return The value as jlox prints it, or the errors.
+         */
+        public String getText() {
+            return text;
+        }
+    }
+
+    /**
+     * Sends the source and waits for the answer.
+     * @throws IOException if the connection failed or the server closed it, for example when it has too many connections.
+     */
+    public Response evaluate(String source) throws IOException {
+        Frames.writeRequest(out, source);
+        return Frames.readResponse(in);
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
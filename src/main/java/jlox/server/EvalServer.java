@@ -0,0 +1,299 @@
+package jlox.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import jlox.CompiledExpression;
+import jlox.JLox;
+import jlox.errors.BudgetExceededError;
+import jlox.errors.CompileError;
+import jlox.errors.ErrorLogger;
+import jlox.errors.RuntimeError;
+import jlox.interpreter.Budget;
+import jlox.interpreter.BudgetedInterpreter;
+import jlox.metrics.Metrics;
+
+/**
+ * Evaluates expressions for local clients over TCP, so a service does not start a JVM per evaluation. See {@link Frames} for the protocol.
+ * It only listens on the loopback address.
+ *
+ * Every connection is served by its own virtual thread, so thousands of mostly idle connections cost little. The compiled expressions
+ * are shared by all connections through an {@link ExpressionCache}. The evaluations run on a pool of platform threads, one per core:
+ * a virtual thread is never preempted, so a long evaluation on one would hold its carrier and delay the timeouts of the others.
+ * At most {@link #MAX_QUEUED_EVALUATIONS} evaluations wait for a thread; a request beyond them is answered with a rejection.
+ *
+ * An evaluation that takes longer than the timeout is answered with a rejection. It runs under a {@link BudgetedInterpreter} whose
+ * deadline is the timeout, so it also stops and frees its thread instead of holding it until it finishes.
+ * Any other failure of an evaluation, such as an expression nested too deeply for the stack, is answered with an error.
+ * Connections beyond the limit are rejected and closed, and so are connections that stay idle longer than {@link #IDLE_TIMEOUT_MILLIS}.
+ * If the {@link Metrics} are installed when the server starts, the hit rate of the expression cache is one of them.
+ */
+public final class EvalServer implements Closeable {
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 1024;
+    public static final long DEFAULT_TIMEOUT_MILLIS = 1000;
+    public static final int DEFAULT_CACHE_ENTRIES = 10_000;
+    public static final long DEFAULT_CACHE_BYTES = 64L << 20;
+    public static final int IDLE_TIMEOUT_MILLIS = 60_000;
+    public static final int MAX_QUEUED_EVALUATIONS = 1024;
+
+    private final int port;
+    private final long timeoutMillis;
+    private final Semaphore connections;
+    private final ExpressionCache cache;
+    private final BudgetedInterpreter interpreter;
+    private final ExecutorService evaluations;
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder rejectedConnections = new LongAdder();
+    private final LongAdder rejectedEvaluations = new LongAdder();
+
+    private ServerSocket serverSocket;
+
+    /**
+     * The name of the expression cache in the metrics, if they were installed when the server started.
+     */
+    private String cacheName;
+
+    /**
+     * @param port The port to listen on, or 0 for any free port.
+     */
+    public EvalServer(int port) {
+        this(port, DEFAULT_MAX_CONNECTIONS, DEFAULT_TIMEOUT_MILLIS, DEFAULT_CACHE_ENTRIES);
+    }
+
+    /**
+     * @param port The port to listen on, or 0 for any free port.
+     * @param maxConnections The maximal number of open connections.
+     * @param timeoutMillis The maximal time to evaluate one request.
+     * @param cacheEntries The number of compiled expressions to keep.
+     */
+    public EvalServer(int port, int maxConnections, long timeoutMillis, int cacheEntries) {
+        this(port, maxConnections, timeoutMillis, cacheEntries, DEFAULT_CACHE_BYTES);
+    }
+
+    /**
+     * @param port The port to listen on, or 0 for any free port.
+     * @param maxConnections The maximal number of open connections.
+     * @param timeoutMillis The maximal time to evaluate one request.
+     * @param cacheEntries The number of compiled expressions to keep.
+     * @param cacheBytes The maximal estimated memory of the compiled expressions.
+     */
+    public EvalServer(int port, int maxConnections, long timeoutMillis, int cacheEntries, long cacheBytes) {
+        if (maxConnections <= 0 || timeoutMillis <= 0) {
+            throw new IllegalArgumentException("The connection limit and the timeout must be positive.");
+        }
+        this.port = port;
+        this.timeoutMillis = timeoutMillis;
+        this.connections = new Semaphore(maxConnections);
+        this.cache = new ExpressionCache(cacheEntries, cacheBytes);
+        this.interpreter = new BudgetedInterpreter(new Budget(Long.MAX_VALUE, Long.MAX_VALUE, Duration.ofMillis(timeoutMillis)));
+        final int threads = Runtime.getRuntime().availableProcessors();
+        this.evaluations = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_EVALUATIONS), r -> {
+                    final Thread t = new Thread(r, "jlox-evaluator");
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * Starts to accept connections in the background.
+     * @return The port the server listens on.
+     */
+    public synchronized int start() throws IOException {
+        if (serverSocket != null) {
+            throw new IllegalStateException("The server is already started.");
+        }
+        serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        final ServerSocket listening = serverSocket;
+        final Metrics metrics = Metrics.installed();
+        if (metrics != null) {
+            cacheName = "expressions-" + listening.getLocalPort();
+            metrics.registerCache(cacheName, cache::getHits, cache::getMisses);
+        }
+        Thread.ofPlatform().name("jlox-accept").daemon().start(() -> accept(listening));
+        return listening.getLocalPort();
+    }
+
+    private void accept(ServerSocket listening) {
+        while (!listening.isClosed()) {
+            final Socket socket;
+            try {
+                socket = listening.accept();
+            } catch (IOException e) {
+                // Closed by close().
+                return;
+            }
+
+            if (!connections.tryAcquire()) {
+                rejectedConnections.increment();
+                reject(socket);
+                continue;
+            }
+            sockets.add(socket);
+            Thread.ofVirtual().name("jlox-connection").start(() -> {
+                try {
+                    serve(socket);
+                } finally {
+                    sockets.remove(socket);
+                    connections.release();
+                }
+            });
+        }
+    }
+
+    private static void reject(Socket socket) {
+        try (socket) {
+            Frames.writeResponse(new DataOutputStream(socket.getOutputStream()), Frames.REJECTED, "Too many connections.");
+        } catch (IOException e) {
+            // The client is gone already.
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            for (;;) {
+                final String source;
+                try {
+                    source = Frames.readRequest(in);
+                } catch (Frames.FrameTooLargeException e) {
+                    // The rest of the frame is still in the stream, so the connection cannot continue.
+                    Frames.writeResponse(out, Frames.REJECTED, e.getMessage());
+                    return;
+                }
+                if (source == null) return;
+
+                requests.increment();
+                respond(source, out);
+            }
+        } catch (IOException e) {
+            // Idle for too long, closed by the client or by close(). A broken connection only affects its own client.
+        }
+    }
+
+    private void respond(String source, DataOutputStream out) throws IOException {
+        final Future<Object> value;
+        try {
+            final CompiledExpression expr = cache.compile(source);
+            value = evaluations.submit(() -> interpreter.evaluate(expr.getExpr()));
+        } catch (CompileError err) {
+            Frames.writeResponse(out, Frames.ERROR, String.join("\n", err.getDiagnostics()));
+            return;
+        } catch (StackOverflowError e) {
+            // The parser is recursive too, so deep nesting can already fail here, on the connection's thread.
+            Frames.writeResponse(out, Frames.ERROR, describe(e));
+            return;
+        } catch (RejectedExecutionException e) {
+            rejectedEvaluations.increment();
+            Frames.writeResponse(out, Frames.REJECTED, "Too many evaluations are waiting.");
+            return;
+        }
+
+        try {
+            Frames.writeResponse(out, Frames.OK, JLox.stringify(value.get(timeoutMillis, TimeUnit.MILLISECONDS)));
+        } catch (TimeoutException e) {
+            // Still queued, or just past its deadline: cancelling drops it from the queue, and the budget stops it if it runs.
+            value.cancel(true);
+            timedOut(out);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BudgetExceededError err && err.getResource() == BudgetExceededError.Resource.TIME) {
+                timedOut(out);
+                return;
+            }
+            if (!(e.getCause() instanceof RuntimeError err)) {
+                // Only this request failed, so the connection stays open.
+                Frames.writeResponse(out, Frames.ERROR, describe(e.getCause()));
+                return;
+            }
+            final List<String> errors = new ArrayList<>(1);
+            new ErrorLogger(errors::add).report(err.getToken().line, err.getToken().lexeme, err.getMessage());
+            Frames.writeResponse(out, Frames.ERROR, errors.get(0));
+        } catch (InterruptedException e) {
+            // Interrupted by close().
+            Thread.currentThread().interrupt();
+            throw new SocketException("The server is closing.");
+        }
+    }
+
+    private static String describe(Throwable cause) {
+        if (cause instanceof StackOverflowError) {
+            return "Expression is nested too deeply.";
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.toString();
+    }
+
+    private void timedOut(DataOutputStream out) throws IOException {
+        timeouts.increment();
+        Frames.writeResponse(out, Frames.REJECTED, String.format("Evaluation timed out after %d milliseconds.", timeoutMillis));
+    }
+
+    /**
+     * Stops accepting connections and closes the open ones.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (serverSocket != null) serverSocket.close();
+        final Metrics metrics = Metrics.installed();
+        if (metrics != null && cacheName != null) metrics.unregisterCache(cacheName);
+        for (Socket socket : sockets) socket.close();
+        evaluations.shutdownNow();
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    public long getRejectedConnections() {
+        return rejectedConnections.sum();
+    }
+
+    /**
+     * @return The requests that were rejected because too many evaluations were waiting.
+     */
+    public long getRejectedEvaluations() {
+        return rejectedEvaluations.sum();
+    }
+
+    public long getCacheHits() {
+        return cache.getHits();
+    }
+
+    public long getCacheMisses() {
+        return cache.getMisses();
+    }
+}
@@ -0,0 +1,111 @@
+package jlox.server;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import jlox.CompiledExpression;
+import jlox.Lox;
+import jlox.errors.CompileError;
+
+/**
+ * The compiled expressions of the most recently used sources, shared by all connections of a server, so a formula that clients send
+ * again and again is scanned and parsed once. Sources that do not compile are cached too, with their errors.
+ *
+ * The least recently used entries are evicted when the cache has more entries or more bytes than its limits. The bytes are an
+ * estimate of the memory that an entry keeps alive: its source, and its tree or errors. Every node of a tree takes at least one
+ * character of the source, so the tree is estimated from the length of the source without walking it.
+ */
+final class ExpressionCache {
+
+    private static final long ENTRY_BYTES = 96;
+    private static final long NODE_BYTES = 48;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Object> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maxEntries The maximal number of cached sources.
+     * @param maxBytes The maximal estimated memory of the cached sources and their trees or errors.
+     */
+    ExpressionCache(int maxEntries, long maxBytes) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("The limits of the cache must be positive.");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @throws CompileError the cached error, if the source does not compile.
+     */
+    CompiledExpression compile(String source) {
+        Object entry;
+        synchronized (this) {
+            entry = entries.get(source);
+        }
+        if (entry != null) {
+            hits.increment();
+        } else {
+            // Compiled outside of the lock. Two threads may compile the same source, which is harmless.
+            misses.increment();
+            try {
+                entry = Lox.compile(source);
+            } catch (CompileError err) {
+                entry = err;
+            }
+            put(source, entry);
+        }
+
+        if (entry instanceof CompileError err) throw err;
+        return (CompiledExpression)entry;
+    }
+
+    private synchronized void put(String source, Object entry) {
+        final Object previous = entries.put(source, entry);
+        if (previous != null) bytes -= estimate(source, previous);
+        bytes += estimate(source, entry);
+
+        final Iterator<Map.Entry<String, Object>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries || bytes > maxBytes) {
+            final Map.Entry<String, Object> e = eldest.next();
+            bytes -= estimate(e.getKey(), e.getValue());
+            eldest.remove();
+        }
+    }
+
+    private static long estimate(String source, Object entry) {
+        long size = ENTRY_BYTES + 2L * source.length();
+        if (entry instanceof CompileError err) {
+            for (String diagnostic : err.getDiagnostics()) size += 2L * diagnostic.length();
+        } else {
+            size += source.length() * NODE_BYTES;
+        }
+        return size;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The estimated memory of the cached entries.
+     */
+    synchronized long getBytes() {
+        return bytes;
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+}
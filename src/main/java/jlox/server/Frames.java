@@ -0,0 +1,83 @@
+package jlox.server;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The wire format of the {@link EvalServer}. Everything is big-endian.
+ * A request is the length of the source in bytes and the source in UTF-8.
+ * A response is a status byte, the length of the text in bytes and the text in UTF-8: the value as jlox prints it, or the errors.
+ */
+final class Frames {
+
+    static final byte OK = 0;
+    /**
+     * The source has a syntax error or its evaluation failed. The text is the errors, one per line.
+     */
+    static final byte ERROR = 1;
+    /**
+     * The server did not evaluate the request: too many connections, a frame that is too large or a timeout.
+     */
+    static final byte REJECTED = 2;
+
+    /**
+     * The largest frame that is accepted, so a broken client cannot make the server allocate any amount of memory.
+     */
+    static final int MAX_FRAME_BYTES = 1 << 20;
+
+    private Frames() {
+    }
+
+    /**
+     * @return The source, or null if the peer closed the connection between two requests.
+     * @throws FrameTooLargeException if the frame is larger than {@link #MAX_FRAME_BYTES}.
+     */
+    static String readRequest(DataInputStream in) throws IOException {
+        final int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        return new String(readBytes(in, length), StandardCharsets.UTF_8);
+    }
+
+    static void writeRequest(DataOutputStream out, String source) throws IOException {
+        final byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.flush();
+    }
+
+    static EvalClient.Response readResponse(DataInputStream in) throws IOException {
+        final byte status = in.readByte();
+        final int length = in.readInt();
+        return new EvalClient.Response(status, new String(readBytes(in, length), StandardCharsets.UTF_8));
+    }
+
+    static void writeResponse(DataOutputStream out, byte status, String text) throws IOException {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeByte(status);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.flush();
+    }
+
+    private static byte[] readBytes(DataInputStream in, int length) throws IOException {
+        if (length < 0 || length > MAX_FRAME_BYTES) {
+            throw new FrameTooLargeException(length);
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    static final class FrameTooLargeException extends IOException {
+        FrameTooLargeException(int length) {
+            super(String.format("Frame of %d bytes is larger than %d bytes.", length, MAX_FRAME_BYTES));
+        }
+    }
+}
@@ -30,7 +30,9 @@ public class GenerateVisitorAstCode {
                 put("Binary", Arrays.asList("Expr left", "Token operator", "Expr right"));
                 put("Grouping", Collections.singletonList("Expr expression"));
                 put("Literal", Collections.singletonList("Object value"));
+                put("Logical", Arrays.asList("Expr left", "Token operator", "Expr right"));
                 put("Unary", Arrays.asList("Token operator", "Expr right"));
+                put("Variable", Collections.singletonList("Token name"));
             }});
             final long end = System.nanoTime();
             
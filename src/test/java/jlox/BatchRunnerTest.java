@@ -0,0 +1,105 @@
+package jlox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import jlox.interpreter.Interpreter;
+
+class BatchRunnerTest {
+
+    private static String[] run(List<Path> files, int window) throws Exception {
+        final ExecutorService pool = Executors.newWorkStealingPool(4);
+        try {
+            final StringWriter out = new StringWriter();
+            new BatchRunner(new Interpreter(), pool, window).run(files.iterator(), out);
+            return out.toString().split(System.lineSeparator());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void delete(Path dir) throws Exception {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) Files.delete(p);
+        }
+    }
+
+    @Test
+    public void testFilesAreReportedInOrderAsJson() throws Exception {
+        final Path dir = Files.createTempDirectory("jlox-batch");
+        try {
+            final Path ok = Files.writeString(dir.resolve("ok.lox"), "1 + 2; nil; \"two\nlines\"");
+            final Path bad = Files.writeString(dir.resolve("bad.lox"), "1;\n-\"a\"");
+            final Path broken = Files.writeString(dir.resolve("broken.lox"), "1 +;");
+            final Path missing = dir.resolve("missing.lox");
+
+            final String[] lines = run(List.of(ok, bad, broken, missing), 2);
+
+            assertEquals(5, lines.length);
+            assertEquals("{\"file\":\"" + ok + "\",\"exit\":0,\"statements\":3,\"results\":[\"3.0\",\"nil\",\"two\\nlines\"],\"errors\":[]}", lines[0]);
+            assertEquals("{\"file\":\"" + bad + "\",\"exit\":65,\"statements\":2,\"results\":[\"1.0\"],"
+                    + "\"errors\":[\"[line 2] Error -: Operand must be a number.\"]}", lines[1]);
+            assertEquals("{\"file\":\"" + broken + "\",\"exit\":65,\"statements\":1,\"results\":[],"
+                    + "\"errors\":[\"[line 1] Error ;: Expected an expression\"]}", lines[2]);
+            assertTrue(lines[3].startsWith("{\"file\":\"" + missing + "\",\"exit\":74,"));
+            assertTrue(lines[4].startsWith("{\"files\":4,\"failed\":3,\"millis\":"));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testDeepScriptFailsAlone() throws Exception {
+        final Path dir = Files.createTempDirectory("jlox-batch");
+        try {
+            final Path deep = Files.writeString(dir.resolve("deep.lox"), "(".repeat(300_000) + "1" + ")".repeat(300_000));
+            final Path ok = Files.writeString(dir.resolve("ok.lox"), "1 + 2");
+
+            final String[] lines = run(List.of(deep, ok), 2);
+
+            assertEquals(3, lines.length);
+            assertEquals("{\"file\":\"" + deep + "\",\"exit\":65,\"statements\":0,\"results\":[],"
+                    + "\"errors\":[\"Script is nested too deeply.\"]}", lines[0]);
+            assertEquals("{\"file\":\"" + ok + "\",\"exit\":0,\"statements\":1,\"results\":[\"3.0\"],\"errors\":[]}", lines[1]);
+            assertTrue(lines[2].startsWith("{\"files\":2,\"failed\":1,\"millis\":"));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testFindsDirectoriesAndGlobs() throws Exception {
+        final Path dir = Files.createTempDirectory("jlox-batch");
+        try {
+            Files.createDirectories(dir.resolve("a/b"));
+            Files.writeString(dir.resolve("one.lox"), "1");
+            Files.writeString(dir.resolve("a/two.lox"), "2");
+            Files.writeString(dir.resolve("a/b/three.lox"), "3");
+            Files.writeString(dir.resolve("a/notes.txt"), "4");
+
+            try (Stream<Path> files = BatchRunner.find(dir.toString())) {
+                assertEquals(3, files.count());
+            }
+            try (Stream<Path> files = BatchRunner.find(dir + "/a/*.lox")) {
+                assertEquals(List.of(dir.resolve("a/two.lox")), files.collect(Collectors.toList()));
+            }
+            try (Stream<Path> files = BatchRunner.find(dir + "/**/*.lox")) {
+                assertEquals(2, files.count());
+            }
+        } finally {
+            delete(dir);
+        }
+    }
+}
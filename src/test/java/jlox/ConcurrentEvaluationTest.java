@@ -0,0 +1,91 @@
+package jlox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import jlox.errors.ErrorLogger;
+import jlox.errors.RuntimeError;
+import jlox.interpreter.Interpreter;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+/**
+ * Hammers shared compiled expressions and a shared interpreter from many threads and checks that no evaluation sees the state of another.
+ */
+class ConcurrentEvaluationTest {
+
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 20_000;
+
+    private static void runOnThreads(Callable<Void> task) throws Exception {
+        final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) futures.add(pool.submit(task));
+            for (Future<Void> f : futures) f.get();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSharedCompiledExpression() throws Exception {
+        final CompiledExpression expr = Lox.compile("x * 2 + y");
+
+        runOnThreads(() -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                final double x = Thread.currentThread().threadId() * 1000.0 + i;
+                final Result res = expr.execute(Map.of("x", x, "y", 1.0));
+                assertTrue(res.isSuccess());
+                assertEquals(x * 2 + 1, res.getValue());
+            }
+            return null;
+        });
+    }
+
+    @Test
+    public void testSharedCompiledExpressionWithErrors() throws Exception {
+        final CompiledExpression expr = Lox.compile("-x");
+
+        runOnThreads(() -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                final boolean fail = i % 2 == 0;
+                final Result res = expr.execute(Map.of("x", fail ? "text" : (Object)(double)i));
+                assertEquals(!fail, res.isSuccess());
+                if (!fail) assertEquals(-(double)i, res.getValue());
+            }
+            return null;
+        });
+    }
+
+    @Test
+    public void testSharedInterpreter() throws Exception {
+        final Interpreter interpreter = new Interpreter();
+        final Expr ok = new Parser(new Scanner("\"a\" + 1 == \"a1.0\"", new ErrorLogger()).scanTokens()).parse();
+        final Expr bad = new Parser(new Scanner("1 + \"a\"", new ErrorLogger()).scanTokens()).parse();
+
+        runOnThreads(() -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                assertEquals(true, interpreter.evaluate(ok));
+                try {
+                    interpreter.evaluate(bad);
+                    throw new AssertionError("Expected a runtime error.");
+                } catch (RuntimeError e) {
+                    assertEquals("Invalid operation between left-hand side number and right-hand side string", e.getMessage());
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,78 @@
+package jlox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import jlox.errors.CompileError;
+
+class LoxTest {
+
+    @Test
+    public void testCompileOnceExecuteMany() {
+        final CompiledExpression expr = Lox.compile("price * quantity");
+
+        assertEquals(6.0, expr.execute(Map.of("price", 2.0, "quantity", 3.0)).getValue());
+        assertEquals(20.0, expr.execute(Map.of("price", 5.0, "quantity", 4.0)).getValue());
+    }
+
+    @Test
+    public void testBindingsAreConvertedToLoxValues() {
+        final CompiledExpression expr = Lox.compile("\"n=\" + n");
+
+        final Result res = expr.execute(Map.of("n", 42));
+
+        assertTrue(res.isSuccess());
+        assertEquals("n=42.0", res.getValue());
+    }
+
+    @Test
+    public void testRuntimeErrorIsReturned() {
+        final CompiledExpression expr = Lox.compile("-name");
+
+        final Result res = expr.execute(Map.of("name", "lox"));
+
+        assertFalse(res.isSuccess());
+        assertNull(res.getValue());
+        assertEquals("Operand must be a number.", res.getError().get().getMessage());
+        assertEquals(1, res.getError().get().getToken().line);
+    }
+
+    @Test
+    public void testUnboundParameter() {
+        final Result res = Lox.compile("1 + x").execute();
+
+        assertFalse(res.isSuccess());
+        assertEquals("Undefined variable 'x'.", res.getError().get().getMessage());
+    }
+
+    @Test
+    public void testCompileErrorHasDiagnostics() {
+        final CompileError err = assertThrows(CompileError.class, () -> Lox.compile("(1 + 2"));
+
+        assertEquals(1, err.getDiagnostics().size());
+        assertEquals("[line 1] Error 2: Expected closing ')' at the end of grouping expression.", err.getDiagnostics().get(0));
+    }
+
+    @Test
+    public void testCompileErrorHasLine() {
+        final CompileError err = assertThrows(CompileError.class, () -> Lox.compile("1 +\n(2"));
+
+        assertEquals(2, err.getLine());
+        assertEquals(2, err.getErrors().get(0).getLine());
+        assertEquals("Expected closing ')' at the end of grouping expression.", err.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    public void testUnsupportedBinding() {
+        final CompiledExpression expr = Lox.compile("x");
+
+        assertThrows(IllegalArgumentException.class, () -> expr.execute(Map.of("x", new Object())));
+    }
+}
@@ -0,0 +1,81 @@
+package jlox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import jlox.errors.ErrorLogger;
+import jlox.interpreter.Interpreter;
+
+class ScriptRunnerTest {
+
+    private static String run(String source, int window, List<String> errors) throws Exception {
+        final ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            final JLox jlox = new JLox(new ErrorLogger(errors::add));
+            final StringWriter out = new StringWriter();
+            jlox.runScript(source, new ScriptRunner(new Interpreter(), pool, window), out);
+            return out.toString();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static String lines(String... lines) {
+        return String.join(System.lineSeparator(), lines) + System.lineSeparator();
+    }
+
+    @Test
+    public void testResultsAreInSourceOrder() throws Exception {
+        final StringBuilder source = new StringBuilder();
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            source.append(i).append(" * 2;\n");
+            expected.append((double)(i * 2)).append(System.lineSeparator());
+        }
+        final List<String> errors = new ArrayList<>();
+
+        assertEquals(expected.toString(), run(source.toString(), 16, errors));
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void testRuntimeErrorDoesNotStopTheScript() throws Exception {
+        final List<String> errors = new ArrayList<>();
+
+        final String out = run("1 + 1; -\"a\"; nil; \"a\" + \"b\"", 1, errors);
+
+        assertEquals(lines("2.0", "nil", "ab"), out);
+        assertEquals(List.of("[line 1] Error -: Operand must be a number."), errors);
+    }
+
+    @Test
+    public void testSyntaxErrorsStopTheScript() throws Exception {
+        final List<String> errors = new ArrayList<>();
+
+        final String out = run("1 +;\n2;\n3 4;", 8, errors);
+
+        assertEquals("", out);
+        assertEquals(2, errors.size());
+        assertTrue(errors.get(0).startsWith("[line 1]"));
+        assertTrue(errors.get(1).startsWith("[line 3] Error 4:"));
+    }
+
+    @Test
+    public void testWindowMustBePositive() {
+        final ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            assertThrows(IllegalArgumentException.class, () -> new ScriptRunner(new Interpreter(), pool, 0));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package jlox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import jlox.interpreter.Interpreter;
+
+class StreamRunnerTest {
+
+    private static String lines(String... lines) {
+        return String.join(System.lineSeparator(), lines) + System.lineSeparator();
+    }
+
+    @Test
+    public void testResultsAndErrorsAreInOrder() throws Exception {
+        final StreamRunner runner = new StreamRunner(new Interpreter());
+        final StringWriter out = new StringWriter();
+
+        final boolean failed = runner.run(new StringReader("1 + 2\n\n-\"a\"\nnil\n2 @\n1 1\n\"a\" + \"b\""), out);
+
+        assertTrue(failed);
+        assertEquals(lines(
+            "3.0",
+            "[line 3] Error -: Operand must be a number.",
+            "nil",
+            "[line 5] Error @: Unexpected symbol '@'",
+            "2.0",
+            "[line 6] Error 1: Unexpected token.",
+            "ab"), out.toString());
+        assertEquals(6, runner.getExpressions());
+        assertEquals(3, runner.getErrors());
+    }
+
+    @Test
+    public void testManyLinesAreFlushedInBatches() throws Exception {
+        final StreamRunner runner = new StreamRunner(new Interpreter());
+        final StringBuilder in = new StringBuilder();
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 3 * StreamRunner.FLUSH_LINES; i++) {
+            in.append(i).append(" * 2\n");
+            expected.append((double)(i * 2)).append(System.lineSeparator());
+        }
+        final StringWriter out = new StringWriter();
+
+        assertFalse(runner.run(new StringReader(in.toString()), out));
+        assertEquals(expected.toString(), out.toString());
+        assertEquals(3 * StreamRunner.FLUSH_LINES, runner.getExpressions());
+        assertTrue(runner.getExpressionsPerSecond() > 0);
+    }
+}
@@ -0,0 +1,125 @@
+package jlox.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import jlox.errors.ErrorLogger;
+import jlox.errors.RuntimeError;
+import jlox.interpreter.Interpreter;
+import jlox.interpreter.StackInterpreter;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+class TypeCheckerTest {
+
+    private static Expr parse(String source) {
+        return new Parser(new Scanner(source, new ErrorLogger()).scanTokens()).parse();
+    }
+
+    private static StaticType typeOf(String source) {
+        final Expr e = parse(source);
+        return new TypeChecker().check(e).typeOf(e);
+    }
+
+    @Test
+    public void testLiteralTypes() {
+        assertEquals(StaticType.NUMBER, typeOf("1"));
+        assertEquals(StaticType.STRING, typeOf("\"a\""));
+        assertEquals(StaticType.BOOL, typeOf("true"));
+        assertEquals(StaticType.NIL, typeOf("nil"));
+        assertEquals(StaticType.UNKNOWN, typeOf("x"));
+    }
+
+    @Test
+    public void testOperatorTypes() {
+        assertEquals(StaticType.NUMBER, typeOf("(1 + 2) * -3"));
+        assertEquals(StaticType.STRING, typeOf("\"a\" + 1"));
+        assertEquals(StaticType.BOOL, typeOf("1 < 2 == !true"));
+        assertEquals(StaticType.NUMBER, typeOf("x - 1"));
+        assertEquals(StaticType.STRING, typeOf("x + \"a\""));
+        assertEquals(StaticType.UNKNOWN, typeOf("x + 1"));
+    }
+
+    @Test
+    public void testParameterTypes() {
+        final Expr e = parse("x + 1");
+        final TypeInfo info = new TypeChecker(Map.of("x", StaticType.NUMBER)).check(e);
+
+        assertEquals(StaticType.NUMBER, info.typeOf(e));
+        assertEquals(1, info.getChecksRemoved());
+    }
+
+    @Test
+    public void testAlwaysFailingExpressions() {
+        for (String source : List.of("1 - \"a\"", "-\"a\"", "!1", "true + 1", "1 + \"a\"", "x + nil", "(x < 1) * 2")) {
+            final Expr e = parse(source);
+            final TypeInfo info = new TypeChecker().check(e);
+
+            assertEquals(1, info.getErrors().size(), source);
+        }
+    }
+
+    @Test
+    public void testFirstErrorIsTheRuntimeError() {
+        final Expr e = parse("(1 - \"a\") + (true * 2)");
+        final List<RuntimeError> errors = new TypeChecker().check(e).getErrors();
+
+        RuntimeError runtimeError = null;
+        try {
+            new Interpreter().evaluate(e);
+        } catch (RuntimeError err) {
+            runtimeError = err;
+        }
+
+        assertEquals(2, errors.size());
+        assertEquals(runtimeError.getMessage(), errors.get(0).getMessage());
+        assertEquals(runtimeError.getToken(), errors.get(0).getToken());
+    }
+
+    @Test
+    public void testValidExpressionsHaveNoErrors() {
+        for (String source : List.of("1 + 2 * 3", "\"a\" + \"b\"", "x + y", "x == nil", "!(x < 2)")) {
+            assertTrue(new TypeChecker().check(parse(source)).getErrors().isEmpty(), source);
+        }
+    }
+
+    @Test
+    public void testCountsChecks() {
+        final TypeInfo info = new TypeChecker().check(parse("-(1 + 2) * x < 3"));
+
+        // Unary minus, plus, both operands of star, both operands of less.
+        assertEquals(6, info.getChecks());
+        // All but the check of x.
+        assertEquals(5, info.getChecksRemoved());
+    }
+
+    @Test
+    public void testTypedProgramHasSameValues() {
+        final Interpreter interpreter = new Interpreter(Map.of("x", 4.0));
+        final StackInterpreter stackInterpreter = new StackInterpreter(interpreter);
+
+        for (String source : List.of("(1 + 2) * -(3 / 4) - 5", "x * 2 + 1", "1 < 2 == !(3 >= x)", "\"a\" + 1 + 2", "-0 - 0")) {
+            final Expr e = parse(source);
+            final StackInterpreter.Program typed = StackInterpreter.linearize(e, new TypeChecker().check(e));
+
+            assertEquals(interpreter.evaluate(e), stackInterpreter.evaluate(typed), source);
+        }
+    }
+
+    @Test
+    public void testLogicalTypes() {
+        assertEquals(StaticType.BOOL, typeOf("1 < 2 or true"));
+        assertEquals(StaticType.NUMBER, typeOf("1 or \"a\""));
+        assertEquals(StaticType.STRING, typeOf("1 and \"a\""));
+        assertEquals(StaticType.STRING, typeOf("nil or \"a\""));
+        assertEquals(StaticType.NIL, typeOf("nil and 1"));
+        assertEquals(StaticType.UNKNOWN, typeOf("x or 1"));
+        assertEquals(StaticType.UNKNOWN, typeOf("true or 1"));
+    }
+}
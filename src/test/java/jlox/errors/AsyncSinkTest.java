@@ -0,0 +1,150 @@
+package jlox.errors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+class AsyncSinkTest {
+
+    /**
+     * A writer that holds the background thread in its first write until it is released, so the queue fills up.
+     */
+    private static final class GatedWriter extends Writer {
+        final StringWriter written = new StringWriter();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            entered.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (written) {
+                written.write(cbuf, off, len);
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        List<String> lines() {
+            synchronized (written) {
+                return written.toString().lines().toList();
+            }
+        }
+    }
+
+    @Test
+    public void testMessagesAreWrittenInOrder() {
+        final StringWriter out = new StringWriter();
+        final AsyncSink sink = new AsyncSink(out);
+        final ErrorLogger errorLogger = new ErrorLogger(sink);
+        for (int i = 1; i <= 1000; i++) errorLogger.report(i, "", "Error");
+        errorLogger.flush();
+
+        final List<String> lines = out.toString().lines().toList();
+        assertEquals(1000, lines.size());
+        assertEquals("[line 1] Error : Error", lines.get(0));
+        assertEquals("[line 1000] Error : Error", lines.get(999));
+        sink.close();
+    }
+
+    @Test
+    public void testConcurrentReporters() throws Exception {
+        final StringWriter out = new StringWriter();
+        final AsyncSink sink = new AsyncSink(out, 16, AsyncSink.OverflowPolicy.BLOCK);
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final ErrorLogger errorLogger = new ErrorLogger(sink);
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 2500; i++) errorLogger.report(1, "", "Error");
+            }));
+        }
+        for (Thread t : threads) t.join();
+        sink.close();
+
+        assertEquals(10_000, out.toString().lines().count());
+        assertEquals(0, sink.getDrops());
+    }
+
+    @Test
+    public void testCloseWhileReporting() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            final StringWriter out = new StringWriter();
+            final AsyncSink sink = new AsyncSink(out, 16, AsyncSink.OverflowPolicy.BLOCK);
+            final CountDownLatch started = new CountDownLatch(4);
+            final List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                threads.add(Thread.ofPlatform().start(() -> {
+                    started.countDown();
+                    for (int i = 0; i < 500; i++) sink.accept("Error");
+                }));
+            }
+            started.await();
+            sink.close();
+            for (Thread t : threads) t.join();
+            sink.accept("last");
+
+            // Every message is written whole, whether it was queued before the close or written right away after it.
+            final List<String> lines = out.toString().lines().toList();
+            assertEquals(2001, lines.size());
+            assertEquals(2000, lines.stream().filter("Error"::equals).count());
+            assertEquals("last", lines.get(2000));
+        }
+    }
+
+    @Test
+    public void testCountAndDrop() throws Exception {
+        final GatedWriter out = new GatedWriter();
+        final AsyncSink sink = new AsyncSink(out, 2, AsyncSink.OverflowPolicy.COUNT_AND_DROP);
+        sink.accept("first");
+        out.entered.await();
+        for (int i = 0; i < 5; i++) sink.accept("message " + i);
+        out.gate.countDown();
+        sink.close();
+
+        assertEquals(3, sink.getDrops());
+        assertEquals(List.of("first", "3 more errors were dropped.", "message 0", "message 1"), out.lines());
+    }
+
+    @Test
+    public void testDropOldest() throws Exception {
+        final GatedWriter out = new GatedWriter();
+        final AsyncSink sink = new AsyncSink(out, 2, AsyncSink.OverflowPolicy.DROP_OLDEST);
+        sink.accept("first");
+        out.entered.await();
+        for (int i = 0; i < 5; i++) sink.accept("message " + i);
+        out.gate.countDown();
+        sink.flush();
+
+        assertEquals(3, sink.getDrops());
+        assertEquals(List.of("first", "3 more errors were dropped.", "message 3", "message 4"), out.lines());
+        sink.close();
+    }
+
+    @Test
+    public void testAfterCloseMessagesAreWrittenRightAway() {
+        final StringWriter out = new StringWriter();
+        final AsyncSink sink = new AsyncSink(out);
+        sink.close();
+        sink.accept("late");
+
+        assertTrue(out.toString().startsWith("late"));
+    }
+}
@@ -0,0 +1,68 @@
+package jlox.errors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class DiagnosticsTest {
+
+    /**
+     * Counts the calls of toString, to tell whether it was formatted.
+     */
+    private static final class Detail {
+        int formatted;
+
+        @Override
+        public String toString() {
+            formatted++;
+            return "x";
+        }
+    }
+
+    @Test
+    public void testMerge() {
+        final Diagnostics diagnostics = new Diagnostics();
+        diagnostics.add(1, "a", "Bad '%s'", "a");
+        diagnostics.add(1, "a", "Bad '%s'", "a");
+        diagnostics.add(2, "a", "Bad '%s'", "a");
+        diagnostics.add(2, "b", "Bad '%s'", "b");
+        diagnostics.add(2, "", "Plain", null);
+        diagnostics.add(2, "", "Plain", null);
+
+        assertEquals(6, diagnostics.getTotal());
+        assertEquals(4, diagnostics.getDiagnostics().size());
+        assertEquals(2, diagnostics.getDiagnostics().get(0).getRepeats());
+        assertEquals("[line 1] Error a: Bad 'a' (2 times)", diagnostics.getDiagnostics().get(0).toString());
+        assertEquals("[line 2] Error : Plain (2 times)", diagnostics.getDiagnostics().get(3).toString());
+    }
+
+    @Test
+    public void testLimitAndReport() {
+        final Diagnostics diagnostics = new Diagnostics(2);
+        for (int i = 0; i < 5; i++) diagnostics.add(i + 1, "", "Error %s", i);
+        final List<String> reported = new ArrayList<>();
+        diagnostics.reportTo(new ErrorLogger(reported::add));
+
+        assertEquals(List.of("[line 1] Error : Error 0", "[line 2] Error : Error 1", "[line 2] Error : Too many errors, 3 more were not reported."), reported);
+        assertTrue(diagnostics.getDiagnostics().isEmpty());
+        assertEquals(0, diagnostics.getSuppressed());
+        assertThrows(IllegalArgumentException.class, () -> new Diagnostics(0));
+    }
+
+    @Test
+    public void testFormattedOnlyWhenReported() {
+        final Detail detail = new Detail();
+        final Diagnostics diagnostics = new Diagnostics(1);
+        diagnostics.add(1, "", "First", null);
+        for (int i = 0; i < 100; i++) diagnostics.add(1, "", "Bad %s", detail);
+
+        assertEquals(0, detail.formatted);
+        diagnostics.reportTo(new ErrorLogger(msg -> {}));
+        assertEquals(0, detail.formatted);
+    }
+}
@@ -3,6 +3,8 @@ package jlox.errors;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 
 class ErrorLoggerTest {
@@ -18,4 +20,15 @@ class ErrorLoggerTest {
         ErrorLogger reporter = new ErrorLogger(consumer);
         reporter.report(line, where, msg);
     }
+
+    @Test
+    void collectingShouldKeepTheLine() {
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        ErrorLogger reporter = ErrorLogger.collecting(diagnostics::add);
+        reporter.report(13, "???", "100% wrong");
+
+        Assertions.assertEquals(13, diagnostics.get(0).getLine());
+        Assertions.assertEquals("[line 13] Error ???: 100% wrong", diagnostics.get(0).toString());
+        Assertions.assertThrows(IllegalStateException.class, () -> reporter.relay("formatted"));
+    }
 }
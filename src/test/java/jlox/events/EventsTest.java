@@ -0,0 +1,127 @@
+package jlox.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import jlox.errors.ErrorLogger;
+import jlox.errors.RuntimeError;
+import jlox.interpreter.Interpreter;
+import jlox.interpreter.StackInterpreter;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+import jlox.scanner.Token;
+
+class EventsTest {
+
+    private interface Body {
+        void run() throws Exception;
+    }
+
+    private static List<RecordedEvent> record(Body body) throws Exception {
+        return record(body, true);
+    }
+
+    private static List<RecordedEvent> record(Body body, boolean enabled) throws Exception {
+        final Path file = Files.createTempFile("jlox", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("jlox.Scan", "jlox.Parse", "jlox.Evaluate")) {
+                if (enabled) {
+                    recording.enable(name).withoutThreshold();
+                } else {
+                    recording.disable(name);
+                }
+            }
+            recording.start();
+            body.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+    }
+
+    @Test
+    public void testPhases() throws Exception {
+        final List<RecordedEvent> events = record(() -> {
+            final List<Token> tokens = new Scanner("1 + a * 3", new ErrorLogger()).scanTokens();
+            final Expr e = new Parser(tokens).parse();
+            new Interpreter(Map.of("a", 2.0)).interpret(e);
+        });
+
+        final RecordedEvent scan = named(events, "jlox.Scan").get(0);
+        assertEquals(9, scan.getInt("sourceLength"));
+        assertEquals(6, scan.getInt("tokenCount"));
+        assertEquals(0, scan.getInt("errors"));
+
+        final RecordedEvent parse = named(events, "jlox.Parse").get(0);
+        assertEquals(6, parse.getInt("tokenCount"));
+        assertEquals(1, parse.getInt("statements"));
+        assertEquals(5, parse.getInt("nodeCount"));
+        assertFalse(parse.getBoolean("error"));
+
+        final RecordedEvent evaluate = named(events, "jlox.Evaluate").get(0);
+        assertEquals(5, evaluate.getInt("nodeCount"));
+        assertEquals("number", evaluate.getString("resultType"));
+        assertFalse(evaluate.getBoolean("error"));
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+        final List<RecordedEvent> events = record(() -> {
+            new Scanner("1 # 2", new ErrorLogger(msg -> {})).scanTokens();
+            new Parser(new Scanner("1 +", new ErrorLogger()).scanTokens()).parse();
+            assertThrows(RuntimeError.class, () -> new StackInterpreter().evaluate(new Parser(new Scanner("-\"a\"", new ErrorLogger()).scanTokens()).parse()));
+        });
+
+        assertEquals(1, named(events, "jlox.Scan").get(0).getInt("errors"));
+        final RecordedEvent parse = named(events, "jlox.Parse").get(0);
+        assertTrue(parse.getBoolean("error"));
+        assertEquals(0, parse.getInt("nodeCount"));
+        final RecordedEvent evaluate = named(events, "jlox.Evaluate").get(0);
+        assertTrue(evaluate.getBoolean("error"));
+        assertNull(evaluate.getString("resultType"));
+    }
+
+    @Test
+    public void testScript() throws Exception {
+        final List<RecordedEvent> events = record(() -> {
+            final Parser parser = new Parser(new Scanner("\"a\" + 1; true; nil", new ErrorLogger()).scanTokens());
+            final Interpreter interpreter = new Interpreter();
+            for (Expr e : parser.parseScript()) interpreter.evaluate(e);
+        });
+
+        final RecordedEvent parse = named(events, "jlox.Parse").get(0);
+        assertEquals(3, parse.getInt("statements"));
+        assertEquals(5, parse.getInt("nodeCount"));
+        assertEquals(List.of("string", "boolean", "nil"), named(events, "jlox.Evaluate").stream().map(e -> e.getString("resultType")).toList());
+    }
+
+    @Test
+    public void testNothingIsRecordedWhenDisabled() throws Exception {
+        final List<RecordedEvent> events = record(() -> {
+            final Expr e = new Parser(new Scanner("1 + 2", new ErrorLogger()).scanTokens()).parse();
+            assertEquals(3.0, new Interpreter().evaluate(e));
+        }, false);
+
+        assertTrue(events.stream().noneMatch(e -> e.getEventType().getName().startsWith("jlox.")));
+    }
+}
@@ -0,0 +1,125 @@
+package jlox.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import jlox.errors.BudgetExceededError;
+import jlox.errors.ErrorLogger;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+class BudgetedInterpreterTest {
+
+    private static Expr parse(String source) {
+        return new Parser(new Scanner(source, new ErrorLogger()).scanTokens()).parse();
+    }
+
+    private static Expr chain(String term, String op, int terms) {
+        final StringBuilder sb = new StringBuilder(term);
+        for (int i = 1; i < terms; i++) sb.append(' ').append(op).append(' ').append(term);
+        return parse(sb.toString());
+    }
+
+    @Test
+    public void testWithinBudgetTheValueIsTheSame() {
+        final Expr e = parse("(1 + 2) * 3 > 4 and \"a\" + 1 == \"a1.0\"");
+        final BudgetedInterpreter interpreter = new BudgetedInterpreter(new Budget(100, 100, Duration.ofSeconds(10)));
+
+        assertEquals(new Interpreter().evaluate(e), interpreter.evaluate(e));
+    }
+
+    @Test
+    public void testNodeLimit() {
+        final Expr e = chain("1", "+", 100);
+
+        assertEquals(100.0, new BudgetedInterpreter(new Budget(199, Long.MAX_VALUE, null)).evaluate(e));
+        final BudgetExceededError err = assertThrows(BudgetExceededError.class,
+                () -> new BudgetedInterpreter(new Budget(198, Long.MAX_VALUE, null)).evaluate(e));
+        assertEquals(BudgetExceededError.Resource.NODES, err.getResource());
+        assertEquals("Evaluated more than 198 nodes.", err.getMessage());
+        assertEquals("+", err.getToken().lexeme);
+    }
+
+    @Test
+    public void testStringBytesLimit() {
+        // Ten copies of a 1000-character parameter.
+        final BudgetedInterpreter interpreter = new BudgetedInterpreter(Map.of("s", "x".repeat(1000)), new Budget(Long.MAX_VALUE, 20_000, null));
+
+        assertEquals(9000, ((String)interpreter.evaluate(chain("s", "+", 9))).length());
+        assertEquals(10_000, ((String)interpreter.evaluate(chain("s", "+", 10))).length());
+        final BudgetExceededError err = assertThrows(BudgetExceededError.class, () -> interpreter.evaluate(chain("s", "+", 11)));
+        assertEquals(BudgetExceededError.Resource.STRING_BYTES, err.getResource());
+    }
+
+    @Test
+    public void testRightDeepConcatenationIsNotCountedTwice() {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) sb.append("s + (");
+        sb.append("s").append(")".repeat(100));
+        final BudgetedInterpreter interpreter = new BudgetedInterpreter(Map.of("s", "x".repeat(100)), new Budget(Long.MAX_VALUE, 2 * 101 * 100, null));
+
+        assertEquals(101 * 100, ((String)interpreter.evaluate(parse(sb.toString()))).length());
+    }
+
+    @Test
+    public void testDeadline() {
+        final Expr e = chain("1", "+", 100_000);
+        final BudgetedInterpreter interpreter = new BudgetedInterpreter(new Budget(Long.MAX_VALUE, Long.MAX_VALUE, Duration.ofNanos(1)));
+
+        final BudgetExceededError err = assertThrows(BudgetExceededError.class, () -> interpreter.evaluate(new StackFriendly(e).expr));
+        assertEquals(BudgetExceededError.Resource.TIME, err.getResource());
+    }
+
+    @Test
+    public void testBudgetIsPerEvaluation() {
+        final Expr e = chain("1", "+", 10);
+        final BudgetedInterpreter interpreter = new BudgetedInterpreter(new Budget(19, Long.MAX_VALUE, null));
+
+        for (int i = 0; i < 3; i++) assertEquals(10.0, interpreter.evaluate(e));
+        assertTrue(Budget.UNLIMITED.isUnlimited());
+        assertFalse(interpreter.getBudget().isUnlimited());
+    }
+
+    @Test
+    public void testInterpretReportsTheError() {
+        final BudgetedInterpreter interpreter = new BudgetedInterpreter(new Budget(2, Long.MAX_VALUE, null));
+
+        interpreter.interpret(parse("1 + 2"));
+
+        assertTrue(interpreter.getError().get() instanceof BudgetExceededError);
+    }
+
+    /**
+     * A long chain that the recursive interpreter can evaluate: a balanced tree of the same terms.
+     */
+    private static final class StackFriendly {
+        final Expr expr;
+
+        StackFriendly(Expr chain) {
+            this.expr = balance(chain, 0, count(chain));
+        }
+
+        private static int count(Expr e) {
+            int n = 1;
+            while (e instanceof Expr.Binary b) {
+                n++;
+                e = b.left;
+            }
+            return n;
+        }
+
+        private static Expr balance(Expr chain, int from, int to) {
+            if (to - from == 1) return new Expr.Literal(1.0);
+            final int mid = (from + to) / 2;
+            return new Expr.Binary(balance(chain, from, mid), ((Expr.Binary)chain).operator, balance(chain, mid, to));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package jlox.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import jlox.errors.ErrorLogger;
+import jlox.errors.RuntimeError;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+class CachingInterpreterTest {
+
+    private static Expr parse(String source) {
+        return new Parser(new Scanner(source, new ErrorLogger()).scanTokens()).parse();
+    }
+
+    @Test
+    public void testSeparatelyParsedFormulaIsAHit() {
+        final CachingInterpreter interpreter = new CachingInterpreter(new ResultCache(100, 1 << 20));
+
+        assertEquals(10.0, interpreter.evaluate(parse("(1 + 2) * 3 + 1")));
+        final long misses = interpreter.getCache().getMisses();
+        assertEquals(10.0, interpreter.evaluate(parse("(1 + 2) * 3 + 1")));
+
+        assertEquals(1, interpreter.getCache().getHits());
+        assertEquals(misses, interpreter.getCache().getMisses());
+    }
+
+    @Test
+    public void testSharedSubformulaIsAHit() {
+        final CachingInterpreter interpreter = new CachingInterpreter(new ResultCache(100, 1 << 20));
+
+        interpreter.evaluate(parse("(1 + 2) * 3"));
+        assertEquals(7.0, interpreter.evaluate(parse("4 + (1 + 2)")));
+
+        assertEquals(1, interpreter.getCache().getHits());
+    }
+
+    @Test
+    public void testGroupingsDoNotChangeTheKey() {
+        final CachingInterpreter interpreter = new CachingInterpreter(new ResultCache(100, 1 << 20));
+
+        interpreter.evaluate(parse("(1 + 2) * 3"));
+        interpreter.evaluate(parse("((1 + 2)) * (3)"));
+
+        assertEquals(1, interpreter.getCache().getHits());
+    }
+
+    @Test
+    public void testSubtreesWithVariablesAreNotCached() {
+        final ResultCache cache = new ResultCache(100, 1 << 20);
+
+        assertEquals(7.0, new CachingInterpreter(Map.of("x", 1.0), cache).evaluate(parse("x + 2 * 3")));
+        assertEquals(8.0, new CachingInterpreter(Map.of("x", 2.0), cache).evaluate(parse("x + 2 * 3")));
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void testErrorIsCachedWithOriginalToken() {
+        final CachingInterpreter interpreter = new CachingInterpreter(new ResultCache(100, 1 << 20));
+
+        final RuntimeError first = assertThrows(RuntimeError.class, () -> interpreter.evaluate(parse("1 - nil")));
+        final RuntimeError second = assertThrows(RuntimeError.class, () -> interpreter.evaluate(parse("\n\n1 - nil")));
+
+        assertSame(first, second);
+        assertEquals(1, second.getToken().line);
+        assertEquals(1, interpreter.getCache().getHits());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        final CachingInterpreter interpreter = new CachingInterpreter(new ResultCache(2, 1 << 20));
+
+        interpreter.evaluate(parse("1 + 1"));
+        interpreter.evaluate(parse("2 + 2"));
+        interpreter.evaluate(parse("1 + 1"));
+        interpreter.evaluate(parse("3 + 3"));
+        interpreter.evaluate(parse("1 + 1"));
+        interpreter.evaluate(parse("2 + 2"));
+
+        assertEquals(2, interpreter.getCache().getHits());
+        assertEquals(2, interpreter.getCache().getEvictions());
+        assertEquals(2, interpreter.getCache().size());
+    }
+
+    @Test
+    public void testBoundedByBytes() {
+        final ResultCache cache = new ResultCache(1000, 1000);
+        final CachingInterpreter interpreter = new CachingInterpreter(cache);
+
+        for (int i = 0; i < 100; i++) {
+            interpreter.evaluate(parse("\"" + "a".repeat(i) + "\" + \"b\""));
+        }
+
+        assertTrue(cache.getBytes() <= 1000);
+        assertTrue(cache.getEvictions() > 0);
+    }
+
+    @Test
+    public void testHitRate() {
+        final CachingInterpreter interpreter = new CachingInterpreter(new ResultCache(100, 1 << 20));
+
+        for (int i = 0; i < 4; i++) {
+            interpreter.evaluate(parse("1 + 2"));
+        }
+
+        assertEquals(0.75, interpreter.getCache().getHitRate());
+    }
+
+    @Test
+    public void testValuesAreSameAsInterpreter() {
+        final CachingInterpreter interpreter = new CachingInterpreter(new ResultCache(100, 1 << 20));
+
+        for (int round = 0; round < 2; round++) {
+            assertEquals("a1.0", interpreter.evaluate(parse("\"a\" + 1")));
+            assertEquals(-0.0, interpreter.evaluate(parse("0 * -1")));
+            assertEquals(false, interpreter.evaluate(parse("0 * -1 == 0")));
+            assertEquals(0.5, interpreter.evaluate(parse("1 / 2")));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package jlox.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import jlox.errors.ErrorLogger;
+import jlox.errors.RuntimeError;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+class ColumnarEvaluatorTest {
+
+    private static final int ROWS = 2 * ColumnarEvaluator.BATCH_SIZE + 17;
+
+    private static Expr parse(String source) {
+        final Scanner scanner = new Scanner(source, new ErrorLogger());
+        return new Parser(scanner.scanTokens()).parse();
+    }
+
+    private static Map<String, double[]> columns() {
+        final double[] a = new double[ROWS];
+        final double[] b = new double[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            a[i] = i % 7 - 3;
+            b[i] = i % 5;
+        }
+        // Values where equality of doubles is tricky.
+        a[0] = Double.NaN;
+        b[0] = Double.NaN;
+        a[1] = -0.0;
+        b[1] = 0.0;
+
+        final Map<String, double[]> columns = new HashMap<>();
+        columns.put("a", a);
+        columns.put("b", b);
+        return columns;
+    }
+
+    /**
+     * Evaluates the expression row by row with the tree-walking interpreter and checks that the columnar evaluator agrees on every row.
+     */
+    private static ColumnarResult assertSameAsInterpreter(String source) {
+        final Expr expr = parse(source);
+        final Map<String, double[]> columns = columns();
+        final ColumnarResult result = new ColumnarEvaluator(expr, columns.keySet()).evaluate(columns);
+
+        assertEquals(ROWS, result.size());
+        for (int row = 0; row < ROWS; row++) {
+            final Map<String, Object> bindings = new HashMap<>();
+            for (Map.Entry<String, double[]> column : columns.entrySet()) {
+                bindings.put(column.getKey(), column.getValue()[row]);
+            }
+            final Interpreter interpreter = new Interpreter(bindings);
+            final Object expected = interpreter.interpret(expr);
+
+            assertEquals(expected, result.get(row), source + " at row " + row);
+            assertEquals(interpreter.getError().notNull(), result.getError(row).notNull(), source + " at row " + row);
+            if (interpreter.getError().notNull()) {
+                final RuntimeError expectedError = interpreter.getError().get();
+                final RuntimeError actualError = result.getError(row).get();
+                assertEquals(expectedError.getMessage(), actualError.getMessage());
+                assertEquals(expectedError.getToken(), actualError.getToken());
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testNumericExpressionIsPrimitive() {
+        final ColumnarResult result = assertSameAsInterpreter("a * 2 + b / (a - 1) - -b");
+
+        assertTrue(result.isNumeric());
+    }
+
+    @Test
+    public void testComparisons() {
+        for (String source : List.of("a < b", "a <= b", "a > b", "a >= b", "a == b", "a != b", "(a < b) == (b > 1)", "!(a < b) != true")) {
+            assertSameAsInterpreter(source);
+        }
+    }
+
+    @Test
+    public void testStringsFallBackToScalar() {
+        final ColumnarResult result = assertSameAsInterpreter("\"row \" + a == \"row 1.0\"");
+
+        assertFalse(result.isNumeric());
+    }
+
+    @Test
+    public void testErrorsAreReportedForEveryRow() {
+        for (String source : List.of("a + \"x\"", "!a", "-\"a\" + a", "c * a", "(a - true) + c", "nil == a + nil")) {
+            final ColumnarResult result = assertSameAsInterpreter(source);
+
+            for (int row = 0; row < ROWS; row++) {
+                assertTrue(result.getError(row).notNull());
+                assertNull(result.get(row));
+            }
+        }
+    }
+
+    @Test
+    public void testGetNumbers() {
+        final Map<String, double[]> columns = Map.of("x", new double[] { 1.0, 2.0, 3.0 });
+        final ColumnarResult result = new ColumnarEvaluator(parse("x * x + 1"), columns.keySet()).evaluate(columns);
+
+        assertArrayEquals(new double[] { 2.0, 5.0, 10.0 }, result.getNumbers());
+    }
+
+    @Test
+    public void testLogicalOperators() {
+        final ColumnarResult bools = assertSameAsInterpreter("a < 0 or b > 2 and a != b");
+        assertFalse(bools.isNumeric());
+
+        for (String source : List.of("a < 0 and a - \"x\"", "a > 0 or -\"x\"", "a or b", "a == 1 and c", "(a < b or nil) and a * 2")) {
+            assertSameAsInterpreter(source);
+        }
+    }
+}
@@ -6,6 +6,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Map;
+
 import org.junit.jupiter.api.Test;
 
 import jlox.parser.TokenFactory;
@@ -222,4 +224,135 @@ class InterpreterTest {
         assertNotNull(res);
         assertFalse((Boolean)res);
     }
+
+    @Test
+    public void testLongStringConcatenationChain() {
+        final int terms = 1000;
+        Expr e = new Expr.Literal("ab");
+        for (int t = 1; t < terms; t++) {
+            e = new Expr.Binary(e, TokenFactory.make(TokenType.PLUS), new Expr.Literal("ab"));
+        }
+        final Interpreter i = new Interpreter();
+
+        final Object res = i.interpret(e);
+
+        assertTrue(res instanceof String);
+        assertEquals("ab".repeat(terms), res);
+    }
+
+    @Test
+    public void testConcatenatedStringEquality() {
+        final String a = "a".repeat(50);
+        final String b = "b".repeat(50);
+        final Expr concat = new Expr.Binary(new Expr.Literal(a), TokenFactory.make(TokenType.PLUS), new Expr.Literal(b));
+        final Expr e = new Expr.Binary(concat, TokenFactory.make(TokenType.EQUAL_EQUAL), new Expr.Literal(a + b));
+        final Interpreter i = new Interpreter();
+
+        final Object res = i.interpret(e);
+
+        assertNotNull(res);
+        assertTrue((Boolean)res);
+    }
+
+    @Test
+    public void testConcatenatedStringWithNumber() {
+        final String a = "a".repeat(70);
+        final Expr e = new Expr.Binary(new Expr.Literal(a), TokenFactory.make(TokenType.PLUS), new Expr.Literal(42.0));
+        final Interpreter i = new Interpreter();
+
+        final Object res = i.interpret(e);
+
+        assertEquals(a + "42.0", res);
+    }
+
+    @Test
+    public void testBoundVariable() {
+        final Expr e = new Expr.Binary(new Expr.Variable(TokenFactory.make(TokenType.IDENTIFIER, "x")), TokenFactory.make(TokenType.STAR), new Expr.Literal(3.0));
+        final Interpreter i = new Interpreter(Map.of("x", 2.0));
+
+        final Object res = i.interpret(e);
+
+        assertNotNull(res);
+        assertEquals(6.0, (Double)res);
+    }
+
+    @Test
+    public void testUndefinedVariable() {
+        final Expr e = new Expr.Variable(TokenFactory.make(TokenType.IDENTIFIER, "x"));
+        final Interpreter i = new Interpreter();
+
+        final Object res = i.interpret(e);
+
+        assertNull(res);
+        assertTrue(i.getError().notNull());
+        assertEquals("Undefined variable 'x'.", i.getError().get().getMessage());
+    }
+
+    @Test
+    public void testIntegralResultsAreDoubles() {
+        final Expr e = new Expr.Binary(new Expr.Literal(6.0), TokenFactory.make(TokenType.SLASH), new Expr.Literal(3.0));
+        final Interpreter i = new Interpreter();
+
+        final Object res = i.interpret(e);
+
+        assertEquals(2.0, res);
+    }
+
+    @Test
+    public void testIntegralNegativeZero() {
+        final Expr e = new Expr.Binary(new Expr.Literal(0.0), TokenFactory.make(TokenType.STAR),
+            new Expr.Unary(TokenFactory.make(TokenType.MINUS), new Expr.Literal(1.0)));
+        final Interpreter i = new Interpreter();
+
+        final Object res = i.interpret(e);
+
+        assertEquals(-0.0, res);
+    }
+
+    @Test
+    public void testIntegralAndFractionalEquality() {
+        final Expr e = new Expr.Binary(new Expr.Literal(1.0), TokenFactory.make(TokenType.EQUAL_EQUAL),
+            new Expr.Binary(new Expr.Literal(0.5), TokenFactory.make(TokenType.PLUS), new Expr.Literal(0.5)));
+        final Interpreter i = new Interpreter();
+
+        final Object res = i.interpret(e);
+
+        assertEquals(true, res);
+    }
+
+    private static Expr logical(Expr left, TokenType operator, Expr right) {
+        return new Expr.Logical(left, TokenFactory.make(operator, operator == TokenType.OR ? "or" : "and"), right);
+    }
+
+    private static Expr failing() {
+        return new Expr.Unary(TokenFactory.make(TokenType.MINUS), new Expr.Literal("a"));
+    }
+
+    @Test
+    public void testLogicalShortCircuit() {
+        final Interpreter i = new Interpreter();
+
+        assertEquals(true, i.interpret(logical(new Expr.Literal(true), TokenType.OR, failing())));
+        assertEquals(false, i.interpret(logical(new Expr.Literal(false), TokenType.AND, failing())));
+        assertNull(i.interpret(logical(new Expr.Literal(null), TokenType.AND, failing())));
+        assertFalse(i.getError().notNull());
+    }
+
+    @Test
+    public void testLogicalEvaluatesRightWhenNeeded() {
+        final Interpreter i = new Interpreter();
+
+        assertNull(i.interpret(logical(new Expr.Literal(false), TokenType.OR, failing())));
+        assertTrue(i.getError().notNull());
+        assertEquals("Operand must be a number.", i.getError().get().getMessage());
+    }
+
+    @Test
+    public void testLogicalReturnsDecidingOperand() {
+        final Interpreter i = new Interpreter();
+
+        assertEquals(1.0, i.interpret(logical(new Expr.Literal(null), TokenType.OR, new Expr.Literal(1.0))));
+        assertEquals("x", i.interpret(logical(new Expr.Literal(1.0), TokenType.AND, new Expr.Literal("x"))));
+        assertEquals(2.0, i.interpret(logical(new Expr.Literal(2.0), TokenType.OR, new Expr.Literal(3.0))));
+    }
 }
@@ -0,0 +1,77 @@
+package jlox.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import jlox.errors.ErrorLogger;
+import jlox.errors.RuntimeError;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+class NanBoxEvaluatorTest {
+
+    private static final Map<String, Object> BINDINGS = new HashMap<>();
+    static {
+        BINDINGS.put("x", 4.0);
+        BINDINGS.put("s", "str");
+        BINDINGS.put("t", true);
+        BINDINGS.put("n", null);
+    }
+
+    private static Expr parse(String source) {
+        return new Parser(new Scanner(source, new ErrorLogger()).scanTokens()).parse();
+    }
+
+    @Test
+    public void testSameValuesAsInterpreter() {
+        final Interpreter interpreter = new Interpreter(BINDINGS);
+        final NanBoxEvaluator evaluator = new NanBoxEvaluator(BINDINGS);
+
+        for (String source : List.of(
+            "(1 + 2) * -(3 / 4) - 5 * 6 + 7 < 8 == !(9 >= 10)",
+            "x * x - 0.5", "-0", "0 / 0", "0 / 0 == 0 / 0", "0 == -0", "1 / 0 > x",
+            "\"a\" + 1 + \"b\"", "s + s == \"strstr\"", "s == \"str\"",
+            "nil", "n == nil", "!nil", "t", "!t == false", "true == 1", "nil == false",
+            "x > 3 and s", "nil or x", "false or nil and -s", "t and n", "n or 0 / 0", "x < 3 and -s or s + 1")) {
+            final Expr e = parse(source);
+
+            assertEquals(interpreter.evaluate(e), evaluator.evaluate(e), source);
+        }
+    }
+
+    @Test
+    public void testSameErrorsAsInterpreter() {
+        final Interpreter interpreter = new Interpreter(BINDINGS);
+        final NanBoxEvaluator evaluator = new NanBoxEvaluator(BINDINGS);
+
+        for (String source : List.of("1 - \"a\"", "-s", "!1", "t + n", "1 + s", "(1 - nil) + (true * 2)", "y")) {
+            final Expr e = parse(source);
+
+            final RuntimeError expected = assertThrows(RuntimeError.class, () -> interpreter.evaluate(e));
+            final RuntimeError actual = assertThrows(RuntimeError.class, () -> evaluator.evaluate(e));
+            assertEquals(expected.getMessage(), actual.getMessage(), source);
+            assertEquals(expected.getToken(), actual.getToken(), source);
+        }
+    }
+
+    @Test
+    public void testNil() {
+        assertNull(new NanBoxEvaluator().evaluate(parse("nil")));
+    }
+
+    @Test
+    public void testLongStringConcatenationChain() {
+        final int terms = 1000;
+        final Expr e = parse("\"a\"" + " + \"a\"".repeat(terms - 1));
+
+        assertEquals("a".repeat(terms), new NanBoxEvaluator().evaluate(e));
+    }
+}
@@ -0,0 +1,77 @@
+package jlox.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import java.util.function.BinaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+class NumbersTest {
+
+    private static final double[] VALUES = {
+        0.0, -0.0, 1.0, -1.0, 2.0, -3.0, 7.0, 0.5, -2.5, 127.0, 128.0, 1e6, -1e6,
+        Math.pow(2, 26), Math.pow(2, 27), Math.pow(2, 53), -Math.pow(2, 53), Math.pow(2, 53) - 1, Math.pow(2, 54), 1e300,
+        Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY
+    };
+
+    private static void assertSameAsDoubles(String name, BinaryOperator<Object> op, BinaryOperator<Double> expected) {
+        for (double l : VALUES) {
+            for (double r : VALUES) {
+                final Object res = Numbers.widen(op.apply(Numbers.narrow(l), Numbers.narrow(r)));
+                assertEquals(expected.apply(l, r), res, l + " " + name + " " + r);
+            }
+        }
+    }
+
+    @Test
+    public void testArithmeticIsSameAsOnDoubles() {
+        assertSameAsDoubles("+", Numbers::add, (l, r) -> l + r);
+        assertSameAsDoubles("-", Numbers::subtract, (l, r) -> l - r);
+        assertSameAsDoubles("*", Numbers::multiply, (l, r) -> l * r);
+        assertSameAsDoubles("/", Numbers::divide, (l, r) -> l / r);
+    }
+
+    @Test
+    public void testComparisonIsSameAsOnDoubles() {
+        for (double l : VALUES) {
+            for (double r : VALUES) {
+                assertEquals(l < r, Numbers.less(Numbers.narrow(l), Numbers.narrow(r)), l + " < " + r);
+                assertEquals(l <= r, Numbers.lessEqual(Numbers.narrow(l), Numbers.narrow(r)), l + " <= " + r);
+                assertEquals(Double.valueOf(l).equals(r), Numbers.equal(Numbers.narrow(l), Numbers.narrow(r)), l + " == " + r);
+                assertEquals(Double.valueOf(l).equals(r), Numbers.equal(Numbers.narrow(l), r), l + " == " + r);
+            }
+        }
+    }
+
+    @Test
+    public void testNegateIsSameAsOnDoubles() {
+        for (double v : VALUES) {
+            assertEquals(-v, Numbers.widen(Numbers.negate(Numbers.narrow(v))), "-" + v);
+        }
+    }
+
+    @Test
+    public void testNarrowKeepsOnlyExactIntegers() {
+        assertInstanceOf(Long.class, Numbers.narrow(3.0));
+        assertInstanceOf(Long.class, Numbers.narrow(Math.pow(2, 53)));
+        assertInstanceOf(Double.class, Numbers.narrow(Math.pow(2, 54)));
+        assertInstanceOf(Double.class, Numbers.narrow(-0.0));
+        assertInstanceOf(Double.class, Numbers.narrow(0.5));
+        assertInstanceOf(Double.class, Numbers.narrow(Double.NaN));
+    }
+
+    @Test
+    public void testIntegerArithmeticStaysLong() {
+        assertInstanceOf(Long.class, Numbers.add(1L, 2L));
+        assertInstanceOf(Long.class, Numbers.multiply(-4L, 5L));
+        assertInstanceOf(Long.class, Numbers.divide(10L, 5L));
+        assertInstanceOf(Double.class, Numbers.divide(10L, 4L));
+    }
+
+    @Test
+    public void testPrintsLikeDouble() {
+        assertEquals("3.0", Numbers.toString(3L));
+        assertEquals("1.0E7", Numbers.toString(10_000_000L));
+    }
+}
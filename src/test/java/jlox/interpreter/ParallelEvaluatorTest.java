@@ -0,0 +1,92 @@
+package jlox.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import jlox.errors.RuntimeError;
+import jlox.parser.Expr;
+import jlox.parser.TokenFactory;
+import jlox.scanner.Token;
+import jlox.scanner.TokenType;
+
+class ParallelEvaluatorTest {
+
+    private static final int THRESHOLD = 8;
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterAll
+    public static void shutDownPool() {
+        POOL.shutdownNow();
+    }
+
+    /**
+     * Builds a balanced tree of additions with 2^depth leaves.
+     */
+    private static Expr balanced(int depth, Expr leaf) {
+        if (depth == 0) return leaf;
+        return new Expr.Binary(balanced(depth - 1, leaf), TokenFactory.make(TokenType.PLUS), balanced(depth - 1, leaf));
+    }
+
+    private static ParallelEvaluator evaluator() {
+        return new ParallelEvaluator(new Interpreter(), POOL, THRESHOLD);
+    }
+
+    @Test
+    public void testSameValueAsSequential() {
+        final Expr e = new Expr.Binary(balanced(10, new Expr.Literal(1.0)), TokenFactory.make(TokenType.STAR), new Expr.Unary(TokenFactory.make(TokenType.MINUS), balanced(6, new Expr.Literal(0.5))));
+
+        final Object res = evaluator().evaluate(e);
+
+        assertEquals(new Interpreter().evaluate(e), res);
+        assertEquals(-32768.0, res);
+    }
+
+    @Test
+    public void testStringsAreConcatenatedInOrder() {
+        final Expr e = balanced(9, new Expr.Literal("ab"));
+
+        assertEquals("ab".repeat(512), evaluator().evaluate(e));
+    }
+
+    @Test
+    public void testLeftErrorWinsOverRightError() {
+        final Token leftMinus = new Token(TokenType.MINUS, "-", 1);
+        final Token rightMinus = new Token(TokenType.MINUS, "-", 2);
+        final Expr left = new Expr.Binary(balanced(5, new Expr.Literal(1.0)), TokenFactory.make(TokenType.PLUS), new Expr.Unary(leftMinus, new Expr.Literal("left")));
+        final Expr right = new Expr.Binary(new Expr.Unary(rightMinus, new Expr.Literal("right")), TokenFactory.make(TokenType.PLUS), balanced(5, new Expr.Literal(1.0)));
+        final Expr e = new Expr.Binary(left, TokenFactory.make(TokenType.PLUS), right);
+
+        for (int i = 0; i < 100; i++) {
+            final RuntimeError err = assertThrows(RuntimeError.class, () -> evaluator().evaluate(e));
+            assertSame(leftMinus, err.getToken());
+        }
+    }
+
+    @Test
+    public void testRightErrorIsReported() {
+        final Token minus = new Token(TokenType.MINUS, "-", 2);
+        final Expr right = new Expr.Binary(balanced(5, new Expr.Literal(1.0)), TokenFactory.make(TokenType.PLUS), new Expr.Unary(minus, new Expr.Literal("right")));
+        final Expr e = new Expr.Binary(balanced(5, new Expr.Literal(1.0)), TokenFactory.make(TokenType.PLUS), right);
+
+        final RuntimeError err = assertThrows(RuntimeError.class, () -> evaluator().evaluate(e));
+
+        assertSame(minus, err.getToken());
+        assertEquals("Operand must be a number.", err.getMessage());
+    }
+
+    @Test
+    public void testLogicalRightOperandIsNotEvaluated() {
+        final Expr failing = new Expr.Binary(balanced(5, new Expr.Literal(1.0)), TokenFactory.make(TokenType.PLUS),
+            new Expr.Unary(TokenFactory.make(TokenType.MINUS), new Expr.Literal("right")));
+        final Expr e = new Expr.Logical(balanced(5, new Expr.Literal(1.0)), new Token(TokenType.OR, "or", 1), failing);
+
+        assertEquals(32.0, evaluator().evaluate(e));
+    }
+}
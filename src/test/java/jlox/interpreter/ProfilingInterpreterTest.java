@@ -0,0 +1,134 @@
+package jlox.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import jlox.errors.ErrorLogger;
+import jlox.errors.RuntimeError;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+class ProfilingInterpreterTest {
+
+    private static Expr parse(String source) {
+        return new Parser(new Scanner(source, new ErrorLogger()).scanTokens()).parse();
+    }
+
+    private static NodeStatistics node(Profile profile, String name) {
+        return profile.getNodes().stream().filter(n -> n.getName().equals(name)).findFirst().orElseThrow();
+    }
+
+    @Test
+    public void testValuesAreThoseOfTheInterpreter() {
+        final Map<String, Object> bindings = Map.of("a", 2.0, "s", "x");
+        final ProfilingInterpreter profiler = new ProfilingInterpreter(bindings);
+        final Interpreter interpreter = new Interpreter(bindings);
+
+        for (String source : List.of("(a + 1) * -a", "s + a + \"!\"", "nil or a > 1", "!(a == 2)")) {
+            assertEquals(interpreter.evaluate(parse(source)), profiler.evaluate(parse(source)));
+        }
+        final RuntimeError err = assertThrows(RuntimeError.class, () -> profiler.evaluate(parse("1 + b")));
+        assertEquals("Undefined variable 'b'.", err.getMessage());
+        assertEquals(5, profiler.getProfile().getEvaluations());
+    }
+
+    @Test
+    public void testManyTrees() {
+        final ProfilingInterpreter profiler = new ProfilingInterpreter();
+        final List<Expr> trees = List.of(parse("1 + 2"), parse("3 - 4"), parse("5 * 6"), parse("7 / 8"));
+        for (int i = 0; i < 3; i++) {
+            for (Expr e : trees) profiler.evaluate(e);
+        }
+
+        final Profile profile = profiler.getProfile();
+        assertEquals(12, profile.getNodes().size());
+        assertEquals(3, node(profile, "- (line 1)").getCount());
+        assertEquals(3, node(profile, "/ (line 1)").getCount());
+    }
+
+    @Test
+    public void testCounts() {
+        final ProfilingInterpreter profiler = new ProfilingInterpreter();
+        final Expr e = parse("1 + 2 * 3");
+        for (int i = 0; i < 10; i++) profiler.evaluate(e);
+
+        final Profile profile = profiler.getProfile();
+        assertEquals(10, profile.getSampledEvaluations());
+        assertEquals(5, profile.getNodes().size());
+        assertEquals(10, node(profile, "+ (line 1)").getCount());
+        assertEquals(10, node(profile, "* (line 1)").getCount());
+        final NodeStatistics plus = node(profile, "+ (line 1)");
+        assertTrue(plus.getInclusiveNanos() >= node(profile, "* (line 1)").getInclusiveNanos());
+        assertTrue(plus.getExclusiveNanos() <= plus.getInclusiveNanos());
+        assertEquals(plus.getInclusiveNanos(), profile.getTotalNanos());
+    }
+
+    @Test
+    public void testShortCircuitedOperandIsNotRecorded() {
+        final ProfilingInterpreter profiler = new ProfilingInterpreter();
+        assertEquals(false, profiler.evaluate(parse("false and missing")));
+
+        assertEquals(2, profiler.getProfile().getNodes().size());
+    }
+
+    @Test
+    public void testLines() {
+        final ProfilingInterpreter profiler = new ProfilingInterpreter(Map.of("x", 1.0));
+        profiler.evaluate(parse("1 +\n(x -\n2)"));
+
+        final Profile profile = profiler.getProfile();
+        assertEquals(1, node(profile, "+ (line 1)").getLine());
+        assertEquals(2, node(profile, "x (line 2)").getLine());
+        assertEquals(1, node(profile, "- (line 2)").getCount());
+        assertEquals(1, node(profile, "group (line 1)").getCount());
+    }
+
+    @Test
+    public void testCollapsedStacks() throws Exception {
+        final ProfilingInterpreter profiler = new ProfilingInterpreter(Map.of("x", 4.0));
+        final Expr e = parse("x * x - -x");
+        for (int i = 0; i < 1000; i++) profiler.evaluate(e);
+
+        final StringWriter out = new StringWriter();
+        profiler.getProfile().writeCollapsed(out);
+        long sum = 0;
+        for (String line : out.toString().split(System.lineSeparator())) {
+            final int space = line.lastIndexOf(' ');
+            assertTrue(line.startsWith("- (line 1)"), line);
+            sum += Long.parseLong(line.substring(space + 1));
+        }
+        assertTrue(out.toString().contains("- (line 1);unary - (line 1);x (line 1) "));
+        assertEquals(profiler.getProfile().getTotalNanos(), sum);
+    }
+
+    @Test
+    public void testSampling() {
+        final ProfilingInterpreter profiler = new ProfilingInterpreter(Map.of(), 4);
+        final Expr e = parse("1 + 2");
+        for (int i = 0; i < 10; i++) assertEquals(3.0, profiler.evaluate(e));
+
+        final Profile profile = profiler.getProfile();
+        assertEquals(10, profile.getEvaluations());
+        assertEquals(3, profile.getSampledEvaluations());
+        assertEquals(3, node(profile, "+ (line 1)").getCount());
+    }
+
+    @Test
+    public void testTop() {
+        final ProfilingInterpreter profiler = new ProfilingInterpreter();
+        profiler.evaluate(parse("1 + 2 * 3"));
+
+        final String[] lines = profiler.getProfile().top(2).split(System.lineSeparator());
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("1 evaluations, 1 recorded"), lines[0]);
+        assertTrue(lines[2].endsWith(")"), lines[2]);
+    }
+}
@@ -0,0 +1,100 @@
+package jlox.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import jlox.errors.ErrorLogger;
+import jlox.errors.RuntimeError;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.parser.TokenFactory;
+import jlox.scanner.Scanner;
+import jlox.scanner.Token;
+import jlox.scanner.TokenType;
+
+class StackInterpreterTest {
+
+    private static Expr parse(String source) {
+        return new Parser(new Scanner(source, new ErrorLogger()).scanTokens()).parse();
+    }
+
+    @Test
+    public void testVeryLongLeftDeepChain() {
+        final int terms = 200_000;
+        final Expr e = parse("1" + " + 1".repeat(terms - 1));
+
+        final Object res = new StackInterpreter().evaluate(e);
+
+        assertEquals((double)terms, res);
+    }
+
+    @Test
+    public void testVeryDeepUnaryNesting() {
+        Expr e = new Expr.Literal(true);
+        for (int i = 0; i < 100_001; i++) {
+            e = new Expr.Unary(TokenFactory.make(TokenType.BANG), new Expr.Grouping(e));
+        }
+
+        assertEquals(false, new StackInterpreter().evaluate(e));
+    }
+
+    @Test
+    public void testSameValuesAsInterpreter() {
+        final Interpreter interpreter = new Interpreter(Map.of("x", 4.0, "s", "str"));
+        final StackInterpreter stackInterpreter = new StackInterpreter(interpreter);
+
+        for (String source : new String[] { "(1 + 2) * -x / 3", "s + x == \"str4.0\"", "!(x < 3) == !false", "nil == nil", "\"a\" + \"b\" + 1",
+                "x > 3 and s == \"str\"", "nil or x", "false or nil and -s", "x < 3 and -s or s + 1", "(x or -s) + 1", "!(x < 1 or x > 9) and x" }) {
+            final Expr e = parse(source);
+            assertEquals(interpreter.evaluate(e), stackInterpreter.evaluate(e), source);
+        }
+    }
+
+    @Test
+    public void testFirstErrorInEvaluationOrder() {
+        final Token first = new Token(TokenType.MINUS, "-", 1);
+        final Token second = new Token(TokenType.MINUS, "-", 2);
+        final Expr e = new Expr.Binary(new Expr.Unary(first, new Expr.Literal("a")), TokenFactory.make(TokenType.PLUS), new Expr.Unary(second, new Expr.Literal("b")));
+
+        final RuntimeError err = assertThrows(RuntimeError.class, () -> new StackInterpreter().evaluate(e));
+
+        assertSame(first, err.getToken());
+    }
+
+    @Test
+    public void testLinearizedProgramIsReusable() {
+        final Expr e = parse("(1 + 2) * (3 + 4)");
+        final StackInterpreter.Program program = StackInterpreter.linearize(e);
+        final StackInterpreter stackInterpreter = new StackInterpreter();
+
+        // The grouping nodes are left out.
+        assertEquals(7, program.size());
+        assertEquals(21.0, stackInterpreter.evaluate(program));
+        assertEquals(21.0, stackInterpreter.evaluate(program));
+    }
+
+    @Test
+    public void testVeryLongLogicalChain() {
+        final int terms = 100_000;
+        final Expr e = parse("false" + " or false".repeat(terms - 2) + " or 1 or -\"a\"");
+
+        assertEquals(1.0, new StackInterpreter().evaluate(e));
+        assertEquals(1.0, new StackInterpreter().evaluate(StackInterpreter.linearize(e)));
+    }
+
+    @Test
+    public void testLinearizedLogicalSkipsRightOperand() {
+        final StackInterpreter.Program program = StackInterpreter.linearize(parse("(x and s) or (nil or x) or -s"));
+
+        assertEquals("str", new StackInterpreter(new Interpreter(Map.of("x", 4.0, "s", "str"))).evaluate(program));
+        assertEquals(1.0, new StackInterpreter(new Interpreter(Map.of("x", 1.0, "s", false))).evaluate(program));
+        final RuntimeError err = assertThrows(RuntimeError.class,
+            () -> new StackInterpreter(new Interpreter(Map.of("x", false, "s", "str"))).evaluate(program));
+        assertEquals("Operand must be a number.", err.getMessage());
+    }
+}
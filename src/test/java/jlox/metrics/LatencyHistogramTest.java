@@ -0,0 +1,75 @@
+package jlox.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    public void testEmpty() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0.0, histogram.getMeanNanos());
+        assertEquals(0, histogram.getP99Nanos());
+    }
+
+    @Test
+    public void testBuckets() {
+        for (long v = 0; v < 100_000; v++) {
+            final int index = LatencyHistogram.indexOf(v);
+            assertTrue(v <= LatencyHistogram.highestValueOf(index), "value " + v);
+            assertTrue(index == 0 || v > LatencyHistogram.highestValueOf(index - 1), "value " + v);
+        }
+        assertEquals(LatencyHistogram.MAX_VALUE, LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(LatencyHistogram.MAX_VALUE)));
+    }
+
+    @Test
+    public void testPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 10_000; v++) histogram.record(v * 1000);
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(5_000_500.0, histogram.getMeanNanos());
+        assertEquals(10_000_000, histogram.getMaxNanos());
+        for (double p : new double[] { 1, 50, 90, 99, 99.9 }) {
+            final double exact = p * 100_000;
+            final long measured = histogram.getPercentileNanos(p);
+            assertTrue(measured >= exact && measured <= exact * (1 + 1.0 / LatencyHistogram.SUB_BUCKETS), p + ": " + measured);
+        }
+        assertEquals(10_000_000, histogram.getPercentileNanos(100));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileNanos(101));
+    }
+
+    @Test
+    public void testOutOfRange() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(0, histogram.getPercentileNanos(50));
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getMaxNanos());
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 100_000; i++) histogram.record(100);
+            }));
+        }
+        for (Thread t : threads) t.join();
+
+        assertEquals(400_000, histogram.getCount());
+        assertEquals(100, histogram.getP50Nanos());
+        assertEquals(100.0, histogram.getMeanNanos());
+    }
+}
@@ -0,0 +1,188 @@
+package jlox.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.junit.jupiter.api.Test;
+
+import jlox.errors.ErrorLogger;
+import jlox.errors.RuntimeError;
+import jlox.interpreter.CachingInterpreter;
+import jlox.interpreter.Interpreter;
+import jlox.interpreter.NanBoxEvaluator;
+import jlox.interpreter.ParallelEvaluator;
+import jlox.interpreter.ResultCache;
+import jlox.interpreter.StackInterpreter;
+import jlox.optimizer.PassManager;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+class MetricsTest {
+
+    private static Expr parse(String source) {
+        return new Parser(new Scanner(source, new ErrorLogger(msg -> {})).scanTokens()).parse();
+    }
+
+    @Test
+    public void testKinds() {
+        assertEquals("Undefined variable '_'.", Metrics.kindOf("Undefined variable 'price'."));
+        assertEquals("Evaluated more than _ nodes.", Metrics.kindOf("Evaluated more than 1024 nodes."));
+        assertEquals("Unsupported operation between values: '_' and '_'.", Metrics.kindOf("Unsupported operation between values: 'a' and '1.5'."));
+        assertEquals("Expected '_' after expression.", Metrics.kindOf("Expected ';' after expression."));
+        assertEquals("Unterminated 'string", Metrics.kindOf("Unterminated 'string"));
+    }
+
+    @Test
+    public void testNothingIsRecordedUntilInstalled() {
+        Metrics.uninstall();
+
+        assertNull(Metrics.installed());
+        assertEquals(3.0, new Interpreter().evaluate(parse("1 + 2")));
+    }
+
+    @Test
+    public void testCounters() {
+        Metrics.uninstall();
+        final Metrics metrics = Metrics.install();
+        try {
+            assertSame(metrics, Metrics.install());
+            final Interpreter interpreter = new Interpreter(Map.of("a", 1.0));
+            interpreter.evaluate(parse("a + 2"));
+            assertThrows(RuntimeError.class, () -> interpreter.evaluate(parse("a + b")));
+            assertThrows(RuntimeError.class, () -> interpreter.evaluate(parse("c")));
+            assertThrows(RuntimeError.class, () -> interpreter.evaluate(parse("-\"x\"")));
+            parse("1 +");
+            parse("1 # 2");
+
+            assertEquals(6, metrics.getScans());
+            assertEquals(4 + 4 + 2 + 3 + 3 + 3, metrics.getTokensScanned());
+            assertEquals(1, metrics.getScanErrors());
+            assertEquals(6, metrics.getParses());
+            assertEquals(2, metrics.getParseErrors());
+            assertEquals(4, metrics.getEvaluations());
+            assertEquals(3, metrics.getRuntimeErrors());
+            assertEquals(Map.of("Undefined variable '_'.", 2L, "Operand must be a number.", 1L), metrics.getRuntimeErrorsByKind());
+            assertEquals(4, metrics.getEvaluateLatency().getCount());
+            assertTrue(metrics.getEvaluateLatency().getMaxNanos() > 0);
+        } finally {
+            Metrics.uninstall();
+        }
+    }
+
+    @Test
+    public void testScriptErrors() {
+        Metrics.uninstall();
+        final Metrics metrics = Metrics.install();
+        try {
+            new Parser(new Scanner("1 +; 2 2; 3", new ErrorLogger()).scanTokens()).parseScript();
+
+            assertEquals(1, metrics.getParses());
+            assertEquals(2, metrics.getParseErrors());
+        } finally {
+            Metrics.uninstall();
+        }
+    }
+
+    @Test
+    public void testMXBeans() throws Exception {
+        Metrics.uninstall();
+        final Metrics metrics = Metrics.install();
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertThrows(RuntimeError.class, () -> new Interpreter().evaluate(parse("x")));
+            metrics.registerCache("results", () -> 3, () -> 1);
+            assertThrows(IllegalArgumentException.class, () -> metrics.registerCache("results", () -> 0, () -> 0));
+
+            final ObjectName engine = new ObjectName("jlox:type=Engine");
+            assertEquals(1L, server.getAttribute(engine, "Evaluations"));
+            assertEquals(1, ((TabularData)server.getAttribute(engine, "RuntimeErrorsByKind")).size());
+            assertEquals(1L, server.getAttribute(new ObjectName("jlox:type=Latency,phase=evaluate"), "Count"));
+            assertEquals(0.75, server.getAttribute(new ObjectName("jlox:type=Cache,name=\"results\""), "HitRate"));
+        } finally {
+            Metrics.uninstall();
+        }
+
+        assertFalse(server.isRegistered(new ObjectName("jlox:type=Engine")));
+        assertTrue(server.queryNames(new ObjectName("jlox:*"), null).isEmpty());
+    }
+
+    @Test
+    public void testSharedResultCacheIsRegisteredOnce() throws Exception {
+        Metrics.uninstall();
+        final Metrics metrics = Metrics.install();
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ResultCache cache = new ResultCache(10, 1 << 20);
+            metrics.registerCache("results", cache);
+            new CachingInterpreter(cache).evaluate(parse("1 + 2"));
+            new CachingInterpreter(Map.of("x", 1.0), cache).evaluate(parse("1 + 2"));
+
+            final ObjectName name = new ObjectName("jlox:type=Cache,name=\"results\"");
+            assertEquals(0.5, server.getAttribute(name, "HitRate"));
+            assertEquals(1, server.queryNames(new ObjectName("jlox:type=Cache,*"), null).size());
+            metrics.unregisterCache("results");
+            assertFalse(server.isRegistered(name));
+        } finally {
+            Metrics.uninstall();
+        }
+    }
+
+    @Test
+    public void testFoldingIsNotAnEvaluation() {
+        Metrics.uninstall();
+        final Metrics metrics = Metrics.install();
+        try {
+            PassManager.standard().run(parse("(1 + 2) * -3 - \"a\""));
+            assertEquals(0, metrics.getEvaluations());
+            assertEquals(0, metrics.getRuntimeErrors());
+        } finally {
+            Metrics.uninstall();
+        }
+    }
+
+    @Test
+    public void testEveryEntryPointIsCounted() {
+        Metrics.uninstall();
+        final Metrics metrics = Metrics.install();
+        try {
+            final Expr e = parse("1 + 2 * 3");
+            new StackInterpreter().evaluate(StackInterpreter.linearize(e));
+            new ParallelEvaluator(new Interpreter()).evaluate(e);
+            new NanBoxEvaluator(Map.of()).evaluate(e);
+            assertThrows(RuntimeError.class, () -> new NanBoxEvaluator(Map.of()).evaluate(parse("-\"a\"")));
+
+            assertEquals(4, metrics.getEvaluations());
+            assertEquals(1, metrics.getRuntimeErrors());
+        } finally {
+            Metrics.uninstall();
+        }
+    }
+
+    @Test
+    public void testErrorKindsAreCapped() {
+        Metrics.uninstall();
+        final Metrics metrics = Metrics.install();
+        try {
+            for (int i = 0; i < Metrics.MAX_KINDS + 10; i++) {
+                metrics.recordEvaluation(1, new RuntimeError(null, "Failure " + Character.toString('A' + i)));
+            }
+
+            assertEquals(Metrics.MAX_KINDS + 1, metrics.getRuntimeErrorsByKind().size());
+            assertEquals(10L, metrics.getRuntimeErrorsByKind().get(Metrics.OTHER_KIND));
+        } finally {
+            Metrics.uninstall();
+        }
+    }
+}
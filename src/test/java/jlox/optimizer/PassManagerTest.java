@@ -0,0 +1,157 @@
+package jlox.optimizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import jlox.errors.ErrorLogger;
+import jlox.errors.RuntimeError;
+import jlox.interpreter.Interpreter;
+import jlox.parser.AstPrinter;
+import jlox.parser.Expr;
+import jlox.parser.Parser;
+import jlox.scanner.Scanner;
+
+class PassManagerTest {
+
+    private static final List<String> CORPUS = List.of(
+        "(1 + 2) * 3", "x * 1", "1 * x", "x / 1", "x - 0", "x + 0", "x - -0", "--x", "-(-(x))", "+x", "!!x", "!!(x == 1)",
+        "!!nil", "1 < x", "1 >= x * 2", "nil == x", "\"a\" != x", "(x - 1) * 1 + (2 * 3)", "1 - \"a\" + x", "x * 1 - \"a\"",
+        "-(-(x * 1)) / 1 < 2 == !!(x > 0)", "\"a\" + (1 + 2)", "0 * -1 - 0", "(0 / 0) * 1 == 0 / 0", "y * 1", "1 < y",
+        "true or -\"a\"", "nil and x", "1 and x", "x or 1 - \"a\"", "(1 < 2 or x) and !!(x == nil)", "false or y",
+        "\"a\" + \"b\" + \"c\" + x + \"d\" + \"e\"", "\"a\" + (\"b\" + \"c\" + \"d\") + 1"
+    );
+
+    private static final List<Object> VALUES = new ArrayList<>();
+    static {
+        VALUES.add(2.0);
+        VALUES.add(-0.0);
+        VALUES.add(0.0);
+        VALUES.add(Double.NaN);
+        VALUES.add(Double.NEGATIVE_INFINITY);
+        VALUES.add("s");
+        VALUES.add(true);
+        VALUES.add(null);
+    }
+
+    private static Expr parse(String source) {
+        return new Parser(new Scanner(source, new ErrorLogger()).scanTokens()).parse();
+    }
+
+    private static String print(Expr e) {
+        return new AstPrinter().print(e);
+    }
+
+    private static void assertSameSemantics(Expr original, Expr optimized) {
+        for (Object x : VALUES) {
+            final Map<String, Object> bindings = new HashMap<>();
+            bindings.put("x", x);
+            final Interpreter interpreter = new Interpreter(bindings);
+            final String message = print(original) + " with x = " + x;
+
+            RuntimeError expected = null;
+            Object expectedValue = null;
+            try {
+                expectedValue = interpreter.evaluate(original);
+            } catch (RuntimeError err) {
+                expected = err;
+            }
+
+            if (expected == null) {
+                assertEquals(expectedValue, interpreter.evaluate(optimized), message);
+            } else {
+                final RuntimeError actual = assertThrows(RuntimeError.class, () -> interpreter.evaluate(optimized));
+                assertEquals(expected.getMessage(), actual.getMessage(), message);
+                assertSame(expected.getToken(), actual.getToken(), message);
+            }
+        }
+    }
+
+    @Test
+    public void testEveryPassPreservesSemantics() {
+        final PassManager all = PassManager.standard();
+        for (String source : CORPUS) {
+            final Expr e = parse(source);
+            assertSameSemantics(e, all.run(e).getExpr());
+
+            for (String name : List.of("remove-groupings", "fold-constants", "remove-double-negations",
+                    "remove-identity-operations", "canonicalize-comparisons")) {
+                final PassManager single = PassManager.standard();
+                for (String other : List.of("remove-groupings", "fold-constants", "remove-double-negations",
+                        "remove-identity-operations", "canonicalize-comparisons")) {
+                    single.setEnabled(other, other.equals(name));
+                }
+                assertSameSemantics(e, single.run(e).getExpr());
+            }
+        }
+    }
+
+    @Test
+    public void testRewrites() {
+        final Map<String, String> expected = Map.of(
+            "(1 + 2) * 3", "9.0",
+            "-(-(x - 1)) * 1", "(- x 1.0)",
+            "!!(x == 1)", "(== x 1.0)",
+            "1 < x - 2", "(> (- x 2.0) 1.0)",
+            "nil == x", "(== x nil)"
+        );
+        for (Map.Entry<String, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), print(PassManager.standard().run(parse(entry.getKey())).getExpr()), entry.getKey());
+        }
+    }
+
+    @Test
+    public void testStringChainIsFoldedAtOnce() {
+        final StringBuilder source = new StringBuilder("\"s\"");
+        for (int i = 0; i < 2000; i++) source.append(" + \"").append(i % 10).append('"');
+        final Expr optimized = PassManager.standard().run(parse(source + " + x")).getExpr();
+
+        final Expr.Binary top = (Expr.Binary)optimized;
+        assertEquals(new Interpreter().evaluate(parse(source.toString())), ((Expr.Literal)top.left).value);
+    }
+
+    @Test
+    public void testUnsafeRewritesAreNotApplied() {
+        for (String source : List.of("(x + 0)", "(x * 1)", "(--x)", "(!!x)", "(1 < x)", "(x + 1 + 2)", "(1 - \"a\")")) {
+            final Expr e = parse(source);
+            final Expr optimized = PassManager.standard().setEnabled("remove-groupings", false).run(e).getExpr();
+
+            assertSame(e, optimized, source);
+        }
+    }
+
+    @Test
+    public void testDisabledPassIsNotRun() {
+        final PassManager manager = PassManager.standard().setEnabled("fold-constants", false);
+        final OptimizedExpr result = manager.run(parse("(1 + 2)"));
+
+        assertEquals("(+ 1.0 2.0)", print(result.getExpr()));
+        assertEquals(4, result.getStatistics().size());
+    }
+
+    @Test
+    public void testStatistics() {
+        final OptimizedExpr result = PassManager.standard().run(parse("(1 + 2) * (x - 0)"));
+        final List<PassStatistics> statistics = result.getStatistics();
+
+        assertEquals("remove-groupings", statistics.get(0).getName());
+        assertEquals(2, statistics.get(0).getNodesEliminated());
+        assertEquals("fold-constants", statistics.get(1).getName());
+        assertEquals(2, statistics.get(1).getNodesEliminated());
+        assertEquals("remove-identity-operations", statistics.get(3).getName());
+        assertEquals(0, statistics.get(3).getNodesEliminated());
+        assertEquals(PassManager.count(result.getExpr()), statistics.get(statistics.size() - 1).getNodesAfter());
+    }
+
+    @Test
+    public void testUnknownPass() {
+        assertThrows(IllegalArgumentException.class, () -> PassManager.standard().setEnabled("no-such-pass", false));
+    }
+}
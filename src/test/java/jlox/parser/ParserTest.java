@@ -243,4 +243,130 @@ class ParserTest {
         assertNull(result);
         assertTrue(p.getError().notNull());
     }
+
+    @Test
+    public void testParsingVariable() {
+        final List<Token> ts = Arrays.asList(
+                TokenFactory.make(TokenType.IDENTIFIER, "price"),
+                TokenFactory.make(TokenType.STAR),
+                TokenFactory.make(TokenType.NUMBER, "2")
+        );
+        final Parser p = new Parser(ts);
+        final Expr e = p.parse();
+
+        assertTrue(e instanceof Expr.Binary);
+        assertTrue(((Expr.Binary)e).left instanceof Expr.Variable);
+        assertEquals("price", ((Expr.Variable)((Expr.Binary)e).left).name.lexeme);
+    }
+
+    private static boolean hasGrouping(Expr e) {
+        if (e instanceof Expr.Grouping) return true;
+        if (e instanceof Expr.Binary b) return hasGrouping(b.left) || hasGrouping(b.right);
+        if (e instanceof Expr.Unary u) return hasGrouping(u.right);
+        return false;
+    }
+
+    @Test
+    public void testParsingWithoutGroupingNodes() {
+        final List<Token> ts = Arrays.asList(
+            TokenFactory.make(TokenType.LEFT_PAREN),
+            TokenFactory.make(TokenType.LEFT_PAREN),
+            TokenFactory.make(TokenType.NUMBER, "1"),
+            TokenFactory.make(TokenType.PLUS),
+            TokenFactory.make(TokenType.NUMBER, "2"),
+            TokenFactory.make(TokenType.RIGHT_PAREN),
+            TokenFactory.make(TokenType.RIGHT_PAREN),
+            TokenFactory.make(TokenType.STAR),
+            TokenFactory.make(TokenType.MINUS),
+            TokenFactory.make(TokenType.LEFT_PAREN),
+            TokenFactory.make(TokenType.NUMBER, "3"),
+            TokenFactory.make(TokenType.RIGHT_PAREN),
+            TokenFactory.make(TokenType.EOF, "")
+        );
+        final Parser withNodes = new Parser(ts);
+        final Parser withoutNodes = new Parser(ts, false);
+
+        final Expr e = withoutNodes.parse();
+
+        assertFalse(hasGrouping(e));
+        final Expr sum = ((Expr.Binary)e).left;
+        assertEquals(2, withoutNodes.getParentheses().depth(sum));
+        assertEquals(ts.get(1), withoutNodes.getParentheses().around(sum).get(0).getOpen());
+        assertEquals(ts.get(6), withoutNodes.getParentheses().around(sum).get(1).getClose());
+        assertEquals(new AstPrinter().print(withNodes.parse()), new AstPrinter(withoutNodes.getParentheses()).print(e));
+        assertEquals("(* (group (group (+ 1.0 2.0))) (- (group 3.0)))", new AstPrinter(withoutNodes.getParentheses()).print(e));
+        assertEquals("(* (+ 1.0 2.0) (- 3.0))", new AstPrinter().print(e));
+        assertTrue(withNodes.getParentheses().isEmpty());
+    }
+
+    @Test
+    public void testLogicalPrecedence() {
+        final List<Token> ts = Arrays.asList(
+            TokenFactory.make(TokenType.IDENTIFIER, "a"),
+            new Token(TokenType.OR, "or", 1),
+            TokenFactory.make(TokenType.IDENTIFIER, "b"),
+            new Token(TokenType.AND, "and", 1),
+            TokenFactory.make(TokenType.IDENTIFIER, "c"),
+            TokenFactory.make(TokenType.EQUAL_EQUAL, "=="),
+            TokenFactory.make(TokenType.NUMBER, "1"),
+            new Token(TokenType.OR, "or", 1),
+            TokenFactory.make(TokenType.IDENTIFIER, "d"),
+            TokenFactory.make(TokenType.EOF, "")
+        );
+
+        final Expr e = new Parser(ts).parse();
+
+        assertTrue(e instanceof Expr.Logical);
+        assertEquals("(or (or a (and b (== c 1.0))) d)", new AstPrinter().print(e));
+    }
+
+    @Test
+    public void testParsingScript() {
+        final List<Token> ts = Arrays.asList(
+            TokenFactory.make(TokenType.NUMBER, "1"),
+            TokenFactory.make(TokenType.PLUS),
+            TokenFactory.make(TokenType.NUMBER, "2"),
+            TokenFactory.make(TokenType.SEMICOLON),
+            TokenFactory.make(TokenType.SEMICOLON),
+            TokenFactory.make(TokenType.IDENTIFIER, "x"),
+            TokenFactory.make(TokenType.SEMICOLON),
+            TokenFactory.make(TokenType.EOF, "")
+        );
+        final Parser p = new Parser(ts, false);
+
+        final List<Expr> statements = p.parseScript();
+
+        assertFalse(p.getError().notNull());
+        assertEquals(2, statements.size());
+        assertEquals("(+ 1.0 2.0)", new AstPrinter().print(statements.get(0)));
+        assertEquals("x", new AstPrinter().print(statements.get(1)));
+    }
+
+    @Test
+    public void testParsingScriptReportsEveryBrokenStatement() {
+        final List<Token> ts = Arrays.asList(
+            TokenFactory.make(TokenType.NUMBER, "1"),
+            TokenFactory.make(TokenType.PLUS),
+            TokenFactory.make(TokenType.SEMICOLON),
+            TokenFactory.make(TokenType.NUMBER, "2"),
+            TokenFactory.make(TokenType.SEMICOLON),
+            TokenFactory.make(TokenType.NUMBER, "3"),
+            TokenFactory.make(TokenType.NUMBER, "4"),
+            TokenFactory.make(TokenType.STAR),
+            TokenFactory.make(TokenType.SEMICOLON),
+            TokenFactory.make(TokenType.NUMBER, "5"),
+            TokenFactory.make(TokenType.EOF, "")
+        );
+        final Parser p = new Parser(ts, false);
+
+        final List<Expr> statements = p.parseScript();
+
+        assertEquals(2, statements.size());
+        assertEquals("2.0", new AstPrinter().print(statements.get(0)));
+        assertEquals("5.0", new AstPrinter().print(statements.get(1)));
+        assertEquals(2, p.getScriptErrors().size());
+        assertEquals(ts.get(2), p.getScriptErrors().get(0).getToken());
+        assertEquals(ts.get(6), p.getScriptErrors().get(1).getToken());
+        assertEquals(p.getScriptErrors().get(0), p.getError().get());
+    }
 }
@@ -0,0 +1,146 @@
+package jlox.pipeline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import jlox.errors.ErrorLogger;
+import jlox.interpreter.Interpreter;
+
+class PipelineTest {
+
+    private static String lines(String... lines) {
+        return String.join(System.lineSeparator(), lines) + System.lineSeparator();
+    }
+
+    @Test
+    public void testResultsAreInSourceOrderWithBackpressure() throws Exception {
+        final StringBuilder source = new StringBuilder();
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            source.append(i).append(" + 1; ").append(i % 2 == 1 ? "\n" : "");
+            expected.append((double)(i + 1)).append(System.lineSeparator());
+        }
+        final List<String> errors = new ArrayList<>();
+        final StringWriter out = new StringWriter();
+
+        final PipelineReport report = new Pipeline(new Interpreter(), 2, 3)
+                .run(new StringReader(source.toString()), out, new ErrorLogger(errors::add));
+
+        assertEquals(expected.toString(), out.toString());
+        assertTrue(errors.isEmpty());
+        assertFalse(report.hadError());
+        assertEquals(3000, report.getStatements());
+        assertEquals(3, report.getStages().size());
+        assertEquals("scanner", report.getStages().get(0).getName());
+        assertEquals(500, report.getStages().get(0).getItems());
+        assertEquals(3000, report.getStages().get(1).getItems());
+        for (StageStatistics stage : report.getStages()) {
+            assertTrue(stage.getUtilization() >= 0.0 && stage.getUtilization() <= 1.0);
+        }
+    }
+
+    @Test
+    public void testErrorsAreReportedInOrder() throws Exception {
+        final List<String> log = new ArrayList<>();
+        final StringWriter out = new StringWriter() {
+            @Override
+            public void flush() {
+                // Moves the printed lines into the log, so the log shows the order of the output and the errors.
+                if (getBuffer().length() > 0) {
+                    log.add(toString().trim());
+                    getBuffer().setLength(0);
+                }
+            }
+        };
+
+        final PipelineReport report = new Pipeline(new Interpreter(), 4, 1)
+                .run(new StringReader("1;\n-\"a\"; 3 4;\nnil\n"), out, new ErrorLogger(log::add));
+
+        assertTrue(report.hadError());
+        assertEquals(List.of(
+            "1.0",
+            "[line 2] Error -: Operand must be a number.",
+            "[line 2] Error 4: Unexpected token.",
+            "nil"), log);
+    }
+
+    @Test
+    public void testScannerErrorsAreReported() throws Exception {
+        final List<String> errors = new ArrayList<>();
+        final StringWriter out = new StringWriter();
+
+        final PipelineReport report = new Pipeline(new Interpreter())
+                .run(new StringReader("1;\n2 @ 3"), out, new ErrorLogger(errors::add));
+
+        assertTrue(report.hadError());
+        assertEquals(List.of("[line 2] Error @: Unexpected symbol '@'", "[line 2] Error 3: Unexpected token."), errors);
+        assertEquals(lines("1.0"), out.toString());
+    }
+
+    @Test
+    public void testFailingOutputStopsTheStages() throws Exception {
+        final StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 5000; i++) source.append(i).append(";\n");
+        final Writer out = new Writer() {
+            private int writes;
+
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                if (++writes >= 100) throw new IOException("Disk full");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        final Pipeline pipeline = new Pipeline(new Interpreter(), 2, 1);
+        final Throwable[] thrown = new Throwable[1];
+
+        final Thread runner = new Thread(() -> {
+            try {
+                pipeline.run(new StringReader(source.toString()), out, new ErrorLogger(msg -> {}));
+            } catch (Throwable e) {
+                thrown[0] = e;
+            }
+        });
+        runner.start();
+        runner.join(10_000);
+
+        assertFalse(runner.isAlive(), "The pipeline hangs after the evaluator failed.");
+        assertTrue(thrown[0] instanceof IOException, String.valueOf(thrown[0]));
+    }
+
+    @Test
+    public void testQueueWrapsAround() {
+        final SpscQueue<Integer> queue = new SpscQueue<>(3);
+        assertEquals(4, queue.capacity());
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(queue.offer(2 * i));
+            assertTrue(queue.offer(2 * i + 1));
+            assertEquals(2 * i, queue.poll());
+            assertEquals(2 * i + 1, queue.poll());
+        }
+        for (int i = 0; i < 4; i++) assertTrue(queue.offer(i));
+        assertFalse(queue.offer(4));
+        assertEquals(0, queue.poll());
+        assertTrue(queue.offer(4));
+        for (int i = 1; i <= 4; i++) assertEquals(i, queue.poll());
+        assertNull(queue.poll());
+    }
+}
@@ -2,6 +2,7 @@ package jlox.scanner;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -395,4 +396,27 @@ class ScannerTest {
         assertEquals(TokenType.EQUAL_EQUAL, tokens.get(32).type);
         assertEquals(TokenType.THIS, tokens.get(33).type);
     }
+
+    @Test
+    public void shouldMergeIdenticalErrorsInARow() {
+        final List<String> errors = new ArrayList<>();
+        final Scanner sc = new Scanner("1 ### @ #\n#", new ErrorLogger(errors::add));
+        final List<Token> tokens = sc.scanTokens();
+
+        assertEquals(2, tokens.size());
+        assertEquals(List.of("[line 1] Error #: Unexpected symbol '#' (3 times)", "[line 1] Error @: Unexpected symbol '@'",
+                "[line 1] Error #: Unexpected symbol '#'", "[line 2] Error #: Unexpected symbol '#'"), errors);
+    }
+
+    @Test
+    public void shouldCapTheErrorsOfASource() {
+        final StringBuilder code = new StringBuilder();
+        for (int i = 0; i < 1000; i++) code.append(i % 2 == 0 ? '#' : '@');
+        final List<String> errors = new ArrayList<>();
+        new Scanner(code.toString(), 1, new ErrorLogger(errors::add), 10).scanTokens();
+
+        assertEquals(11, errors.size());
+        assertEquals("[line 1] Error @: Unexpected symbol '@'", errors.get(9));
+        assertEquals("[line 1] Error : Too many errors, 990 more were not reported.", errors.get(10));
+    }
 }
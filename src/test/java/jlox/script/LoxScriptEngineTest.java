@@ -0,0 +1,98 @@
+package jlox.script;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+
+import org.junit.jupiter.api.Test;
+
+class LoxScriptEngineTest {
+
+    private static ScriptEngine engine() {
+        return new ScriptEngineManager().getEngineByName("jlox");
+    }
+
+    @Test
+    public void testEngineIsDiscovered() {
+        final ScriptEngineManager manager = new ScriptEngineManager();
+
+        assertTrue(manager.getEngineByName("jlox") instanceof LoxScriptEngine);
+        assertTrue(manager.getEngineByExtension("lox") instanceof LoxScriptEngine);
+        assertTrue(manager.getEngineByMimeType("application/x-lox") instanceof LoxScriptEngine);
+        assertEquals("STATELESS", manager.getEngineByName("lox").getFactory().getParameter("THREADING"));
+        assertTrue(manager.getEngineByName("Lox") instanceof LoxScriptEngine);
+    }
+
+    @Test
+    public void testMethodCallSyntaxIsAVariable() throws Exception {
+        final ScriptEngine engine = engine();
+        final String call = engine.getFactory().getMethodCallSyntax("obj", "total", "a", "b");
+        engine.put("total", 3);
+
+        assertEquals("total", call);
+        assertEquals(3.0, engine.eval(call));
+    }
+
+    @Test
+    public void testEvalWithBindings() throws Exception {
+        final ScriptEngine engine = engine();
+        engine.put("price", 2);
+        engine.put("name", "lox");
+        // Attributes of other types are fine as long as the expression does not reference them.
+        engine.put("host", new Object());
+
+        assertEquals(6.0, engine.eval("price * 3"));
+        assertEquals("lox!", engine.eval(new StringReader("name + \"!\"")));
+        assertNull(engine.eval("nil"));
+
+        final Bindings global = engine.createBindings();
+        global.put("tax", 0.5);
+        engine.setBindings(global, ScriptContext.GLOBAL_SCOPE);
+        assertEquals(2.5, engine.eval("price + tax"));
+    }
+
+    @Test
+    public void testCompiledScriptIsEvaluatedRepeatedly() throws Exception {
+        final ScriptEngine engine = engine();
+        final CompiledScript script = ((Compilable)engine).compile("a * b > 10");
+        final Bindings bindings = engine.createBindings();
+
+        bindings.put("a", 2.0);
+        bindings.put("b", 3.0);
+        assertEquals(false, script.eval(bindings));
+        bindings.put("b", 6.0);
+        assertEquals(true, script.eval(bindings));
+        assertSame(engine, script.getEngine());
+    }
+
+    @Test
+    public void testErrorsCarryTheLine() {
+        final ScriptEngine engine = engine();
+        engine.put(ScriptEngine.FILENAME, "prices.lox");
+        engine.put("name", "lox");
+
+        final ScriptException runtime = assertThrows(ScriptException.class, () -> engine.eval("1 +\n\n-name"));
+        assertEquals(3, runtime.getLineNumber());
+        assertEquals("prices.lox", runtime.getFileName());
+        assertTrue(runtime.getMessage().startsWith("Operand must be a number."));
+
+        final ScriptException syntax = assertThrows(ScriptException.class, () -> ((Compilable)engine).compile("1 +\n(2"));
+        assertEquals(2, syntax.getLineNumber());
+
+        engine.put("x", new Object());
+        final ScriptException binding = assertThrows(ScriptException.class, () -> engine.eval("x"));
+        assertTrue(binding.getMessage().startsWith("Unsupported value for 'x'"));
+    }
+}
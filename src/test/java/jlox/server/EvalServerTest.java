@@ -0,0 +1,116 @@
+package jlox.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+class EvalServerTest {
+
+    @Test
+    public void testValuesAndErrors() throws Exception {
+        try (EvalServer server = new EvalServer(0)) {
+            final int port = server.start();
+            try (EvalClient client = new EvalClient("localhost", port)) {
+                assertEquals("3.0", client.evaluate("1 + 2").getText());
+                assertEquals("nil", client.evaluate("nil").getText());
+
+                final EvalClient.Response runtime = client.evaluate("1 +\n-\"a\"");
+                assertFalse(runtime.isSuccess());
+                assertFalse(runtime.isRejected());
+                assertEquals("[line 2] Error -: Operand must be a number.", runtime.getText());
+
+                final EvalClient.Response syntax = client.evaluate("1 +");
+                assertFalse(syntax.isSuccess());
+                assertEquals("[line 1] Error : Expected an expression", syntax.getText());
+
+                assertTrue(client.evaluate("1 + 2").isSuccess());
+            }
+            assertEquals(5, server.getRequests());
+            assertEquals(1, server.getCacheHits());
+            assertEquals(4, server.getCacheMisses());
+        }
+    }
+
+    @Test
+    public void testConnectionLimit() throws Exception {
+        try (EvalServer server = new EvalServer(0, 1, EvalServer.DEFAULT_TIMEOUT_MILLIS, 16)) {
+            final int port = server.start();
+            try (EvalClient first = new EvalClient("localhost", port)) {
+                assertTrue(first.evaluate("1").isSuccess());
+
+                try (EvalClient second = new EvalClient("localhost", port)) {
+                    final EvalClient.Response res = second.evaluate("2");
+                    assertTrue(res.isRejected());
+                    assertEquals("Too many connections.", res.getText());
+                } catch (IOException e) {
+                    // The server may close the connection before the request is written.
+                }
+                assertEquals(1, server.getRejectedConnections());
+                assertTrue(first.evaluate("3").isSuccess());
+            }
+        }
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        // Balanced, so it is wide rather than deep: it runs out of time, not out of stack.
+        final String source = balanced(17);
+
+        try (EvalServer server = new EvalServer(0, 4, 1, 16)) {
+            final int port = server.start();
+            try (EvalClient client = new EvalClient("localhost", port)) {
+                final EvalClient.Response res = client.evaluate(source);
+                assertTrue(res.isRejected());
+                assertEquals("Evaluation timed out after 1 milliseconds.", res.getText());
+                assertEquals(1, server.getTimeouts());
+
+                // The connection is still usable, once the budget has stopped the expression in the background.
+                EvalClient.Response next = client.evaluate("1 + 1");
+                for (int i = 0; i < 100 && next.isRejected(); i++) {
+                    Thread.sleep(50);
+                    next = client.evaluate("1 + 1");
+                }
+                assertEquals("2.0", next.getText());
+            }
+        }
+    }
+
+    @Test
+    public void testOverflowKeepsTheConnection() throws Exception {
+        final StringBuilder source = new StringBuilder("1");
+        for (int i = 0; i < 200_000; i++) source.append("+1");
+
+        try (EvalServer server = new EvalServer(0, 4, 10_000, 16)) {
+            final int port = server.start();
+            try (EvalClient client = new EvalClient("localhost", port)) {
+                final EvalClient.Response res = client.evaluate(source.toString());
+                assertFalse(res.isSuccess() || res.isRejected());
+                assertEquals("Expression is nested too deeply.", res.getText());
+                assertEquals("2.0", client.evaluate("1 + 1").getText());
+            }
+        }
+    }
+
+    @Test
+    public void testDeepNestingKeepsTheConnection() throws Exception {
+        final String source = "(".repeat(300_000) + "1" + ")".repeat(300_000);
+
+        try (EvalServer server = new EvalServer(0, 4, 10_000, 16)) {
+            final int port = server.start();
+            try (EvalClient client = new EvalClient("localhost", port)) {
+                final EvalClient.Response res = client.evaluate(source);
+                assertFalse(res.isSuccess() || res.isRejected());
+                assertEquals("Expression is nested too deeply.", res.getText());
+                assertEquals("2.0", client.evaluate("1 + 1").getText());
+            }
+        }
+    }
+
+    private static String balanced(int depth) {
+        return depth == 0 ? "1" : "(" + balanced(depth - 1) + "+" + balanced(depth - 1) + ")";
+    }
+}
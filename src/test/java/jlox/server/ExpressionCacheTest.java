@@ -0,0 +1,54 @@
+package jlox.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import jlox.errors.CompileError;
+
+class ExpressionCacheTest {
+
+    @Test
+    public void testHit() {
+        final ExpressionCache cache = new ExpressionCache(10, 1 << 20);
+
+        assertSame(cache.compile("1 + 2"), cache.compile("1 + 2"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testErrorsAreCached() {
+        final ExpressionCache cache = new ExpressionCache(10, 1 << 20);
+
+        final CompileError first = assertThrows(CompileError.class, () -> cache.compile("1 +"));
+        assertSame(first, assertThrows(CompileError.class, () -> cache.compile("1 +")));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void testBoundedByEntries() {
+        final ExpressionCache cache = new ExpressionCache(10, 1 << 20);
+
+        for (int i = 0; i < 100; i++) {
+            cache.compile(i + " + 1");
+        }
+
+        assertEquals(10, cache.size());
+    }
+
+    @Test
+    public void testBoundedByBytes() {
+        final ExpressionCache cache = new ExpressionCache(1000, 10_000);
+
+        for (int i = 0; i < 100; i++) {
+            cache.compile("1" + " + 1".repeat(i));
+        }
+
+        assertTrue(cache.getBytes() <= 10_000);
+        assertTrue(cache.size() < 100);
+    }
+}